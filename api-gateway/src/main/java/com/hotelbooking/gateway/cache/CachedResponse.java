@@ -0,0 +1,22 @@
+package com.hotelbooking.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Закэшированный ответ сервиса
+ *
+ * @param varyHeaders имена заголовков из Vary ответа
+ * @param varyValues  значения этих заголовков в запросе, для которого получен ответ
+ */
+record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body,
+                      List<String> varyHeaders, List<String> varyValues,
+                      long storedAtNanos, Duration ttl) {
+
+    int weight() {
+        return body.length + 512;
+    }
+}
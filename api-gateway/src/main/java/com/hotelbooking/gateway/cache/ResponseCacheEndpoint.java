@@ -0,0 +1,31 @@
+package com.hotelbooking.gateway.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator эндпоинт кэша ответов: GET - состояние, DELETE - сброс (целиком или по префиксу пути)
+ */
+@Component
+@Endpoint(id = "responsecache")
+@RequiredArgsConstructor
+public class ResponseCacheEndpoint {
+
+    private final ResponseCacheFilter responseCacheFilter;
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return responseCacheFilter.stats();
+    }
+
+    @DeleteOperation
+    public Map<String, Object> purge(@Nullable String path) {
+        return Map.of("purged", responseCacheFilter.purge(path));
+    }
+}
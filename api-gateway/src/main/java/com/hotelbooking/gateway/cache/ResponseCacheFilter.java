@@ -0,0 +1,427 @@
+package com.hotelbooking.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.hotelbooking.gateway.ratelimit.RateLimitFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GatewayMetricsFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Кэш ответов шлюза для публичных GET-запросов каталога
+ * <ul>
+ *   <li>кэшируются только пути из gateway.response-cache.rules, у каждого правила свой TTL;</li>
+ *   <li>объем ограничен суммарным размером тел ответов (вытеснение по весу);</li>
+ *   <li>ключ учитывает значения заголовков из Vary ответа;</li>
+ *   <li>одновременные промахи по одному ключу схлопываются: в сервис уходит один запрос,
+ *       остальные ждут его ответа;</li>
+ *   <li>успешный изменяющий запрос через маршрут сбрасывает ответы только тех правил,
+ *       чей ресурс он затрагивает (evicted-by правила, по умолчанию /api/hotels, /api/rooms и т.п.).</li>
+ * </ul>
+ * Запросы с Authorization кэш обходят: общий кэш не должен отвечать на них сохраненным ответом.
+ * Фильтр стоит раньше маршрутных фильтров, поэтому попадания в кэш не расходуют лимит RateLimitFilter.
+ * По той же причине до GatewayMetricsFilter ответы из кэша не доходят: их замер выполняется через него же,
+ * чтобы попадания были видны в spring.cloud.gateway.requests.
+ * Правила - явное разрешение кэшировать, поэтому Cache-Control: no-store, который Spring Security
+ * добавляет ко всем ответам сервиса, не учитывается; не кэшируются ответы с private и Set-Cookie.
+ */
+@Component
+@Slf4j
+public class ResponseCacheFilter implements GatewayFilter, Ordered {
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private static final List<String> NOT_STORED_HEADERS = List.of(
+        HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION,
+        HttpHeaders.SET_COOKIE, "Keep-Alive", CACHE_STATUS_HEADER, RateLimitFilter.REMAINING_HEADER);
+
+    private static final int VARY_INDEX_MAX_SIZE = 10_000;
+
+    private final ResponseCacheProperties properties;
+    private final List<CompiledRule> rules;
+    private final Cache<String, CachedResponse> responses;
+    /** Базовый ключ (путь и query) - имена заголовков из Vary последнего ответа */
+    private final Cache<String, List<String>> varyIndex;
+    private final ConcurrentMap<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter collapsedRequests;
+    @Nullable
+    private final GatewayMetricsFilter metricsFilter;
+
+    public ResponseCacheFilter(ResponseCacheProperties properties, MeterRegistry meterRegistry,
+                               @Nullable GatewayMetricsFilter metricsFilter) {
+        this.properties = properties;
+        this.metricsFilter = metricsFilter;
+        this.rules = properties.getRules().stream()
+            .map(rule -> new CompiledRule(PathPatternParser.defaultInstance.parse(rule.getPath()), rule.getTtl(),
+                rule.getEvictedBy().isEmpty() ? List.of(resourcePrefix(rule.getPath())) : List.copyOf(rule.getEvictedBy())))
+            .toList();
+        Duration maxTtl = rules.stream().map(CompiledRule::ttl).max(Duration::compareTo).orElse(Duration.ZERO);
+
+        this.responses = Caffeine.newBuilder()
+            .maximumWeight(properties.getMaxWeight().toBytes())
+            .weigher((String key, CachedResponse response) -> key.length() + response.weight())
+            .expireAfter(new PerRuleExpiry())
+            .recordStats()
+            .build();
+        this.varyIndex = Caffeine.newBuilder()
+            .maximumSize(VARY_INDEX_MAX_SIZE)
+            .expireAfterWrite(maxTtl)
+            .build();
+        this.collapsedRequests = Counter.builder("gateway.response.cache.collapsed")
+            .description("Запросы, дождавшиеся ответа на такой же запрос вместо обращения к сервису")
+            .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "gateway.response");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        if (!HttpMethod.GET.equals(request.getMethod())) {
+            return isSafe(request.getMethod()) ? chain.filter(exchange) : invalidateAfterWrite(exchange, chain);
+        }
+
+        CompiledRule rule = findRule(request);
+        if (rule == null || request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
+            return chain.filter(exchange);
+        }
+
+        String baseKey = baseKey(request);
+        String key = baseKey + variantSuffix(varyIndex.asMap().getOrDefault(baseKey, List.of()), request);
+
+        CachedResponse cached = responses.getIfPresent(key);
+        if (cached != null && matchesVariant(cached, request)) {
+            return serveCached(exchange, cached, "HIT");
+        }
+
+        Sinks.One<CachedResponse> sink = Sinks.one();
+        Sinks.One<CachedResponse> leader = inFlight.putIfAbsent(key, sink);
+        if (leader != null) {
+            return awaitLeader(exchange, chain, leader);
+        }
+
+        exchange.getResponse().getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+        CachingResponse cachingResponse = new CachingResponse(exchange, baseKey, rule, sink);
+        return chain.filter(exchange.mutate().response(cachingResponse).build())
+            .doFinally(signal -> {
+                inFlight.remove(key, sink);
+                sink.tryEmitEmpty();
+            });
+    }
+
+    /**
+     * До NettyWriteResponseFilter, иначе тело ответа будет записано мимо декоратора
+     */
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    /**
+     * Удалить из кэша ответы, путь которых начинается с prefix (все при null)
+     *
+     * @return число удаленных записей
+     */
+    public int purge(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            int size = (int) responses.estimatedSize();
+            responses.invalidateAll();
+            varyIndex.invalidateAll();
+            return size;
+        }
+        List<String> keys = new ArrayList<>();
+        responses.asMap().keySet().forEach(key -> {
+            if (key.startsWith(prefix)) {
+                keys.add(key);
+            }
+        });
+        responses.invalidateAll(keys);
+        varyIndex.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        return keys.size();
+    }
+
+    /**
+     * Текущее состояние кэша для actuator
+     */
+    public Map<String, Object> stats() {
+        long weight = responses.policy().eviction()
+            .flatMap(eviction -> eviction.weightedSize().stream().boxed().findFirst())
+            .orElse(0L);
+        return Map.of(
+            "enabled", properties.isEnabled(),
+            "entries", responses.estimatedSize(),
+            "weightBytes", weight,
+            "maxWeightBytes", properties.getMaxWeight().toBytes(),
+            "hitRate", responses.stats().hitRate(),
+            "inFlight", inFlight.size());
+    }
+
+    private Mono<Void> awaitLeader(ServerWebExchange exchange, GatewayFilterChain chain, Sinks.One<CachedResponse> leader) {
+        return leader.asMono()
+            .timeout(properties.getCollapseTimeout(), Mono.empty())
+            .filter(response -> matchesVariant(response, exchange.getRequest()))
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .flatMap(response -> {
+                if (response.isEmpty()) {
+                    // Ответ лидера не закэширован или для другого варианта - идем в сервис сами
+                    return chain.filter(exchange);
+                }
+                collapsedRequests.increment();
+                return serveCached(exchange, response.get(), "COLLAPSED");
+            });
+    }
+
+    private Mono<Void> invalidateAfterWrite(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return chain.filter(exchange).doOnSuccess(done -> {
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            if (status != null && status.is2xxSuccessful()) {
+                String path = exchange.getRequest().getPath().pathWithinApplication().value();
+                int evicted = evictAffectedBy(path);
+                log.debug("Evicted {} cached responses after {} {}", evicted, exchange.getRequest().getMethod(), path);
+            }
+        });
+    }
+
+    /**
+     * Удалить ответы правил, которые сбрасывает запись по пути writePath
+     *
+     * @return число удаленных записей
+     */
+    int evictAffectedBy(String writePath) {
+        List<CompiledRule> affected = rules.stream()
+            .filter(rule -> rule.evictedBy().stream().anyMatch(prefix -> isUnder(writePath, prefix)))
+            .toList();
+        if (affected.isEmpty()) {
+            return 0;
+        }
+        List<String> keys = new ArrayList<>();
+        responses.asMap().keySet().forEach(key -> {
+            PathContainer path = PathContainer.parsePath(pathOf(key));
+            if (affected.stream().anyMatch(rule -> rule.pattern().matches(path))) {
+                keys.add(key);
+            }
+        });
+        responses.invalidateAll(keys);
+        varyIndex.asMap().keySet().removeIf(key -> {
+            PathContainer path = PathContainer.parsePath(pathOf(key));
+            return affected.stream().anyMatch(rule -> rule.pattern().matches(path));
+        });
+        return keys.size();
+    }
+
+    /**
+     * Ответ из кэша, замеренный GatewayMetricsFilter так же, как ответ сервиса
+     */
+    private Mono<Void> serveCached(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
+        if (metricsFilter == null) {
+            return writeCached(exchange, cached, cacheStatus);
+        }
+        return metricsFilter.filter(exchange, served -> writeCached(served, cached, cacheStatus));
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(cached.status());
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(cached.headers());
+        headers.setContentLength(cached.body().length);
+        headers.set(HttpHeaders.AGE, String.valueOf(Duration.ofNanos(System.nanoTime() - cached.storedAtNanos()).toSeconds()));
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+    }
+
+    private CompiledRule findRule(ServerHttpRequest request) {
+        for (CompiledRule rule : rules) {
+            if (rule.pattern().matches(request.getPath().pathWithinApplication())) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Первые два сегмента пути правила: /api/rooms/hotel/{hotelId} -> /api/rooms
+     */
+    static String resourcePrefix(String path) {
+        int first = path.indexOf('/', 1);
+        if (first < 0) {
+            return path;
+        }
+        int second = path.indexOf('/', first + 1);
+        return second < 0 ? path : path.substring(0, second);
+    }
+
+    private static boolean isUnder(String path, String prefix) {
+        return path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/');
+    }
+
+    /**
+     * Путь из ключа кэша: ключ - путь, затем query после '?' и значения Vary после нулевого символа
+     */
+    private static String pathOf(String key) {
+        int end = key.length();
+        int query = key.indexOf('?');
+        if (query >= 0) {
+            end = query;
+        }
+        int variant = key.indexOf('\u0000');
+        if (variant >= 0 && variant < end) {
+            end = variant;
+        }
+        return key.substring(0, end);
+    }
+
+    private static boolean isSafe(HttpMethod method) {
+        return HttpMethod.HEAD.equals(method) || HttpMethod.OPTIONS.equals(method);
+    }
+
+    private static String baseKey(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        return query == null ? request.getURI().getRawPath() : request.getURI().getRawPath() + '?' + query;
+    }
+
+    private static List<String> varyValues(List<String> varyHeaders, ServerHttpRequest request) {
+        if (varyHeaders.isEmpty()) {
+            return List.of();
+        }
+        List<String> values = new ArrayList<>(varyHeaders.size());
+        for (String name : varyHeaders) {
+            values.add(String.join(",", request.getHeaders().getOrEmpty(name)));
+        }
+        return values;
+    }
+
+    private static String variantSuffix(List<String> varyHeaders, ServerHttpRequest request) {
+        return variantSuffix(varyValues(varyHeaders, request));
+    }
+
+    private static String variantSuffix(List<String> varyValues) {
+        return varyValues.isEmpty() ? "" : '\u0000' + String.join("\u0000", varyValues);
+    }
+
+    private static boolean matchesVariant(CachedResponse cached, ServerHttpRequest request) {
+        return cached.varyValues().equals(varyValues(cached.varyHeaders(), request));
+    }
+
+    private record CompiledRule(PathPattern pattern, Duration ttl, List<String> evictedBy) {
+    }
+
+    private static final class PerRuleExpiry implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+            return response.ttl().toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse response, long currentTime, long currentDuration) {
+            return response.ttl().toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse response, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Декоратор ответа лидера: собирает тело, кладет ответ в кэш и отдает его ожидающим запросам
+     */
+    private final class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerHttpRequest request;
+        private final String baseKey;
+        private final CompiledRule rule;
+        private final Sinks.One<CachedResponse> sink;
+
+        private CachingResponse(ServerWebExchange exchange, String baseKey, CompiledRule rule,
+                                Sinks.One<CachedResponse> sink) {
+            super(exchange.getResponse());
+            this.request = exchange.getRequest();
+            this.baseKey = baseKey;
+            this.rule = rule;
+            this.sink = sink;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(body)
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .defaultIfEmpty(new byte[0])
+                .flatMap(bytes -> {
+                    store(bytes);
+                    return getDelegate().writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                });
+        }
+
+        private void store(byte[] body) {
+            HttpStatusCode status = getStatusCode();
+            HttpHeaders headers = getHeaders();
+            if (status == null || status.value() != 200 || body.length > properties.getMaxBodySize().toBytes()
+                    || !isCacheable(headers)) {
+                return;
+            }
+            List<String> varyHeaders = headers.getVary();
+            if (varyHeaders.contains("*")) {
+                return;
+            }
+
+            HttpHeaders stored = new HttpHeaders();
+            stored.putAll(headers);
+            NOT_STORED_HEADERS.forEach(stored::remove);
+
+            List<String> varyValues = varyValues(varyHeaders, request);
+            CachedResponse cached = new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(stored), body,
+                List.copyOf(varyHeaders), varyValues, System.nanoTime(), rule.ttl());
+            varyIndex.put(baseKey, cached.varyHeaders());
+            responses.put(baseKey + variantSuffix(varyValues), cached);
+            sink.tryEmitValue(cached);
+        }
+
+        private boolean isCacheable(HttpHeaders headers) {
+            String cacheControl = headers.getCacheControl();
+            return !headers.containsKey(HttpHeaders.SET_COOKIE)
+                && (cacheControl == null || !cacheControl.contains("private"));
+        }
+    }
+}
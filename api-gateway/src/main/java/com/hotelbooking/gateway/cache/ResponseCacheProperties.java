@@ -0,0 +1,45 @@
+package com.hotelbooking.gateway.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки кэша ответов шлюза для публичных GET-запросов каталога
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    /** Суммарный объем тел ответов в кэше */
+    private DataSize maxWeight = DataSize.ofMegabytes(64);
+
+    /** Ответы больше этого размера не кэшируются */
+    private DataSize maxBodySize = DataSize.ofMegabytes(1);
+
+    /** Сколько ждать ответа на такой же запрос, уже отправленный в сервис */
+    private Duration collapseTimeout = Duration.ofSeconds(5);
+
+    /** Правила кэширования: шаблон пути и время жизни */
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+
+        private String path;
+
+        private Duration ttl = Duration.ofSeconds(30);
+
+        /**
+         * Префиксы путей, успешная запись по которым сбрасывает ответы правила
+         * По умолчанию - первые два сегмента пути правила (/api/rooms/hotel/{hotelId} -> /api/rooms)
+         */
+        private List<String> evictedBy = new ArrayList<>();
+    }
+}
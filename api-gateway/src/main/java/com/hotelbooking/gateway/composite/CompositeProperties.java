@@ -0,0 +1,26 @@
+package com.hotelbooking.gateway.composite;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки составных эндпоинтов шлюза: адрес Hotel Service и таймауты отдельных вызовов
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.composite")
+public class CompositeProperties {
+
+    /** Базовый адрес Hotel Service; имя сервиса разрешается балансировщиком */
+    private String hotelServiceUri = "http://hotel-service";
+
+    /** Таймаут запроса отеля; без отеля страница не строится */
+    private Duration hotelTimeout = Duration.ofSeconds(2);
+
+    /** Таймаут запроса номеров отеля */
+    private Duration roomsTimeout = Duration.ofSeconds(2);
+
+    /** Таймаут запроса рекомендованных номеров */
+    private Duration recommendedTimeout = Duration.ofSeconds(1);
+}
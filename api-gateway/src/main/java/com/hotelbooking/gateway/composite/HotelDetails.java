@@ -0,0 +1,16 @@
+package com.hotelbooking.gateway.composite;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Страница отеля одним ответом: отель, его номера и рекомендованные к бронированию номера
+ * rooms и recommendedRoomIds равны null, если соответствующий вызов не удался; причина - в errors
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record HotelDetails(JsonNode hotel, JsonNode rooms, List<Long> recommendedRoomIds,
+                           @JsonInclude(JsonInclude.Include.NON_EMPTY) Map<String, String> errors) {
+}
@@ -0,0 +1,186 @@
+package com.hotelbooking.gateway.composite;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelbooking.gateway.security.TrustedPrincipalSigner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Составной эндпоинт страницы отеля: GET /api/composite/hotels/{id}
+ * Параллельно запрашивает у Hotel Service отель, его номера и его рекомендованные номера и отдает
+ * один ответ - клиент делает один запрос к шлюзу вместо трех. Каждый вызов ограничен своим таймаутом.
+ * Рекомендации фильтрует по отелю сам Hotel Service (recommend?hotelId), а не шлюз по общему списку.
+ * Без отеля ответ не строится (его статус передается клиенту), остальные части необязательны:
+ * при их ошибке ответ 200 без этой части и с причиной в errors.
+ * Фильтр завершает обработку сам и ставится в маршрут последним, после JWT фильтра и лимита.
+ */
+@Slf4j
+@Component
+public class HotelDetailsFilter implements GatewayFilter {
+
+    static final String ROOMS_PART = "rooms";
+    static final String RECOMMENDED_PART = "recommendedRoomIds";
+
+    /**
+     * Заголовки запроса клиента, по которым Hotel Service аутентифицирует вызовы
+     */
+    private static final List<String> FORWARDED_HEADERS = List.of(
+        HttpHeaders.AUTHORIZATION, TrustedPrincipalSigner.PRINCIPAL_HEADER);
+
+    private final WebClient webClient;
+    private final CompositeProperties properties;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public HotelDetailsFilter(WebClient.Builder webClientBuilder, ReactorLoadBalancerExchangeFilterFunction loadBalancer,
+                              CompositeProperties properties, ObjectMapper objectMapper) {
+        this(webClientBuilder.baseUrl(properties.getHotelServiceUri()).filter(loadBalancer).build(),
+            properties, objectMapper);
+    }
+
+    HotelDetailsFilter(WebClient webClient, CompositeProperties properties, ObjectMapper objectMapper) {
+        this.webClient = webClient;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long hotelId;
+        try {
+            hotelId = Long.parseLong(ServerWebExchangeUtils.getUriTemplateVariables(exchange).get("id"));
+        } catch (NumberFormatException e) {
+            return writeError(exchange.getResponse(), HttpStatus.BAD_REQUEST, "Некорректный ID отеля");
+        }
+
+        HttpHeaders headers = forwardedHeaders(exchange.getRequest().getHeaders());
+        Map<String, String> errors = new ConcurrentHashMap<>();
+
+        Mono<JsonNode> hotel = get("/api/hotels/" + hotelId, headers, properties.getHotelTimeout()).single();
+        Mono<Optional<JsonNode>> rooms = optional(ROOMS_PART,
+            get("/api/rooms/hotel/" + hotelId, headers, properties.getRoomsTimeout()), errors);
+        Mono<Optional<List<Long>>> recommended = optional(RECOMMENDED_PART,
+            get("/api/rooms/recommend?hotelId=" + hotelId, headers, properties.getRecommendedTimeout())
+                .map(HotelDetailsFilter::roomIds), errors);
+
+        // Ошибка отеля отменяет остальные вызовы, ошибки необязательных частей сюда не доходят
+        return Mono.zip(hotel, rooms, recommended)
+            .map(parts -> new HotelDetails(parts.getT1(), parts.getT2().orElse(null),
+                parts.getT3().orElse(null), new TreeMap<>(errors)))
+            .flatMap(details -> writeJson(exchange.getResponse(), HttpStatus.OK, details))
+            .onErrorResume(e -> writeHotelError(exchange.getResponse(), hotelId, e));
+    }
+
+    private Mono<JsonNode> get(String path, HttpHeaders headers, Duration timeout) {
+        return webClient.get()
+            .uri(path)
+            .headers(h -> h.addAll(headers))
+            .retrieve()
+            .bodyToMono(JsonNode.class)
+            .timeout(timeout);
+    }
+
+    private <T> Mono<Optional<T>> optional(String part, Mono<T> call, Map<String, String> errors) {
+        return call.map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .onErrorResume(e -> {
+                log.debug("Composite part {} failed: {}", part, e.toString());
+                errors.put(part, describe(e));
+                return Mono.just(Optional.empty());
+            });
+    }
+
+    private Mono<Void> writeHotelError(ServerHttpResponse response, long hotelId, Throwable e) {
+        // 4xx Hotel Service (нет отеля, нет доступа) отдается клиенту как есть
+        if (e instanceof WebClientResponseException responseException
+                && responseException.getStatusCode().is4xxClientError()) {
+            response.setStatusCode(responseException.getStatusCode());
+            MediaType contentType = responseException.getHeaders().getContentType();
+            if (contentType != null) {
+                response.getHeaders().setContentType(contentType);
+            }
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(responseException.getResponseBodyAsByteArray())));
+        }
+        log.warn("Composite hotel {} failed: {}", hotelId, e.toString());
+        return e instanceof TimeoutException
+            ? writeError(response, HttpStatus.GATEWAY_TIMEOUT, "Hotel Service не ответил вовремя")
+            : writeError(response, HttpStatus.BAD_GATEWAY, "Hotel Service недоступен");
+    }
+
+    private Mono<Void> writeError(ServerHttpResponse response, HttpStatus status, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", message);
+        return writeJson(response, status, body);
+    }
+
+    private Mono<Void> writeJson(ServerHttpResponse response, HttpStatusCode status, Object body) {
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+    }
+
+    private static HttpHeaders forwardedHeaders(HttpHeaders requestHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : FORWARDED_HEADERS) {
+            List<String> values = requestHeaders.get(name);
+            if (values != null) {
+                headers.put(name, values);
+            }
+        }
+        return headers;
+    }
+
+    private static List<Long> roomIds(JsonNode rooms) {
+        List<Long> ids = new ArrayList<>(rooms.size());
+        for (JsonNode room : rooms) {
+            ids.add(room.path("id").asLong());
+        }
+        return ids;
+    }
+
+    private static String describe(Throwable e) {
+        if (e instanceof TimeoutException) {
+            return "timeout";
+        }
+        if (e instanceof WebClientResponseException responseException) {
+            return "status " + responseException.getStatusCode().value();
+        }
+        return "unavailable";
+    }
+}
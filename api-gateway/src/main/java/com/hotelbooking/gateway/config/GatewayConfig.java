@@ -1,38 +1,60 @@
 package com.hotelbooking.gateway.config;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.hotelbooking.gateway.cache.ResponseCacheFilter;
+import com.hotelbooking.gateway.cache.ResponseCacheProperties;
+import com.hotelbooking.gateway.composite.CompositeProperties;
+import com.hotelbooking.gateway.composite.HotelDetailsFilter;
+import com.hotelbooking.gateway.ratelimit.RateLimitFilter;
+import com.hotelbooking.gateway.ratelimit.RateLimitProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 
 /**
  * Конфигурация маршрутизации API Gateway
  */
 @Configuration
+@EnableConfigurationProperties({ResponseCacheProperties.class, RateLimitProperties.class, CompositeProperties.class})
 public class GatewayConfig {
 
     @Bean
-    public RouteLocator customRouteLocator(RouteLocatorBuilder builder,
-                                         @Value("${jwt.secret:mySuperSecretKeyForJWTTokenSigningInHotelBookingSystem2024}") String jwtSecret) {
-        JwtAuthenticationFilter jwtFilter = new JwtAuthenticationFilter(jwtSecret);
-
+    public RouteLocator customRouteLocator(RouteLocatorBuilder builder, JwtAuthenticationFilter jwtFilter,
+                                           RateLimitFilter rateLimitFilter, ResponseCacheFilter responseCacheFilter,
+                                           HotelDetailsFilter hotelDetailsFilter) {
         return builder.routes()
             // Маршруты для Booking Service
             .route("booking-service", r -> r
                 .path("/api/bookings/**", "/api/booking/**", "/api/user/**")
                 .filters(f -> f
                     .stripPrefix(1) // Удаляем /api префикс
-                    .filter(jwtFilter.apply(new JwtAuthenticationFilter.Config())))
+                    .filter(jwtFilter.apply(new JwtAuthenticationFilter.Config()))
+                    // Лимит по пользователю из JWT фильтра, поэтому после него
+                    .filter(rateLimitFilter.apply(new RateLimitFilter.Config("booking-service"))))
                 .uri("lb://booking-service"))
 
             // Маршруты для Hotel Service (путь /api/hotels остается, так как контроллер использует /api/hotels)
             .route("hotel-service", r -> r
                 .path("/api/hotels/**", "/api/rooms/**")
                 .filters(f -> f
-                    .filter(jwtFilter.apply(new JwtAuthenticationFilter.Config())))
+                    .filter(jwtFilter.apply(new JwtAuthenticationFilter.Config()))
+                    .filter(rateLimitFilter.apply(new RateLimitFilter.Config("hotel-service")))
+                    // Кэш публичных GET каталога (правила в gateway.response-cache)
+                    .filter(responseCacheFilter))
                 .uri("lb://hotel-service"))
 
+            // Составная страница отеля: ответ собирает сам шлюз из нескольких вызовов Hotel Service
+            .route("hotel-composite", r -> r
+                .path("/api/composite/hotels/{id}")
+                .and().method(HttpMethod.GET)
+                .filters(f -> f
+                    .filter(jwtFilter.apply(new JwtAuthenticationFilter.Config()))
+                    .filter(rateLimitFilter.apply(new RateLimitFilter.Config("hotel-service")))
+                    .filter(hotelDetailsFilter))
+                .uri("no://op"))
+
             .build();
     }
 }
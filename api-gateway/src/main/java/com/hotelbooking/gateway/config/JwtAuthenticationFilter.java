@@ -1,19 +1,18 @@
 package com.hotelbooking.gateway.config;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
+import com.hotelbooking.gateway.security.JwtVerifier;
+import com.hotelbooking.gateway.security.TrustedPrincipalSigner;
+import com.hotelbooking.gateway.security.VerifiedToken;
+import io.jsonwebtoken.JwtException;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
-import reactor.core.publisher.Mono;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
 
 /**
@@ -23,54 +22,69 @@ import java.util.List;
 @Component
 public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAuthenticationFilter.Config> {
 
-    private final SecretKey jwtSecret;
+    /**
+     * Заголовки, которые выставляет только шлюз - значения от клиента отбрасываются
+     */
+    private static final List<String> GATEWAY_HEADERS = List.of(
+        "X-User-Username", "X-User-Role", "X-JWT-Token", TrustedPrincipalSigner.PRINCIPAL_HEADER);
 
-    public JwtAuthenticationFilter(@Value("${jwt.secret:defaultSecretKeyForJWTTokenSigningOnlyForDevelopment}") String jwtSecret) {
+    private final JwtVerifier jwtVerifier;
+    private final TrustedPrincipalSigner principalSigner;
+
+    public JwtAuthenticationFilter(JwtVerifier jwtVerifier, TrustedPrincipalSigner principalSigner) {
         super(Config.class);
-        this.jwtSecret = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.jwtVerifier = jwtVerifier;
+        this.principalSigner = principalSigner;
     }
 
     @Override
     public GatewayFilter apply(Config config) {
         return (exchange, chain) -> {
-            String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+            String authHeader = requestHeaders.getFirst(HttpHeaders.AUTHORIZATION);
 
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                return chain.filter(exchange);
+                if (GATEWAY_HEADERS.stream().noneMatch(requestHeaders::containsKey)) {
+                    return chain.filter(exchange);
+                }
+                return chain.filter(exchange.mutate()
+                    .request(exchange.getRequest().mutate().headers(this::removeGatewayHeaders).build())
+                    .build());
             }
 
             String token = authHeader.substring(7);
 
+            VerifiedToken verified;
             try {
-                Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(jwtSecret)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-                String username = claims.getSubject();
-                String role = claims.get("role", String.class);
-
-                // Добавляем информацию в заголовки для передачи в сервисы
-                ServerWebExchange modifiedExchange = exchange.mutate()
-                    .request(exchange.getRequest().mutate()
-                        .header("X-User-Username", username)
-                        .header("X-User-Role", role)
-                        .header("X-JWT-Token", token)
-                        .build())
-                    .build();
-
-                return chain.filter(modifiedExchange);
-            } catch (Exception e) {
+                // Повторно встреченный токен берется из кэша без проверки подписи
+                verified = jwtVerifier.verify(token);
+            } catch (JwtException | IllegalArgumentException e) {
                 exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
                 return exchange.getResponse().setComplete();
             }
+
+            // Добавляем информацию в заголовки для передачи в сервисы
+            ServerHttpRequest.Builder request = exchange.getRequest().mutate()
+                .headers(this::removeGatewayHeaders)
+                .header("X-User-Username", verified.username())
+                .header("X-User-Role", verified.role())
+                .header("X-JWT-Token", token);
+
+            // В режиме доверенного шлюза сервисы берут принципал из подписанного заголовка, не проверяя JWT
+            if (principalSigner.isEnabled()) {
+                request.header(TrustedPrincipalSigner.PRINCIPAL_HEADER, principalSigner.sign(verified, Instant.now()));
+            }
+
+            ServerWebExchange modifiedExchange = exchange.mutate().request(request.build()).build();
+            return chain.filter(modifiedExchange);
         };
     }
 
+    private void removeGatewayHeaders(HttpHeaders headers) {
+        GATEWAY_HEADERS.forEach(headers::remove);
+    }
+
     public static class Config {
         // Конфигурация фильтра
     }
 }
-
-
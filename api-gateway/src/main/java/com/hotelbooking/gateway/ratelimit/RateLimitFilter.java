@@ -0,0 +1,108 @@
+package com.hotelbooking.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фильтр ограничения частоты запросов: token bucket на пару (маршрут, клиент) в памяти шлюза
+ * Клиент - X-User-Username, выставленный JwtAuthenticationFilter, или IP для анонимных запросов,
+ * поэтому фильтр ставится в маршрут после JWT фильтра. При превышении - 429 с Retry-After.
+ */
+@Component
+public class RateLimitFilter extends AbstractGatewayFilterFactory<RateLimitFilter.Config> {
+
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private static final String USERNAME_HEADER = "X-User-Username";
+
+    private final RateLimitProperties properties;
+    private final Cache<String, TokenBucket> buckets;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(properties.getMaxKeys())
+            .expireAfterAccess(properties.getIdleTimeout())
+            .build();
+        Gauge.builder("gateway.ratelimit.buckets", buckets, Cache::estimatedSize)
+            .description("Число отслеживаемых клиентов")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        RateLimitProperties.Limit limit = properties.getRoutes().get(config.getRouteId());
+        if (!properties.isEnabled() || limit == null) {
+            return (exchange, chain) -> chain.filter(exchange);
+        }
+
+        Counter userRejections = rejectionCounter(config.getRouteId(), "user");
+        Counter ipRejections = rejectionCounter(config.getRouteId(), "ip");
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            String username = request.getHeaders().getFirst(USERNAME_HEADER);
+            String key = username != null
+                ? config.getRouteId() + ":user:" + username
+                : config.getRouteId() + ":ip:" + clientIp(request);
+
+            long now = System.nanoTime();
+            TokenBucket bucket = buckets.get(key, k -> new TokenBucket(limit.getRate(), limit.getBurst(), now));
+            long waitNanos = bucket.tryAcquire(now);
+
+            if (waitNanos == 0) {
+                exchange.getResponse().getHeaders().set(REMAINING_HEADER, String.valueOf(bucket.remaining(now)));
+                return chain.filter(exchange);
+            }
+
+            (username != null ? userRejections : ipRejections).increment();
+            HttpHeaders headers = exchange.getResponse().getHeaders();
+            headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+            headers.set(REMAINING_HEADER, "0");
+            exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            return exchange.getResponse().setComplete();
+        };
+    }
+
+    private Counter rejectionCounter(String routeId, String keyType) {
+        return Counter.builder("gateway.ratelimit.rejected")
+            .description("Запросы, отклоненные с 429")
+            .tag("route", routeId)
+            .tag("key", keyType)
+            .register(meterRegistry);
+    }
+
+    private static String clientIp(ServerHttpRequest request) {
+        InetSocketAddress address = request.getRemoteAddress();
+        if (address == null) {
+            return "unknown";
+        }
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Config {
+        /** ID маршрута, лимит берется из gateway.rate-limit.routes */
+        private String routeId;
+    }
+}
@@ -0,0 +1,37 @@
+package com.hotelbooking.gateway.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Настройки ограничения частоты запросов в шлюзе
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Максимум одновременно отслеживаемых клиентов (пользователь или IP) на всех маршрутах */
+    private long maxKeys = 100_000;
+
+    /** Корзина клиента, не делавшего запросов это время, удаляется */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /** Лимиты по ID маршрута; маршруты без записи не ограничиваются */
+    private Map<String, Limit> routes = new HashMap<>();
+
+    @Data
+    public static class Limit {
+
+        /** Запросов в секунду на клиента */
+        private double rate = 10;
+
+        /** Запросов подряд после простоя */
+        private int burst = 20;
+    }
+}
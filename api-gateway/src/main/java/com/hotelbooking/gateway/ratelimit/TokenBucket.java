@@ -0,0 +1,55 @@
+package com.hotelbooking.gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Неблокирующий token bucket в форме GCRA (generic cell rate algorithm)
+ * Все состояние - одно число (теоретическое время прихода следующего запроса), обновляемое через CAS,
+ * поэтому проверка не берет блокировок и не требует фонового пополнения.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalNanos;
+
+    /**
+     * @param ratePerSecond скорость пополнения, запросов в секунду
+     * @param burst         емкость: сколько запросов подряд можно выполнить после простоя
+     */
+    public TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("rate must be positive and burst at least 1");
+        }
+        this.emissionIntervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * burst;
+        this.theoreticalArrivalNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Попытаться взять один токен
+     *
+     * @return 0, если запрос разрешен, иначе через сколько наносекунд появится токен
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrivalNanos.get();
+            long newTat = Math.max(tat, nowNanos) + emissionIntervalNanos;
+            long waitNanos = newTat - nowNanos - burstToleranceNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(tat, newTat)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Сколько запросов еще можно выполнить прямо сейчас
+     */
+    public long remaining(long nowNanos) {
+        long used = Math.max(theoreticalArrivalNanos.get(), nowNanos) - nowNanos;
+        return Math.max(0, (burstToleranceNanos - used) / emissionIntervalNanos);
+    }
+}
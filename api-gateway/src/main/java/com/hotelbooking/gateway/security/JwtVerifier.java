@@ -0,0 +1,126 @@
+package com.hotelbooking.gateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Проверка JWT с кэшем уже проверенных токенов
+ * Парсер с ключом строится один раз. Успешно проверенный токен хранится в кэше до своего exp
+ * (но не дольше max-ttl), поэтому повторные запросы с тем же токеном не платят за HMAC и разбор JSON.
+ * Ключ кэша - сама строка токена: совпадение только при полном равенстве, коллизии хэша невозможны.
+ * Невалидные токены не кэшируются.
+ * Проверка при промахе кэша - наблюдение gateway.jwt.verify: таймер и спан в трассе запроса.
+ */
+@Component
+public class JwtVerifier {
+
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLE_CLAIM = "role";
+
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> cache;
+    private final ObservationRegistry observationRegistry;
+    private final Clock clock;
+
+    @Autowired
+    public JwtVerifier(@Value("${jwt.secret}") String jwtSecret,
+                       @Value("${gateway.jwt-cache.max-size:100000}") long maxSize,
+                       @Value("${gateway.jwt-cache.max-ttl:1h}") Duration maxTtl,
+                       MeterRegistry meterRegistry,
+                       ObservationRegistry observationRegistry) {
+        this(jwtSecret, maxSize, maxTtl, meterRegistry, observationRegistry, Clock.systemUTC());
+    }
+
+    JwtVerifier(String jwtSecret, long maxSize, Duration maxTtl, MeterRegistry meterRegistry,
+                ObservationRegistry observationRegistry, Clock clock) {
+        this.clock = clock;
+        this.observationRegistry = observationRegistry;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)))
+                .setClock(() -> Date.from(clock.instant()))
+                .build();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry(maxTtl, clock))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.jwt");
+    }
+
+    /**
+     * Проверить токен
+     *
+     * @throws JwtException если подпись неверна, токен истек или поврежден
+     */
+    public VerifiedToken verify(String token) {
+        VerifiedToken cached = cache.getIfPresent(token);
+        if (cached != null && !cached.isExpired(clock.instant())) {
+            return cached;
+        }
+
+        // Полная проверка подписи и разбор JWT (промах кэша)
+        VerifiedToken verified = Observation.createNotStarted("gateway.jwt.verify", observationRegistry)
+                .contextualName("jwt verify")
+                .observe(() -> parse(token));
+        cache.put(token, verified);
+        return verified;
+    }
+
+    private VerifiedToken parse(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        Date expiration = claims.getExpiration();
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.get(ROLE_CLAIM, String.class),
+                userId != null ? userId.longValue() : null,
+                expiration != null ? expiration.toInstant() : null);
+    }
+
+    /**
+     * Время жизни записи - до exp токена, но не больше maxTtl
+     */
+    private record UntilTokenExpiry(Duration maxTtl, Clock clock) implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+            if (verified.expiresAt() == null) {
+                return maxTtl.toNanos();
+            }
+            Duration untilExpiry = Duration.between(clock.instant(), verified.expiresAt());
+            if (untilExpiry.isNegative()) {
+                return 0;
+            }
+            return Math.min(untilExpiry.toNanos(), maxTtl.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, verified, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.hotelbooking.gateway.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Подпись принципала для режима доверенного шлюза
+ * Вместо повторной проверки JWT сервисы получают заголовок X-Auth-Principal вида
+ * base64url(uid \n role \n exp \n username) + "." + base64url(HMAC-SHA256),
+ * проверка которого стоит один HMAC над несколькими десятками байт.
+ */
+@Component
+public class TrustedPrincipalSigner {
+
+    public static final String PRINCIPAL_HEADER = "X-Auth-Principal";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_LENGTH = 32;
+    /** Срок действия заголовка для токенов без exp */
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(1);
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final boolean enabled;
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> mac;
+
+    public TrustedPrincipalSigner(@Value("${security.trusted-gateway.enabled:false}") boolean enabled,
+                                  @Value("${security.trusted-gateway.secret:}") String secret) {
+        this.enabled = enabled;
+        if (enabled && secret.length() < MIN_SECRET_LENGTH) {
+            throw new IllegalStateException("security.trusted-gateway.secret must be at least "
+                    + MIN_SECRET_LENGTH + " characters");
+        }
+        this.key = enabled ? new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM) : null;
+        this.mac = ThreadLocal.withInitial(this::createMac);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Значение заголовка X-Auth-Principal для проверенного токена
+     */
+    public String sign(VerifiedToken token, Instant now) {
+        Instant expiresAt = token.expiresAt() != null ? token.expiresAt() : now.plus(DEFAULT_TTL);
+        String payload = (token.userId() != null ? token.userId().toString() : "")
+                + '\n' + token.role()
+                + '\n' + expiresAt.getEpochSecond()
+                + '\n' + token.username();
+
+        String encodedPayload = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        byte[] signature = mac.get().doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+        return encodedPayload + '.' + ENCODER.encodeToString(signature);
+    }
+
+    private Mac createMac() {
+        try {
+            Mac instance = Mac.getInstance(HMAC_ALGORITHM);
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialize " + HMAC_ALGORITHM, e);
+        }
+    }
+}
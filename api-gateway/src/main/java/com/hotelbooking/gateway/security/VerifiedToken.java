@@ -0,0 +1,16 @@
+package com.hotelbooking.gateway.security;
+
+import java.time.Instant;
+
+/**
+ * Результат проверки JWT: данные пользователя и момент истечения токена
+ *
+ * @param userId    ID пользователя из claim "uid" (null для токенов старого формата)
+ * @param expiresAt момент истечения (null, если в токене нет exp)
+ */
+public record VerifiedToken(String username, String role, Long userId, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
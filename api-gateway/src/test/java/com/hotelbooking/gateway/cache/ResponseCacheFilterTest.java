@@ -0,0 +1,173 @@
+package com.hotelbooking.gateway.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GatewayMetricsFilter;
+import org.springframework.cloud.gateway.support.tagsprovider.GatewayHttpTagsProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для ResponseCacheFilter
+ */
+class ResponseCacheFilterTest {
+
+    private ResponseCacheFilter filter;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger upstreamCalls;
+
+    @BeforeEach
+    void setUp() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setRules(List.of(rule("/api/hotels"), rule("/api/rooms"), rule("/api/rooms/hotel/{hotelId}", "/api/rooms", "/api/hotels")));
+
+        meterRegistry = new SimpleMeterRegistry();
+        GatewayMetricsFilter metricsFilter = new GatewayMetricsFilter(meterRegistry,
+            List.of(new GatewayHttpTagsProvider()), "spring.cloud.gateway");
+        filter = new ResponseCacheFilter(properties, meterRegistry, metricsFilter);
+        upstreamCalls = new AtomicInteger();
+    }
+
+    @Test
+    void filter_SecondRequest_ShouldBeServedFromCache() {
+        // Given
+        MockServerWebExchange first = exchange(MockServerHttpRequest.get("/api/hotels"));
+        MockServerWebExchange second = exchange(MockServerHttpRequest.get("/api/hotels"));
+
+        // When
+        filter.filter(first, upstream("hotels", null)).block();
+        filter.filter(second, upstream("hotels", null)).block();
+
+        // Then
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(second.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER)).isEqualTo("HIT");
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("hotels");
+    }
+
+    @Test
+    void filter_DifferentVaryHeaderValue_ShouldMiss() {
+        // Given
+        MockServerWebExchange en = exchange(MockServerHttpRequest.get("/api/hotels").header(HttpHeaders.ACCEPT_LANGUAGE, "en"));
+        MockServerWebExchange ru = exchange(MockServerHttpRequest.get("/api/hotels").header(HttpHeaders.ACCEPT_LANGUAGE, "ru"));
+        MockServerWebExchange enAgain = exchange(MockServerHttpRequest.get("/api/hotels").header(HttpHeaders.ACCEPT_LANGUAGE, "en"));
+
+        // When
+        filter.filter(en, upstream("hotels-en", HttpHeaders.ACCEPT_LANGUAGE)).block();
+        filter.filter(ru, upstream("hotels-ru", HttpHeaders.ACCEPT_LANGUAGE)).block();
+        filter.filter(enAgain, upstream("unexpected", HttpHeaders.ACCEPT_LANGUAGE)).block();
+
+        // Then
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(ru.getResponse().getBodyAsString().block()).isEqualTo("hotels-ru");
+        assertThat(enAgain.getResponse().getBodyAsString().block()).isEqualTo("hotels-en");
+    }
+
+    @Test
+    void filter_WithAuthorizationOrUnmatchedPath_ShouldBypassCache() {
+        // When
+        for (int i = 0; i < 2; i++) {
+            filter.filter(exchange(MockServerHttpRequest.get("/api/hotels").header(HttpHeaders.AUTHORIZATION, "Bearer token")),
+                upstream("hotels", null)).block();
+            filter.filter(exchange(MockServerHttpRequest.get("/api/hotels/1")), upstream("hotel", null)).block();
+        }
+
+        // Then
+        assertThat(upstreamCalls).hasValue(4);
+    }
+
+    @Test
+    void filter_SuccessfulWrite_ShouldPurgeCache() {
+        // Given
+        filter.filter(exchange(MockServerHttpRequest.get("/api/hotels")), upstream("hotels", null)).block();
+
+        // When
+        filter.filter(exchange(MockServerHttpRequest.post("/api/hotels")), upstream("created", null)).block();
+        filter.filter(exchange(MockServerHttpRequest.get("/api/hotels")), upstream("hotels", null)).block();
+
+        // Then
+        assertThat(upstreamCalls).hasValue(3);
+    }
+
+    @Test
+    void filter_SuccessfulWrite_ShouldEvictOnlyRulesOfWrittenResource() {
+        // Given
+        filter.filter(exchange(MockServerHttpRequest.get("/api/hotels")), upstream("hotels", null)).block();
+        filter.filter(exchange(MockServerHttpRequest.get("/api/rooms")), upstream("rooms", null)).block();
+        filter.filter(exchange(MockServerHttpRequest.get("/api/rooms/hotel/1")), upstream("hotel-rooms", null)).block();
+
+        // When: новый номер не меняет список отелей
+        filter.filter(exchange(MockServerHttpRequest.post("/api/rooms")), upstream("created", null)).block();
+        MockServerWebExchange hotels = exchange(MockServerHttpRequest.get("/api/hotels"));
+        MockServerWebExchange rooms = exchange(MockServerHttpRequest.get("/api/rooms"));
+        MockServerWebExchange hotelRooms = exchange(MockServerHttpRequest.get("/api/rooms/hotel/1"));
+        filter.filter(hotels, upstream("hotels", null)).block();
+        filter.filter(rooms, upstream("rooms", null)).block();
+        filter.filter(hotelRooms, upstream("hotel-rooms", null)).block();
+
+        // Then
+        assertThat(hotels.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER)).isEqualTo("HIT");
+        assertThat(rooms.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER)).isEqualTo("MISS");
+        assertThat(hotelRooms.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER)).isEqualTo("MISS");
+
+        // When: удаление отеля сбрасывает его номера через evicted-by, но не общий список номеров
+        filter.filter(exchange(MockServerHttpRequest.delete("/api/hotels/1")), upstream("", null)).block();
+
+        // Then
+        assertThat(filter.stats().get("entries")).isEqualTo(1L);
+    }
+
+    @Test
+    void filter_CacheHit_ShouldBeRecordedInGatewayRequestMetrics() {
+        // Given
+        filter.filter(exchange(MockServerHttpRequest.get("/api/hotels")), upstream("hotels", null)).block();
+
+        // When
+        filter.filter(exchange(MockServerHttpRequest.get("/api/hotels")), upstream("hotels", null)).block();
+
+        // Then: промах замеряет GatewayMetricsFilter в цепочке шлюза, попадание - сам фильтр кэша
+        assertThat(meterRegistry.get("spring.cloud.gateway.requests").tag("status", "OK").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void resourcePrefix_ShouldKeepFirstTwoSegments() {
+        assertThat(ResponseCacheFilter.resourcePrefix("/api/rooms/hotel/{hotelId}")).isEqualTo("/api/rooms");
+        assertThat(ResponseCacheFilter.resourcePrefix("/api/hotels")).isEqualTo("/api/hotels");
+    }
+
+    private static ResponseCacheProperties.Rule rule(String path, String... evictedBy) {
+        ResponseCacheProperties.Rule rule = new ResponseCacheProperties.Rule();
+        rule.setPath(path);
+        rule.setTtl(Duration.ofMinutes(1));
+        rule.setEvictedBy(List.of(evictedBy));
+        return rule;
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+
+    private GatewayFilterChain upstream(String body, String vary) {
+        return (ServerWebExchange exchange) -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            if (vary != null) {
+                exchange.getResponse().getHeaders().setVary(List.of(vary));
+            }
+            return exchange.getResponse().writeWith(Mono.fromSupplier(() ->
+                exchange.getResponse().bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+}
@@ -0,0 +1,164 @@
+package com.hotelbooking.gateway.composite;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для HotelDetailsFilter
+ */
+class HotelDetailsFilterTest {
+
+    private static final String HOTEL = "{\"id\":1,\"name\":\"Гранд Отель\"}";
+    private static final String ROOMS = "[{\"id\":1,\"hotelId\":1},{\"id\":2,\"hotelId\":1}]";
+    private static final String RECOMMENDED = "[{\"id\":2,\"hotelId\":1},{\"id\":1,\"hotelId\":1}]";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final Map<String, ClientResponse> responses = new ConcurrentHashMap<>();
+    private final Set<String> slowPaths = ConcurrentHashMap.newKeySet();
+    private final Map<String, String> authorizationByPath = new ConcurrentHashMap<>();
+
+    private HotelDetailsFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        WebClient webClient = WebClient.builder()
+            .baseUrl("http://hotel-service")
+            .exchangeFunction(request -> {
+                String query = request.url().getRawQuery();
+                String path = query == null ? request.url().getPath() : request.url().getPath() + '?' + query;
+                String authorization = request.headers().getFirst(HttpHeaders.AUTHORIZATION);
+                if (authorization != null) {
+                    authorizationByPath.put(path, authorization);
+                }
+                Mono<ClientResponse> response = Mono.justOrEmpty(responses.get(path))
+                    .switchIfEmpty(Mono.error(new IllegalStateException("Unexpected call " + path)));
+                return slowPaths.contains(path) ? response.delayElement(Duration.ofSeconds(5)) : response;
+            })
+            .build();
+
+        CompositeProperties properties = new CompositeProperties();
+        properties.setRecommendedTimeout(Duration.ofMillis(100));
+        filter = new HotelDetailsFilter(webClient, properties, objectMapper);
+
+        respond("/api/hotels/1", HttpStatus.OK, HOTEL);
+        respond("/api/rooms/hotel/1", HttpStatus.OK, ROOMS);
+        respond("/api/rooms/recommend?hotelId=1", HttpStatus.OK, RECOMMENDED);
+    }
+
+    @Test
+    void filter_ShouldMergeAllPartsAndForwardAuthorization() throws Exception {
+        // Given
+        MockServerWebExchange exchange = exchange("1", "Bearer token");
+
+        // When
+        filter.filter(exchange, e -> Mono.empty()).block();
+
+        // Then
+        JsonNode body = body(exchange);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(body.path("hotel").path("name").asText()).isEqualTo("Гранд Отель");
+        assertThat(body.path("rooms")).hasSize(2);
+        assertThat(body.path("recommendedRoomIds").toString()).isEqualTo("[2,1]");
+        assertThat(body.has("errors")).isFalse();
+        assertThat(authorizationByPath).containsEntry("/api/hotels/1", "Bearer token")
+            .containsEntry("/api/rooms/hotel/1", "Bearer token");
+    }
+
+    @Test
+    void filter_OptionalPartFails_ShouldReturnPartialResponse() throws Exception {
+        // Given
+        respond("/api/rooms/hotel/1", HttpStatus.SERVICE_UNAVAILABLE, "{}");
+        slowPaths.add("/api/rooms/recommend?hotelId=1");
+        MockServerWebExchange exchange = exchange("1", null);
+
+        // When
+        filter.filter(exchange, e -> Mono.empty()).block();
+
+        // Then
+        JsonNode body = body(exchange);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(body.has("hotel")).isTrue();
+        assertThat(body.has("rooms")).isFalse();
+        assertThat(body.path("errors").path(HotelDetailsFilter.ROOMS_PART).asText()).isEqualTo("status 503");
+        assertThat(body.path("errors").path(HotelDetailsFilter.RECOMMENDED_PART).asText()).isEqualTo("timeout");
+    }
+
+    @Test
+    void filter_HotelNotFound_ShouldPassStatusThrough() throws Exception {
+        // Given
+        respond("/api/hotels/1", HttpStatus.NOT_FOUND, "{\"status\":404,\"message\":\"Отель не найден: 1\"}");
+        MockServerWebExchange exchange = exchange("1", null);
+
+        // When
+        filter.filter(exchange, e -> Mono.empty()).block();
+
+        // Then
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(body(exchange).path("message").asText()).isEqualTo("Отель не найден: 1");
+    }
+
+    @Test
+    void filter_HotelServiceError_ShouldReturnBadGateway() throws Exception {
+        // Given
+        respond("/api/hotels/1", HttpStatus.INTERNAL_SERVER_ERROR, "{}");
+        MockServerWebExchange exchange = exchange("1", null);
+
+        // When
+        filter.filter(exchange, e -> Mono.empty()).block();
+
+        // Then
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.BAD_GATEWAY);
+        assertThat(body(exchange).path("status").asInt()).isEqualTo(502);
+    }
+
+    @Test
+    void filter_InvalidId_ShouldReturnBadRequest() {
+        // Given
+        MockServerWebExchange exchange = exchange("abc", null);
+
+        // When
+        filter.filter(exchange, e -> Mono.empty()).block();
+
+        // Then
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private void respond(String path, HttpStatus status, String body) {
+        responses.put(path, ClientResponse.create(status)
+            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .body(body)
+            .build());
+    }
+
+    private MockServerWebExchange exchange(String id, String authorization) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/composite/hotels/" + id);
+        if (authorization != null) {
+            request.header(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        ServerWebExchangeUtils.putUriTemplateVariables(exchange, Map.of("id", id));
+        return exchange;
+    }
+
+    private JsonNode body(MockServerWebExchange exchange) throws Exception {
+        return objectMapper.readTree(exchange.getResponse().getBodyAsString().block());
+    }
+}
@@ -0,0 +1,73 @@
+package com.hotelbooking.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для TokenBucket
+ */
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_ShouldAllowBurstThenReject() {
+        // Given
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+
+        // When
+        int allowed = 0;
+        for (int i = 0; i < 10; i++) {
+            if (bucket.tryAcquire(0) == 0) {
+                allowed++;
+            }
+        }
+
+        // Then
+        assertThat(allowed).isEqualTo(5);
+        assertThat(bucket.remaining(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isEqualTo(SECOND / 10);
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillAtConfiguredRate() {
+        // Given
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+        for (int i = 0; i < 5; i++) {
+            bucket.tryAcquire(0);
+        }
+
+        // When & Then
+        assertThat(bucket.tryAcquire(SECOND / 10)).isZero();
+        assertThat(bucket.tryAcquire(SECOND / 10)).isPositive();
+        assertThat(bucket.remaining(10 * SECOND)).isEqualTo(5);
+    }
+
+    @Test
+    void tryAcquire_Concurrently_ShouldNeverExceedBurst() throws InterruptedException {
+        // Given
+        TokenBucket bucket = new TokenBucket(1, 100, 0);
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> {
+                if (bucket.tryAcquire(0) == 0) {
+                    allowed.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(allowed).hasValue(100);
+    }
+}
@@ -0,0 +1,136 @@
+package com.hotelbooking.gateway.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Тесты для JwtVerifier
+ */
+class JwtVerifierTest {
+
+    private static final String JWT_SECRET = "testSecretKeyForJWTTokenSigningInHotelBookingSystemTests2024";
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private JwtVerifier jwtVerifier;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-01-01T10:00:00Z"));
+        meterRegistry = new SimpleMeterRegistry();
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        jwtVerifier = new JwtVerifier(JWT_SECRET, 1000, Duration.ofHours(1), meterRegistry, observationRegistry, clock);
+    }
+
+    @Test
+    void verify_ShouldReturnClaims() {
+        // Given
+        String token = token(JWT_SECRET, clock.instant().plus(Duration.ofMinutes(30)));
+
+        // When
+        VerifiedToken verified = jwtVerifier.verify(token);
+
+        // Then
+        assertThat(verified.username()).isEqualTo("user");
+        assertThat(verified.role()).isEqualTo("USER");
+        assertThat(verified.userId()).isEqualTo(2L);
+        assertThat(verified.expiresAt()).isEqualTo(clock.instant().plus(Duration.ofMinutes(30)));
+    }
+
+    @Test
+    void verify_SameToken_ShouldBeServedFromCache() {
+        // Given
+        String token = token(JWT_SECRET, clock.instant().plus(Duration.ofMinutes(30)));
+
+        // When
+        VerifiedToken first = jwtVerifier.verify(token);
+        VerifiedToken second = jwtVerifier.verify(new String(token));
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(meterRegistry.get("gateway.jwt.verify").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void verify_CachedTokenPastExpiry_ShouldBeRejected() {
+        // Given
+        String token = token(JWT_SECRET, clock.instant().plus(Duration.ofMinutes(5)));
+        jwtVerifier.verify(token);
+
+        // When
+        clock.advance(Duration.ofMinutes(6));
+
+        // Then
+        assertThatThrownBy(() -> jwtVerifier.verify(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void verify_InvalidSignature_ShouldFailEveryTime() {
+        // Given
+        String token = token("anotherSecretKeyForJWTTokenSigningInHotelBookingSystem2024", clock.instant().plus(Duration.ofMinutes(30)));
+
+        // When & Then
+        assertThatThrownBy(() -> jwtVerifier.verify(token)).isInstanceOf(SignatureException.class);
+        assertThatThrownBy(() -> jwtVerifier.verify(token)).isInstanceOf(SignatureException.class);
+        assertThat(meterRegistry.get("gateway.jwt.verify").timer().count()).isEqualTo(2);
+    }
+
+    private String token(String secret, Instant expiresAt) {
+        return Jwts.builder()
+                .setSubject("user")
+                .claim(JwtVerifier.USER_ID_CLAIM, 2L)
+                .claim(JwtVerifier.ROLE_CLAIM, "USER")
+                .setIssuedAt(Date.from(clock.instant()))
+                .setExpiration(Date.from(expiresAt))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
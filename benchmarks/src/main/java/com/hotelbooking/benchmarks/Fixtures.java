@@ -0,0 +1,74 @@
+package com.hotelbooking.benchmarks;
+
+import com.hotelbooking.booking.dto.BookingDto;
+import com.hotelbooking.booking.entity.Booking;
+import com.hotelbooking.booking.entity.User;
+import com.hotelbooking.hotel.dto.RoomDto;
+import com.hotelbooking.hotel.entity.Hotel;
+import com.hotelbooking.hotel.entity.Room;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Данные бенчмарков: одинаковые при каждом запуске (фиксированный seed), чтобы результаты разных версий были сравнимы
+ */
+final class Fixtures {
+
+    static final String JWT_SECRET = "mySuperSecretKeyForJWTTokenSigningInHotelBookingSystem2024";
+    static final int HOTELS = 10;
+
+    private Fixtures() {
+    }
+
+    static Hotel hotel(long id) {
+        return new Hotel(id, "Hotel " + id, "Street " + id + ", Moscow", null);
+    }
+
+    /**
+     * Номера по HOTELS отелям; доступно около 80%, times_booked от 0 до 49
+     */
+    static List<Room> rooms(int count) {
+        Random random = new Random(42);
+        List<Hotel> hotels = new ArrayList<>(HOTELS);
+        for (long id = 1; id <= HOTELS; id++) {
+            hotels.add(hotel(id));
+        }
+        List<Room> rooms = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Hotel hotel = hotels.get(i % HOTELS);
+            rooms.add(new Room((long) i, String.valueOf(100 + i / HOTELS), hotel, random.nextInt(5) != 0, random.nextInt(50)));
+        }
+        return rooms;
+    }
+
+    static List<RoomDto> roomDtos(int count) {
+        return rooms(count).stream()
+                .map(room -> new RoomDto(room.getId(), room.getNumber(), room.getHotel().getId(), room.getAvailable(),
+                        room.getTimesBooked()))
+                .toList();
+    }
+
+    static User user() {
+        return new User(2L, "user", "$2a$10$hash", User.Role.USER, LocalDateTime.of(2024, 1, 1, 12, 0));
+    }
+
+    static Booking booking(long id) {
+        LocalDate start = LocalDate.of(2025, 1, 1).plusDays(id % 300);
+        return new Booking(id, user(), id % 50 + 1, start, start.plusDays(3), Booking.Status.CONFIRMED,
+                LocalDateTime.of(2024, 12, 1, 10, 30), "request-" + id);
+    }
+
+    static List<BookingDto> bookingDtos(int count) {
+        List<BookingDto> bookings = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            Booking booking = booking(id);
+            bookings.add(new BookingDto(id, 2L, "user", booking.getRoomId(), booking.getStartDate(), booking.getEndDate(),
+                    booking.getStatus().name(), booking.getCreatedAt()));
+        }
+        return bookings;
+    }
+}
@@ -0,0 +1,74 @@
+package com.hotelbooking.benchmarks;
+
+import com.hotelbooking.booking.security.JwtTokenProvider;
+import com.hotelbooking.gateway.security.JwtVerifier;
+import com.hotelbooking.gateway.security.VerifiedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT: выпуск access-токена при входе (JwtTokenProvider из UserService) и проверка в шлюзе
+ * (JwtVerifier из JwtAuthenticationFilter) - из кэша проверенных токенов и с полным разбором подписи
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    /** Больше, чем успевает вытеснить кэш размера 0: каждая проверка verifyUncached - промах */
+    private static final int DISTINCT_TOKENS = 4096;
+
+    private JwtTokenProvider tokenProvider;
+    private JwtVerifier cachedVerifier;
+    private JwtVerifier uncachedVerifier;
+    private String token;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider(Fixtures.JWT_SECRET, Duration.ofHours(1));
+        cachedVerifier = new JwtVerifier(Fixtures.JWT_SECRET, 100_000, Duration.ofHours(1),
+                new SimpleMeterRegistry(), ObservationRegistry.NOOP);
+        uncachedVerifier = new JwtVerifier(Fixtures.JWT_SECRET, 0, Duration.ofHours(1),
+                new SimpleMeterRegistry(), ObservationRegistry.NOOP);
+        token = tokenProvider.createAccessToken(2L, "user", "USER");
+        cachedVerifier.verify(token);
+        tokens = new String[DISTINCT_TOKENS];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = tokenProvider.createAccessToken((long) i, "user" + i, "USER");
+        }
+    }
+
+    @Benchmark
+    public String sign() {
+        return tokenProvider.createAccessToken(2L, "user", "USER");
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCached() {
+        return cachedVerifier.verify(token);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyUncached() {
+        next = (next + 1) % tokens.length;
+        return uncachedVerifier.verify(tokens[next]);
+    }
+}
@@ -0,0 +1,140 @@
+package com.hotelbooking.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.hotelbooking.common.logging.RequestIdFilter;
+import com.hotelbooking.common.logging.SampledDebugTurboFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+import org.springframework.boot.logging.logback.StructuredLogEncoder;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Логирование на один запрос создания бронирования: три DEBUG и одна INFO запись с requestId в MDC
+ * sync - синхронный вывод с DEBUG для пакетов приложения (локальная конфигурация),
+ * async - тот же уровень через AsyncAppender профиля prod,
+ * sampled - профиль prod целиком: INFO, AsyncAppender и DEBUG только для 1% запросов (SampledDebugTurboFilter)
+ * Записи кодируются в JSON ECS и пишутся в пустой поток: измеряются логирование и кодирование, а не консоль
+ * Для async и sampled score - цена для потока запроса; если фоновый поток не успевает кодировать,
+ * DEBUG и INFO сверх discardingThreshold отбрасываются, как и в проде
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    private static final int REQUEST_IDS = 4096;
+
+    @Param({"sync", "async", "sampled"})
+    private String mode;
+
+    private LoggerContext context;
+    private Logger log;
+    private RequestIdFilter requestIdFilter;
+    private String[] requestIds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = new LoggerContext();
+        context.setMDCAdapter(MDC.getMDCAdapter()); // Тот же MDC, что у RequestIdFilter и turbo-фильтра
+        context.putObject(Environment.class.getName(), new StandardEnvironment());
+
+        StructuredLogEncoder encoder = new StructuredLogEncoder();
+        encoder.setContext(context);
+        encoder.setFormat("ecs");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> console = new OutputStreamAppender<>();
+        console.setContext(context);
+        console.setName("CONSOLE");
+        console.setEncoder(encoder);
+        console.setOutputStream(OutputStream.nullOutputStream());
+        console.start();
+
+        Appender<ILoggingEvent> appender = console;
+        if (!mode.equals("sync")) {
+            // Настройки ASYNC_CONSOLE из logback-spring.xml профиля prod
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setName("ASYNC_CONSOLE");
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1638);
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.addAppender(console);
+            async.start();
+            appender = async;
+        }
+
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+
+        log = context.getLogger("com.hotelbooking.booking.service.BookingService");
+        if (mode.equals("sampled")) {
+            SampledDebugTurboFilter turboFilter = new SampledDebugTurboFilter();
+            turboFilter.setContext(context);
+            turboFilter.start();
+            context.addTurboFilter(turboFilter);
+            requestIdFilter = new RequestIdFilter(0.01);
+        } else {
+            context.getLogger("com.hotelbooking").setLevel(Level.DEBUG);
+        }
+
+        Random random = new Random(42);
+        requestIds = new String[REQUEST_IDS];
+        for (int i = 0; i < REQUEST_IDS; i++) {
+            requestIds[i] = new UUID(random.nextLong(), random.nextLong()).toString();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+        MDC.clear();
+    }
+
+    @Benchmark
+    public void createBookingRequest() {
+        String requestId = requestIds[next++ & (REQUEST_IDS - 1)];
+        MDC.put(RequestIdFilter.REQUEST_ID_MDC_KEY, requestId);
+        if (requestIdFilter != null && requestIdFilter.isSampled(requestId)) {
+            MDC.put(RequestIdFilter.SAMPLED_MDC_KEY, "true");
+        }
+        try {
+            log.debug("Starting booking creation for user: {}, requestId: {}", "user", requestId);
+            log.debug("Created booking in PENDING status: {}", 42L);
+            log.debug("Booking confirmed: {}", 42L);
+            log.info("Booking {} confirmed for room {}", 42L, 7L);
+        } finally {
+            MDC.remove(RequestIdFilter.REQUEST_ID_MDC_KEY);
+            MDC.remove(RequestIdFilter.SAMPLED_MDC_KEY);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.hotelbooking.benchmarks;
+
+import com.hotelbooking.booking.dto.BookingDto;
+import com.hotelbooking.booking.entity.ArchivedBooking;
+import com.hotelbooking.booking.entity.Booking;
+import com.hotelbooking.booking.mapper.BookingMapper;
+import com.hotelbooking.booking.mapper.BookingMapperImpl;
+import com.hotelbooking.hotel.dto.HotelDto;
+import com.hotelbooking.hotel.dto.RoomDto;
+import com.hotelbooking.hotel.entity.Hotel;
+import com.hotelbooking.hotel.entity.Room;
+import com.hotelbooking.hotel.mapper.HotelMapper;
+import com.hotelbooking.hotel.mapper.HotelMapperImpl;
+import com.hotelbooking.hotel.mapper.RoomMapper;
+import com.hotelbooking.hotel.mapper.RoomMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразования MapStruct: сущность -> DTO на каждом ответе сервисов
+ * roomsToDto - список из 100 номеров так же, как его строит RoomService
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private final RoomMapper roomMapper = new RoomMapperImpl();
+    private final HotelMapper hotelMapper = new HotelMapperImpl();
+    private final BookingMapper bookingMapper = new BookingMapperImpl();
+
+    private Room room;
+    private List<Room> rooms;
+    private Hotel hotel;
+    private Booking booking;
+
+    @Setup
+    public void setUp() {
+        rooms = Fixtures.rooms(100);
+        room = rooms.get(0);
+        hotel = Fixtures.hotel(1);
+        booking = Fixtures.booking(1);
+    }
+
+    @Benchmark
+    public RoomDto roomToDto() {
+        return roomMapper.toDto(room);
+    }
+
+    @Benchmark
+    public List<RoomDto> roomsToDto() {
+        return rooms.stream()
+                .map(roomMapper::toDto)
+                .toList();
+    }
+
+    @Benchmark
+    public HotelDto hotelToDto() {
+        return hotelMapper.toDto(hotel);
+    }
+
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return bookingMapper.toDto(booking);
+    }
+
+    @Benchmark
+    public ArchivedBooking bookingToArchive() {
+        return bookingMapper.toArchive(booking);
+    }
+}
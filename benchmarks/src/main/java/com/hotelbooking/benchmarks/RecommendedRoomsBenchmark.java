@@ -0,0 +1,121 @@
+package com.hotelbooking.benchmarks;
+
+import com.hotelbooking.hotel.dto.RoomDto;
+import com.hotelbooking.hotel.entity.Hotel;
+import com.hotelbooking.hotel.entity.Room;
+import com.hotelbooking.hotel.mapper.RoomMapper;
+import com.hotelbooking.hotel.mapper.RoomMapperImpl;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Рекомендованные номера (RoomService.getRecommendedRooms): доступные номера по возрастанию times_booked, затем id
+ * query - запрос RoomRepository.findAvailableRoomsSortedByTimesBooked в H2 по индексу idx_rooms_available_times_booked
+ * и преобразование в DTO; inMemory - та же сортировка компаратором по уже загруженным номерам
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class RecommendedRoomsBenchmark {
+
+    /** SQL, который Hibernate строит для findAvailableRoomsSortedByTimesBooked */
+    private static final String QUERY = "SELECT r.id, r.available, r.hotel_id, r.number, r.times_booked FROM rooms r "
+            + "WHERE r.available = TRUE ORDER BY r.times_booked, r.id";
+
+    private static final Comparator<Room> RECOMMENDATION_ORDER = Comparator.comparing(Room::getTimesBooked)
+            .thenComparing(Room::getId);
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private final RoomMapper roomMapper = new RoomMapperImpl();
+    private List<Room> rooms;
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        rooms = Fixtures.rooms(size);
+        String url = "jdbc:h2:mem:recommended-rooms-" + size;
+        connection = DriverManager.getConnection(url, "sa", "");
+        // Схема и индексы - миграции hotel-service из его classes jar
+        Flyway.configure().dataSource(url, "sa", "").locations("classpath:db/migration").load().migrate();
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO hotels (id, name, address) VALUES (?, ?, ?)")) {
+            for (long id = 1; id <= Fixtures.HOTELS; id++) {
+                Hotel hotel = Fixtures.hotel(id);
+                insert.setLong(1, hotel.getId());
+                insert.setString(2, hotel.getName());
+                insert.setString(3, hotel.getAddress());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO rooms (id, number, hotel_id, available, times_booked) VALUES (?, ?, ?, ?, ?)")) {
+            for (Room room : rooms) {
+                insert.setLong(1, room.getId());
+                insert.setString(2, room.getNumber());
+                insert.setLong(3, room.getHotel().getId());
+                insert.setBoolean(4, room.getAvailable());
+                insert.setInt(5, room.getTimesBooked());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public List<RoomDto> query() throws SQLException {
+        List<RoomDto> result = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(QUERY);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                // Отель не загружается: у lazy-прокси известен только id
+                Hotel hotel = new Hotel();
+                hotel.setId(resultSet.getLong(3));
+                Room room = new Room(resultSet.getLong(1), resultSet.getString(4), hotel, resultSet.getBoolean(2),
+                        resultSet.getInt(5));
+                result.add(roomMapper.toDto(room));
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<RoomDto> inMemory() {
+        return rooms.stream()
+                .filter(Room::getAvailable)
+                .sorted(RECOMMENDATION_ORDER)
+                .map(roomMapper::toDto)
+                .toList();
+    }
+}
@@ -0,0 +1,109 @@
+package com.hotelbooking.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Сравнение двух прогонов JMH (-rf json): изменение score каждого бенчмарка с теми же параметрами
+ * Изменение считается значимым, если разница больше суммы погрешностей (scoreError, 99.9%) обоих прогонов
+ *
+ * Использование: java -cp benchmarks-1.0.0.jar com.hotelbooking.benchmarks.ResultsComparison baseline.json current.json
+ */
+public final class ResultsComparison {
+
+    private ResultsComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: ResultsComparison <baseline.json> <current.json>");
+            System.exit(2);
+        }
+        print(compare(read(Path.of(args[0])), read(Path.of(args[1]))), System.out);
+    }
+
+    static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file.toFile())) {
+            JsonNode metric = result.path("primaryMetric");
+            scores.put(key(result), new Score(metric.path("score").asDouble(), metric.path("scoreError").asDouble(),
+                    metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    static List<Change> compare(Map<String, Score> baseline, Map<String, Score> current) {
+        List<Change> changes = new ArrayList<>();
+        current.forEach((benchmark, score) -> changes.add(new Change(benchmark, baseline.get(benchmark), score)));
+        baseline.forEach((benchmark, score) -> {
+            if (!current.containsKey(benchmark)) {
+                changes.add(new Change(benchmark, score, null));
+            }
+        });
+        return changes;
+    }
+
+    private static void print(List<Change> changes, PrintStream out) {
+        out.printf("%-70s %14s %14s %9s  %s%n", "benchmark", "baseline", "current", "change", "unit");
+        for (Change change : changes) {
+            out.printf("%-70s %14s %14s %9s  %s%s%n", change.benchmark(),
+                    change.baseline() != null ? String.format("%.3f", change.baseline().score()) : "-",
+                    change.current() != null ? String.format("%.3f", change.current().score()) : "-",
+                    change.isComparable() ? String.format("%+.1f%%", change.percent()) : "-",
+                    (change.current() != null ? change.current() : change.baseline()).unit(),
+                    change.isSignificant() ? "  *" : "");
+        }
+        out.println();
+        out.println("* difference exceeds the combined score error of both runs");
+    }
+
+    /**
+     * Имя бенчмарка и его параметры: MapperBenchmark.roomToDto, JsonBenchmark.serializeRooms(size=100)
+     */
+    private static String key(JsonNode result) {
+        String name = result.path("benchmark").asText();
+        String shortName = name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1);
+        JsonNode params = result.path("params");
+        if (params.isMissingNode() || params.isEmpty()) {
+            return shortName;
+        }
+        StringJoiner joiner = new StringJoiner(",", shortName + "(", ")");
+        params.fields().forEachRemaining(param -> joiner.add(param.getKey() + "=" + param.getValue().asText()));
+        return joiner.toString();
+    }
+
+    record Score(double score, double error, String unit) {
+    }
+
+    /**
+     * @param baseline null - бенчмарк новый
+     * @param current null - бенчмарк удален
+     */
+    record Change(String benchmark, Score baseline, Score current) {
+
+        boolean isComparable() {
+            return baseline != null && current != null && baseline.unit().equals(current.unit()) && baseline.score() != 0;
+        }
+
+        double percent() {
+            return (current.score() - baseline.score()) / baseline.score() * 100;
+        }
+
+        boolean isSignificant() {
+            return isComparable() && Math.abs(current.score() - baseline.score()) > nonNaN(baseline.error()) + nonNaN(current.error());
+        }
+
+        private static double nonNaN(double value) {
+            return Double.isNaN(value) ? 0 : value;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.hotelbooking.benchmarks;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Тесты для ResultsComparison
+ */
+class ResultsComparisonTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void read_ShouldKeyResultsByClassMethodAndParams() throws Exception {
+        // Given
+        Path file = write("run.json", """
+            [
+              {"benchmark": "com.hotelbooking.benchmarks.JsonBenchmark.serializeRooms", "params": {"size": "100"},
+               "primaryMetric": {"score": 12.5, "scoreError": 0.4, "scoreUnit": "us/op"}},
+              {"benchmark": "com.hotelbooking.benchmarks.MapperBenchmark.roomToDto",
+               "primaryMetric": {"score": 8.0, "scoreError": "NaN", "scoreUnit": "ns/op"}}
+            ]
+            """);
+
+        // When
+        Map<String, ResultsComparison.Score> scores = ResultsComparison.read(file);
+
+        // Then
+        assertThat(scores).containsOnlyKeys("JsonBenchmark.serializeRooms(size=100)", "MapperBenchmark.roomToDto");
+        assertThat(scores.get("MapperBenchmark.roomToDto").error()).isNaN();
+    }
+
+    @Test
+    void compare_ShouldMarkOnlyChangesBeyondCombinedError() {
+        // Given
+        Map<String, ResultsComparison.Score> baseline = Map.of(
+            "a", new ResultsComparison.Score(100, 2, "ns/op"),
+            "b", new ResultsComparison.Score(100, 2, "ns/op"),
+            "removed", new ResultsComparison.Score(1, 0, "ns/op"));
+        Map<String, ResultsComparison.Score> current = Map.of(
+            "a", new ResultsComparison.Score(103, 2, "ns/op"),
+            "b", new ResultsComparison.Score(120, 2, "ns/op"),
+            "added", new ResultsComparison.Score(1, 0, "ns/op"));
+
+        // When
+        List<ResultsComparison.Change> changes = ResultsComparison.compare(baseline, current);
+
+        // Then
+        assertThat(changes)
+            .extracting(ResultsComparison.Change::benchmark, ResultsComparison.Change::isComparable,
+                ResultsComparison.Change::isSignificant)
+            .containsExactlyInAnyOrder(
+                tuple("a", true, false),
+                tuple("b", true, true),
+                tuple("added", false, false),
+                tuple("removed", false, false));
+    }
+
+    private Path write(String name, String content) throws Exception {
+        return Files.writeString(dir.resolve(name), content);
+    }
+}
@@ -1,5 +1,10 @@
 package com.hotelbooking.booking.config;
 
+import com.hotelbooking.booking.security.JwtPrincipalConverter;
+import com.hotelbooking.booking.security.TrustedGatewayBearerTokenResolver;
+import com.hotelbooking.booking.security.TrustedGatewayFilter;
+import com.hotelbooking.booking.security.UserCache;
+import com.hotelbooking.common.security.TrustedPrincipalVerifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,8 +17,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
-import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 
 import javax.crypto.spec.SecretKeySpec;
@@ -29,26 +33,48 @@ public class SecurityConfig {
     @Value("${jwt.secret:mySuperSecretKeyForJWTTokenSigningInHotelBookingSystem2024}")
     private String jwtSecret;
 
+    @Value("${security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${security.trusted-gateway.enabled:false}")
+    private boolean trustedGatewayEnabled;
+
+    @Value("${security.trusted-gateway.secret:}")
+    private String trustedGatewaySecret;
+
+    /**
+     * BCrypt с настраиваемой стоимостью; хэши с меньшей стоимостью пересчитываются при входе
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtPrincipalConverter jwtPrincipalConverter,
+                                           UserCache userCache) throws Exception {
         http
             .csrf(AbstractHttpConfigurer::disable)
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
                 // Публичные эндпоинты для регистрации и аутентификации
-                .requestMatchers("/user/register", "/user/auth").permitAll()
+                .requestMatchers("/user/register", "/user/auth", "/user/refresh", "/user/logout").permitAll()
+                // Сбор метрик Prometheus и проверка живости без токена
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                 // Остальные требуют аутентификации
                 .anyRequest().authenticated()
             )
             .oauth2ResourceServer(oauth2 -> oauth2
-                .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter()))
+                .bearerTokenResolver(new TrustedGatewayBearerTokenResolver())
+                .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtPrincipalConverter))
             );
 
+        // Режим доверенного шлюза: принципал из подписанного заголовка, JWT проверяется только при прямых вызовах
+        if (trustedGatewayEnabled) {
+            http.addFilterBefore(new TrustedGatewayFilter(new TrustedPrincipalVerifier(trustedGatewaySecret), userCache),
+                BearerTokenAuthenticationFilter.class);
+        }
+
         return http.build();
     }
 
@@ -60,18 +86,4 @@ public class SecurityConfig {
         SecretKeySpec secretKey = new SecretKeySpec(jwtSecret.getBytes(), "HmacSHA256");
         return NimbusJwtDecoder.withSecretKey(secretKey).build();
     }
-
-    /**
-     * Конвертер JWT для извлечения ролей
-     */
-    @Bean
-    public JwtAuthenticationConverter jwtAuthenticationConverter() {
-        JwtGrantedAuthoritiesConverter grantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
-        grantedAuthoritiesConverter.setAuthoritiesClaimName("role");
-        grantedAuthoritiesConverter.setAuthorityPrefix("ROLE_");
-
-        JwtAuthenticationConverter jwtAuthenticationConverter = new JwtAuthenticationConverter();
-        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(grantedAuthoritiesConverter);
-        return jwtAuthenticationConverter;
-    }
 }
@@ -0,0 +1,37 @@
+package com.hotelbooking.booking.config;
+
+import com.hotelbooking.booking.client.HotelServiceClient;
+import com.hotelbooking.booking.security.JwtTokenProvider;
+import com.hotelbooking.common.warmup.WarmupTask;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Задачи прогрева Booking Service
+ * Путь чтения бронирований идет через собственный HTTP порт с токеном служебного пользователя
+ * (uid 0 не существует: запросы к БД выполняются, но данные пользователей не читаются)
+ */
+@Configuration
+public class WarmupConfig {
+
+    private static final long WARMUP_USER_ID = 0L;
+
+    @Bean
+    public WarmupTask bookingListWarmupTask(JwtTokenProvider tokenProvider) {
+        String token = tokenProvider.createAccessToken(WARMUP_USER_ID, "warmup", "USER");
+        return WarmupTask.of("bookings", local -> local.get()
+                .uri("/booking/list?includeArchived=true")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .retrieve()
+                .toBodilessEntity());
+    }
+
+    /**
+     * Feign клиент, балансировщик и соединения к Hotel Service (автоподбор номера)
+     */
+    @Bean
+    public WarmupTask hotelClientWarmupTask(HotelServiceClient hotelServiceClient) {
+        return WarmupTask.of("hotel-client", local -> hotelServiceClient.getRecommendedRooms());
+    }
+}
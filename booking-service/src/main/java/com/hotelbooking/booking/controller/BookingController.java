@@ -2,12 +2,13 @@ package com.hotelbooking.booking.controller;
 
 import com.hotelbooking.booking.dto.BookingDto;
 import com.hotelbooking.booking.dto.CreateBookingRequest;
+import com.hotelbooking.booking.security.AuthenticatedUser;
 import com.hotelbooking.booking.service.BookingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
@@ -30,9 +31,8 @@ public class BookingController {
     @PostMapping
     @Operation(summary = "Создать бронирование")
     public ResponseEntity<BookingDto> createBooking(@Valid @RequestBody CreateBookingRequest request,
-                                                   Authentication authentication) {
-        String username = authentication.getName();
-        BookingDto booking = bookingService.createBooking(request, username);
+                                                   @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        BookingDto booking = bookingService.createBooking(request, currentUser);
         return ResponseEntity.ok(booking);
     }
 
@@ -41,9 +41,9 @@ public class BookingController {
      */
     @GetMapping("/list")
     @Operation(summary = "Получить все бронирования пользователя")
-    public ResponseEntity<List<BookingDto>> getUserBookings(Authentication authentication) {
-        String username = authentication.getName();
-        List<BookingDto> bookings = bookingService.getUserBookings(username);
+    public ResponseEntity<List<BookingDto>> getUserBookings(@RequestParam(defaultValue = "false") boolean includeArchived,
+                                                            @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        List<BookingDto> bookings = bookingService.getUserBookings(currentUser, includeArchived);
         return ResponseEntity.ok(bookings);
     }
 
@@ -52,9 +52,10 @@ public class BookingController {
      */
     @GetMapping("/{id}")
     @Operation(summary = "Получить бронирование по ID")
-    public ResponseEntity<BookingDto> getBooking(@PathVariable Long id, Authentication authentication) {
-        String username = authentication.getName();
-        BookingDto booking = bookingService.getBookingById(id, username);
+    public ResponseEntity<BookingDto> getBooking(@PathVariable Long id,
+                                                 @RequestParam(defaultValue = "false") boolean includeArchived,
+                                                 @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        BookingDto booking = bookingService.getBookingById(id, currentUser, includeArchived);
         return ResponseEntity.ok(booking);
     }
 
@@ -63,9 +64,9 @@ public class BookingController {
      */
     @DeleteMapping("/{id}")
     @Operation(summary = "Отменить бронирование")
-    public ResponseEntity<Void> cancelBooking(@PathVariable Long id, Authentication authentication) {
-        String username = authentication.getName();
-        bookingService.cancelBooking(id, username);
+    public ResponseEntity<Void> cancelBooking(@PathVariable Long id,
+                                              @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        bookingService.cancelBooking(id, currentUser);
         return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,43 @@
+package com.hotelbooking.booking.controller;
+
+import com.hotelbooking.booking.journal.BookingEvent;
+import com.hotelbooking.booking.journal.BookingEventJournal;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST контроллер для чтения журнала событий бронирований
+ */
+@RestController
+@RequestMapping("/booking/journal")
+@RequiredArgsConstructor
+@Tag(name = "Booking Journal", description = "API для чтения журнала событий бронирований")
+public class BookingJournalController {
+
+    private static final int MAX_LIMIT = 10_000;
+
+    private final BookingEventJournal bookingEventJournal;
+
+    /**
+     * Получить события начиная с указанного sequence (только ADMIN)
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Прочитать события журнала начиная с sequence")
+    public ResponseEntity<List<BookingEvent>> tail(@RequestParam(defaultValue = "1") long fromSequence,
+                                                   @RequestParam(defaultValue = "100") int limit) {
+        List<BookingEvent> events = bookingEventJournal.read(fromSequence, Math.max(1, Math.min(limit, MAX_LIMIT)));
+        return ResponseEntity.ok()
+                .header("X-Journal-Last-Sequence", String.valueOf(bookingEventJournal.lastSequence()))
+                .body(events);
+    }
+}
@@ -2,6 +2,7 @@ package com.hotelbooking.booking.controller;
 
 import com.hotelbooking.booking.dto.AuthRequest;
 import com.hotelbooking.booking.dto.AuthResponse;
+import com.hotelbooking.booking.dto.RefreshTokenRequest;
 import com.hotelbooking.booking.dto.RegisterRequest;
 import com.hotelbooking.booking.dto.UserDto;
 import com.hotelbooking.booking.service.UserService;
@@ -45,6 +46,26 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Обновление access-токена по refresh-токену
+     */
+    @PostMapping("/refresh")
+    @Operation(summary = "Обновить access-токен")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        AuthResponse response = userService.refresh(request);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Выход: отзыв refresh-токена
+     */
+    @PostMapping("/logout")
+    @Operation(summary = "Отозвать refresh-токен")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequest request) {
+        userService.logout(request);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Создать пользователя (только ADMIN)
      */
@@ -19,6 +19,10 @@ public class AuthResponse {
     private String username;
 
     private String role;
+
+    private String refreshToken;
+
+    private Long expiresIn; // Время жизни access-токена в секундах
 }
 
 
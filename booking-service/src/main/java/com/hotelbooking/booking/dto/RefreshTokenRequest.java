@@ -0,0 +1,19 @@
+package com.hotelbooking.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * DTO для обновления access-токена по refresh-токену
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenRequest {
+
+    @NotBlank(message = "Refresh токен обязателен")
+    private String refreshToken;
+}
@@ -0,0 +1,72 @@
+package com.hotelbooking.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Архивная копия завершенного или отмененного бронирования
+ * Хранится отдельно от горячей таблицы bookings, данные пользователя денормализованы
+ */
+@Entity
+@Table(name = "booking_archive")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedBooking implements Persistable<Long> {
+
+    @Id
+    private Long id; // Сохраняем исходный ID бронирования
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(name = "room_id", nullable = false)
+    private Long roomId;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Booking.Status status;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "request_id")
+    private String requestId;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // ID назначается вручную, поэтому явно сообщаем Spring Data, что запись новая (без лишнего SELECT при save)
+    @Transient
+    private boolean isNew = true;
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PrePersist
+    protected void onArchive() {
+        archivedAt = LocalDateTime.now();
+    }
+
+    @PostLoad
+    protected void onLoad() {
+        isNew = false;
+    }
+}
@@ -0,0 +1,54 @@
+package com.hotelbooking.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Выданный refresh-токен
+ * Хранится SHA-256 токена, а не сам токен: утечка таблицы не дает войти от имени пользователя
+ */
+@Entity
+@Table(name = "refresh_tokens")
+@Data
+@NoArgsConstructor
+public class RefreshToken implements Persistable<String> {
+
+    @Id
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // ID назначается вручную, поэтому явно сообщаем Spring Data, что запись новая (без лишнего SELECT при save)
+    @Transient
+    private boolean isNew = true;
+
+    public RefreshToken(String tokenHash, Long userId, LocalDateTime expiresAt) {
+        this.tokenHash = tokenHash;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String getId() {
+        return tokenHash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    protected void onLoad() {
+        isNew = false;
+    }
+}
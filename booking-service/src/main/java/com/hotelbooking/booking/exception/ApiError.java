@@ -0,0 +1,29 @@
+package com.hotelbooking.booking.exception;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Тело ответа об ошибке
+ * Неизменяемый объект вместо HashMap на каждую ошибку
+ * Заранее тело не собирается: timestamp у каждой ошибки свой, остальные поля - константы без вычислений
+ */
+@Getter
+@AllArgsConstructor
+public class ApiError {
+
+    private final LocalDateTime timestamp;
+
+    private final int status;
+
+    private final String error;
+
+    private final String message;
+
+    public static ApiError of(HttpStatus status, String message) {
+        return new ApiError(LocalDateTime.now(), status.value(), status.getReasonPhrase(), message);
+    }
+}
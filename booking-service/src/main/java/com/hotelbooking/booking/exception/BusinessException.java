@@ -0,0 +1,20 @@
+package com.hotelbooking.booking.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Базовое исключение для ожидаемых бизнес-исходов (не найдено, конфликт, доступ запрещен...)
+ * Стек вызовов не заполняется: такие исключения - штатный результат, а не ошибка программы,
+ * и на горячих путях не должны платить за захват стека
+ */
+public abstract class BusinessException extends RuntimeException {
+
+    protected BusinessException(String message) {
+        super(message, null, false, false);
+    }
+
+    /**
+     * HTTP статус ответа для этого исхода
+     */
+    public abstract HttpStatus getStatus();
+}
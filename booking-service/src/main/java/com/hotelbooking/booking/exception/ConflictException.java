@@ -0,0 +1,18 @@
+package com.hotelbooking.booking.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Операция противоречит текущему состоянию ресурса (HTTP 409)
+ */
+public class ConflictException extends BusinessException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.CONFLICT;
+    }
+}
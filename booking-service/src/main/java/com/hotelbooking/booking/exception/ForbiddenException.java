@@ -0,0 +1,18 @@
+package com.hotelbooking.booking.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Доступ к ресурсу запрещен (HTTP 403)
+ */
+public class ForbiddenException extends BusinessException {
+
+    public ForbiddenException(String message) {
+        super(message);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.FORBIDDEN;
+    }
+}
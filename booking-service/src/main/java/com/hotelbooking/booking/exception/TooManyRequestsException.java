@@ -0,0 +1,25 @@
+package com.hotelbooking.booking.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Сервис перегружен - запрос отклонен без выполнения (HTTP 429)
+ */
+public class TooManyRequestsException extends BusinessException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.TOO_MANY_REQUESTS;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,18 @@
+package com.hotelbooking.booking.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Неверные учетные данные или недействительный токен (HTTP 401)
+ */
+public class UnauthorizedException extends BusinessException {
+
+    public UnauthorizedException(String message) {
+        super(message);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.UNAUTHORIZED;
+    }
+}
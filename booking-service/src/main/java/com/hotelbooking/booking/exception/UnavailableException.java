@@ -0,0 +1,18 @@
+package com.hotelbooking.booking.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Операция временно невозможна, например недоступен Hotel Service (HTTP 503)
+ */
+public class UnavailableException extends BusinessException {
+
+    public UnavailableException(String message) {
+        super(message);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.SERVICE_UNAVAILABLE;
+    }
+}
@@ -0,0 +1,29 @@
+package com.hotelbooking.booking.journal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Событие журнала бронирований
+ * Порядковый номер (sequence) назначается писателем журнала при записи
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingEvent {
+
+    private long sequence;
+
+    private long timestamp; // Время события, epoch millis
+
+    private BookingEventType type;
+
+    private Long bookingId;
+
+    private Long userId;
+
+    private Long roomId;
+
+    private String requestId;
+}
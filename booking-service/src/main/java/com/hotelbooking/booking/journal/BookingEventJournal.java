@@ -0,0 +1,231 @@
+package com.hotelbooking.booking.journal;
+
+import com.hotelbooking.booking.entity.Booking;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Журнал событий бронирований
+ * Потоки запросов только кладут событие в ограниченный кольцевой буфер,
+ * единственный поток-писатель пачками переносит события в memory-mapped сегменты
+ * Внутри транзакции событие попадает в буфер только после ее коммита
+ */
+@Component
+@Slf4j
+public class BookingEventJournal {
+
+    private static final int DRAIN_BATCH = 256;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final long flushIntervalMs;
+    private final BlockingQueue<BookingEvent> buffer;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong writeFailures = new AtomicLong();
+
+    // Пачка, взятая из буфера, но еще не записанная; доступна только потоку-писателю
+    private final List<BookingEvent> pending = new ArrayList<>(DRAIN_BATCH);
+
+    private SegmentedJournal journal;
+    private Thread writer;
+    private volatile boolean running;
+
+    public BookingEventJournal(@Value("${booking.journal.enabled:true}") boolean enabled,
+                               @Value("${booking.journal.directory:./data/journal}") String directory,
+                               @Value("${booking.journal.segment-size-mb:64}") int segmentSizeMb,
+                               @Value("${booking.journal.queue-capacity:65536}") int queueCapacity,
+                               @Value("${booking.journal.flush-interval-ms:1000}") long flushIntervalMs) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.segmentSize = segmentSizeMb * 1024 * 1024;
+        this.flushIntervalMs = flushIntervalMs;
+        this.buffer = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        journal = new SegmentedJournal(directory, segmentSize);
+        running = true;
+        writer = new Thread(this::writeLoop, "booking-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Booking journal started in {}, last sequence: {}", directory.toAbsolutePath(), journal.lastSequence());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        if (writer.isAlive()) {
+            // Писатель завис в append/force: pending и отображенный сегмент нельзя трогать из этого потока,
+            // оборванную запись в конце сегмента обрежет recover() при следующем старте
+            log.warn("Booking journal writer did not stop in 5s, {} buffered events not written", buffer.size());
+            return;
+        }
+        writePending(); // Дописываем то, что осталось после писателя и в буфере
+        drainAndWrite();
+        journal.close();
+    }
+
+    /**
+     * Зафиксировать переход бронирования в новое состояние
+     * Не блокирует вызывающий поток; при переполнении буфера событие отбрасывается
+     * В активной транзакции событие публикуется после коммита, при откате не публикуется вовсе
+     */
+    public void record(BookingEventType type, Booking booking) {
+        if (!enabled) {
+            return;
+        }
+        BookingEvent event = new BookingEvent(0, System.currentTimeMillis(), type, booking.getId(),
+                booking.getUser() != null ? booking.getUser().getId() : null,
+                booking.getRoomId(), booking.getRequestId());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(event);
+                }
+            });
+        } else {
+            publish(event);
+        }
+    }
+
+    private void publish(BookingEvent event) {
+        if (!buffer.offer(event)) {
+            long total = dropped.incrementAndGet();
+            log.warn("Booking journal buffer is full, event {} for booking {} dropped (total dropped: {})",
+                    event.getType(), event.getBookingId(), total);
+        }
+    }
+
+    /**
+     * Прочитать события начиная с fromSequence (для tail API и пересборки проекций)
+     */
+    public List<BookingEvent> read(long fromSequence, int limit) {
+        if (journal == null) {
+            return List.of();
+        }
+        try {
+            return journal.read(fromSequence, limit);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Проиграть события начиная с fromSequence для пересборки проекции
+     *
+     * @return количество обработанных событий
+     */
+    public int replay(long fromSequence, Consumer<BookingEvent> consumer) {
+        if (journal == null) {
+            return 0;
+        }
+        try {
+            return journal.replay(fromSequence, Integer.MAX_VALUE, consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long lastSequence() {
+        return journal != null ? journal.lastSequence() : 0;
+    }
+
+    public long droppedEvents() {
+        return dropped.get();
+    }
+
+    public long writeFailures() {
+        return writeFailures.get();
+    }
+
+    private void writeLoop() {
+        boolean dirty = false;
+        while (running) {
+            try {
+                if (pending.isEmpty()) {
+                    BookingEvent first = buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        if (dirty) {
+                            journal.force();
+                            dirty = false;
+                        }
+                        continue;
+                    }
+                    pending.add(first);
+                    buffer.drainTo(pending, DRAIN_BATCH - 1);
+                }
+                writePending();
+                dirty = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Незаписанные события остаются в pending и пишутся повторно после паузы
+                long total = writeFailures.incrementAndGet();
+                log.error("Failed to write booking journal, {} events kept for retry (total failures: {})",
+                        pending.size(), total, e);
+                try {
+                    Thread.sleep(flushIntervalMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Записать pending; записанные события удаляются из пачки даже при ошибке на середине
+     * Событие, которое не помещается в сегмент, повтор не исправит - оно отбрасывается с учетом в dropped
+     */
+    private void writePending() throws IOException {
+        int written = 0;
+        try {
+            for (BookingEvent event : pending) {
+                try {
+                    journal.append(event);
+                } catch (IllegalArgumentException e) {
+                    long total = dropped.incrementAndGet();
+                    log.error("Booking journal event {} for booking {} dropped (total dropped: {})",
+                            event.getType(), event.getBookingId(), total, e);
+                }
+                written++;
+            }
+        } finally {
+            pending.subList(0, written).clear();
+        }
+    }
+
+    private void drainAndWrite() throws IOException {
+        while (buffer.drainTo(pending, DRAIN_BATCH) > 0) {
+            writePending();
+        }
+    }
+}
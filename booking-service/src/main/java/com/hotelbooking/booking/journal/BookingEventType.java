@@ -0,0 +1,11 @@
+package com.hotelbooking.booking.journal;
+
+/**
+ * Типы событий жизненного цикла бронирования
+ */
+public enum BookingEventType {
+    PENDING,     // Бронирование создано (шаг 1 саги)
+    CONFIRMED,   // Доступность подтверждена Hotel Service
+    COMPENSATED, // Сага откатилась, номер освобожден
+    CANCELLED    // Бронирование отменено пользователем
+}
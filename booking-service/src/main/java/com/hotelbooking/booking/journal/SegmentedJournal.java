@@ -0,0 +1,272 @@
+package com.hotelbooking.booking.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only журнал на memory-mapped сегментах фиксированного размера
+ *
+ * Формат записи: [length:int][crc32:int][sequence:long][timestamp:long][type:byte]
+ * [bookingId:long][userId:long][roomId:long][requestIdLength:short][requestId:bytes].
+ * Поле length пишется последним и служит маркером завершенной записи: нулевое значение
+ * означает конец данных в сегменте. Имя сегмента содержит sequence его первой записи.
+ *
+ * Запись (append, force, close) допускается только из одного потока,
+ * чтение (read) безопасно из любого потока.
+ */
+public class SegmentedJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final int HEADER_SIZE = 8; // length + crc
+    private static final int FIXED_BODY_SIZE = 8 + 8 + 1 + 8 + 8 + 8 + 2;
+    private static final long NULL_ID = -1L;
+    private static final BookingEventType[] TYPES = BookingEventType.values();
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ConcurrentSkipListMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+
+    private FileChannel activeChannel;
+    private MappedByteBuffer activeBuffer;
+    private long nextSequence = 1;
+    private volatile long committedSequence = 0;
+
+    public SegmentedJournal(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * Записать событие, назначив ему очередной sequence
+     */
+    public long append(BookingEvent event) throws IOException {
+        byte[] requestId = event.getRequestId() != null
+                ? event.getRequestId().getBytes(StandardCharsets.UTF_8)
+                : new byte[0];
+        int bodySize = FIXED_BODY_SIZE + requestId.length;
+        if (HEADER_SIZE + bodySize > segmentSize) {
+            throw new IllegalArgumentException("Событие не помещается в сегмент журнала");
+        }
+        if (activeBuffer == null || activeBuffer.position() + HEADER_SIZE + bodySize > segmentSize) {
+            rotate();
+        }
+
+        long sequence = nextSequence;
+        event.setSequence(sequence);
+
+        int start = activeBuffer.position();
+        ByteBuffer body = activeBuffer.duplicate();
+        body.position(start + HEADER_SIZE);
+        body.putLong(sequence);
+        body.putLong(event.getTimestamp());
+        body.put((byte) event.getType().ordinal());
+        body.putLong(orNull(event.getBookingId()));
+        body.putLong(orNull(event.getUserId()));
+        body.putLong(orNull(event.getRoomId()));
+        body.putShort((short) requestId.length);
+        body.put(requestId);
+
+        activeBuffer.putInt(start + 4, checksum(activeBuffer, start + HEADER_SIZE, bodySize));
+        activeBuffer.putInt(start, bodySize); // Маркер завершенной записи пишем последним
+        activeBuffer.position(start + HEADER_SIZE + bodySize);
+
+        nextSequence++;
+        committedSequence = sequence;
+        return sequence;
+    }
+
+    /**
+     * Сбросить изменения активного сегмента на диск
+     */
+    public void force() {
+        if (activeBuffer != null) {
+            activeBuffer.force();
+        }
+    }
+
+    /**
+     * Последний записанный sequence (0, если журнал пуст)
+     */
+    public long lastSequence() {
+        return committedSequence;
+    }
+
+    /**
+     * Прочитать до limit событий начиная с fromSequence включительно
+     */
+    public List<BookingEvent> read(long fromSequence, int limit) throws IOException {
+        List<BookingEvent> events = new ArrayList<>(Math.min(limit, 1024));
+        replay(fromSequence, limit, events::add);
+        return events;
+    }
+
+    /**
+     * Последовательно передать события начиная с fromSequence обработчику
+     *
+     * @return количество переданных событий
+     */
+    public int replay(long fromSequence, int limit, Consumer<BookingEvent> consumer) throws IOException {
+        long upTo = committedSequence;
+        Long startKey = segments.floorKey(Math.max(fromSequence, 1));
+        if (startKey == null) {
+            startKey = segments.isEmpty() ? null : segments.firstKey();
+        }
+        if (startKey == null) {
+            return 0;
+        }
+
+        int delivered = 0;
+        for (Map.Entry<Long, Path> segment : segments.tailMap(startKey, true).entrySet()) {
+            ByteBuffer buffer = readSegment(segment.getValue());
+            while (delivered < limit) {
+                BookingEvent event = readRecord(buffer);
+                if (event == null || event.getSequence() > upTo) {
+                    break;
+                }
+                if (event.getSequence() >= fromSequence) {
+                    consumer.accept(event);
+                    delivered++;
+                }
+            }
+            if (delivered >= limit) {
+                break;
+            }
+        }
+        return delivered;
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        if (activeChannel != null) {
+            activeChannel.close();
+        }
+        activeBuffer = null;
+        activeChannel = null;
+    }
+
+    private void recover() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).forEach(path -> segments.put(firstSequenceOf(path), path));
+        }
+        if (segments.isEmpty()) {
+            return;
+        }
+
+        // Дописываем в последний сегмент с позиции после последней целой записи
+        Map.Entry<Long, Path> last = segments.lastEntry();
+        openSegment(last.getValue());
+        long lastSequence = last.getKey() - 1;
+        ByteBuffer scan = activeBuffer.duplicate();
+        scan.position(0);
+        int position = 0;
+        BookingEvent event;
+        while ((event = readRecord(scan)) != null) {
+            lastSequence = event.getSequence();
+            position = scan.position();
+        }
+        // Обнуляем хвост после оборванной записи, чтобы она не читалась после перезапуска
+        for (int i = position; i < Math.min(position + HEADER_SIZE, segmentSize); i++) {
+            activeBuffer.put(i, (byte) 0);
+        }
+        activeBuffer.position(position);
+        nextSequence = lastSequence + 1;
+        committedSequence = lastSequence;
+    }
+
+    private void rotate() throws IOException {
+        if (activeBuffer != null) {
+            activeBuffer.force();
+            activeChannel.close();
+        }
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSequence, SEGMENT_SUFFIX));
+        openSegment(path);
+        segments.put(nextSequence, path);
+    }
+
+    private void openSegment(Path path) throws IOException {
+        activeChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activeBuffer = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    private ByteBuffer readSegment(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), segmentSize));
+        }
+    }
+
+    /**
+     * Прочитать запись с текущей позиции буфера; null - конец данных или поврежденная запись
+     */
+    private BookingEvent readRecord(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (start + HEADER_SIZE > buffer.limit()) {
+            return null;
+        }
+        int bodySize = buffer.getInt(start);
+        if (bodySize < FIXED_BODY_SIZE || start + HEADER_SIZE + bodySize > buffer.limit()) {
+            return null;
+        }
+        if (buffer.getInt(start + 4) != checksum(buffer, start + HEADER_SIZE, bodySize)) {
+            return null;
+        }
+
+        buffer.position(start + HEADER_SIZE);
+        BookingEvent event = new BookingEvent();
+        event.setSequence(buffer.getLong());
+        event.setTimestamp(buffer.getLong());
+        event.setType(TYPES[buffer.get()]);
+        event.setBookingId(toNullable(buffer.getLong()));
+        event.setUserId(toNullable(buffer.getLong()));
+        event.setRoomId(toNullable(buffer.getLong()));
+        short requestIdLength = buffer.getShort();
+        if (requestIdLength > 0) {
+            byte[] requestId = new byte[requestIdLength];
+            buffer.get(requestId);
+            event.setRequestId(new String(requestId, StandardCharsets.UTF_8));
+        }
+        buffer.position(start + HEADER_SIZE + bodySize);
+        return event;
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        ByteBuffer slice = buffer.duplicate();
+        slice.limit(offset + length).position(offset);
+        crc.update(slice);
+        return (int) crc.getValue();
+    }
+
+    private static long firstSequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static long orNull(Long value) {
+        return value != null ? value : NULL_ID;
+    }
+
+    private static Long toNullable(long value) {
+        return value == NULL_ID ? null : value;
+    }
+}
@@ -0,0 +1,22 @@
+package com.hotelbooking.booking.logging;
+
+import com.hotelbooking.common.logging.RequestIdFilter;
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
+
+/**
+ * Передает X-Request-Id в Hotel Service, чтобы запрос трассировался сквозным образом
+ */
+@Component
+public class RequestIdFeignInterceptor implements RequestInterceptor {
+
+    @Override
+    public void apply(RequestTemplate template) {
+        String requestId = MDC.get(RequestIdFilter.REQUEST_ID_MDC_KEY);
+        if (requestId != null) {
+            template.header(RequestIdFilter.REQUEST_ID_HEADER, requestId);
+        }
+    }
+}
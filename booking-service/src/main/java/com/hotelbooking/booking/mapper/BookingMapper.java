@@ -1,8 +1,10 @@
 package com.hotelbooking.booking.mapper;
 
 import com.hotelbooking.booking.dto.BookingDto;
+import com.hotelbooking.booking.entity.ArchivedBooking;
 import com.hotelbooking.booking.entity.Booking;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 /**
  * Маппер для преобразования Booking сущностей в DTO и обратно
@@ -13,4 +15,12 @@ public interface BookingMapper {
     BookingDto toDto(Booking booking);
 
     Booking toEntity(BookingDto bookingDto);
+
+    BookingDto toDto(ArchivedBooking archivedBooking);
+
+    @Mapping(target = "userId", source = "user.id")
+    @Mapping(target = "username", source = "user.username")
+    @Mapping(target = "archivedAt", ignore = true)
+    @Mapping(target = "new", ignore = true)
+    ArchivedBooking toArchive(Booking booking);
 }
@@ -0,0 +1,20 @@
+package com.hotelbooking.booking.repository;
+
+import com.hotelbooking.booking.entity.ArchivedBooking;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Репозиторий для работы с архивом бронирований
+ */
+@Repository
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+
+    List<ArchivedBooking> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    // Для идемпотентности - requestId заархивированного бронирования не должен создавать новое
+    Optional<ArchivedBooking> findByRequestId(String requestId);
+}
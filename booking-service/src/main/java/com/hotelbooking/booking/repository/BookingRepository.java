@@ -2,12 +2,14 @@ package com.hotelbooking.booking.repository;
 
 import com.hotelbooking.booking.entity.Booking;
 import com.hotelbooking.booking.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,7 +19,7 @@ import java.util.Optional;
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    List<Booking> findByUserOrderByCreatedAtDesc(User user);
+    List<Booking> findByUserIdOrderByCreatedAtDesc(Long userId);
 
     List<Booking> findByUserAndStatus(User user, Booking.Status status);
 
@@ -30,6 +32,12 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     // Для идемпотентности - проверка существующего запроса
     Optional<Booking> findByRequestId(String requestId);
+
+    // Для архивации - завершенные бронирования с датой выезда раньше указанной
+    @Query("SELECT b FROM Booking b JOIN FETCH b.user WHERE b.status IN :statuses AND b.endDate < :cutoff ORDER BY b.id")
+    List<Booking> findArchivable(@Param("statuses") Collection<Booking.Status> statuses,
+                                 @Param("cutoff") LocalDate cutoff,
+                                 Pageable pageable);
 }
 
 
@@ -0,0 +1,13 @@
+package com.hotelbooking.booking.repository;
+
+import com.hotelbooking.booking.entity.User;
+
+import java.util.Optional;
+
+/**
+ * Поиск пользователя по натуральному ключу username
+ */
+public interface UserNaturalIdRepository {
+
+    Optional<User> findByUsername(String username);
+}
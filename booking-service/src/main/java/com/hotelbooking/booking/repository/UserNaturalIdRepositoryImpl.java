@@ -0,0 +1,27 @@
+package com.hotelbooking.booking.repository;
+
+import com.hotelbooking.booking.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Поиск по username через кэш натуральных ключей (users-by-username) и регион users:
+ * при попадании в оба кэша запроса к БД нет, в отличие от производного findByUsername
+ */
+@Transactional(readOnly = true)
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+}
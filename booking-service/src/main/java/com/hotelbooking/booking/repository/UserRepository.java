@@ -4,15 +4,11 @@ import com.hotelbooking.booking.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
-
 /**
  * Репозиторий для работы с пользователями
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-
-    Optional<User> findByUsername(String username);
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
 
     boolean existsByUsername(String username);
 }
@@ -0,0 +1,27 @@
+package com.hotelbooking.booking.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * Пользователь текущего запроса, собранный из claims JWT
+ * Позволяет получить ID пользователя без обращения к таблице users
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class AuthenticatedUser implements AuthenticatedPrincipal {
+
+    private final Long id;
+
+    private final String username;
+
+    private final String role;
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
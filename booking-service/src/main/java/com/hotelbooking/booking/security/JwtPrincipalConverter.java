@@ -0,0 +1,56 @@
+package com.hotelbooking.booking.security;
+
+import com.hotelbooking.booking.exception.NotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Конвертер JWT в Authentication с принципалом AuthenticatedUser
+ * Принципал собирается один раз на запрос из claims sub, uid и role
+ */
+@Component
+@RequiredArgsConstructor
+public class JwtPrincipalConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+
+    private final UserCache userCache;
+    private final JwtGrantedAuthoritiesConverter authoritiesConverter = createAuthoritiesConverter();
+
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        Collection<GrantedAuthority> authorities = authoritiesConverter.convert(jwt);
+        return UsernamePasswordAuthenticationToken.authenticated(toPrincipal(jwt), jwt, authorities);
+    }
+
+    private AuthenticatedUser toPrincipal(Jwt jwt) {
+        Object userId = jwt.getClaims().get(USER_ID_CLAIM);
+        if (userId instanceof Number number) {
+            return new AuthenticatedUser(number.longValue(), jwt.getSubject(), jwt.getClaimAsString(ROLE_CLAIM));
+        }
+        // Старый токен без uid - берем пользователя из кэша
+        try {
+            return userCache.getByUsername(jwt.getSubject());
+        } catch (NotFoundException e) {
+            // Пользователь удален: 401 через BearerTokenAuthenticationEntryPoint, а не 500
+            throw new InvalidBearerTokenException("Пользователь токена не найден", e);
+        }
+    }
+
+    private static JwtGrantedAuthoritiesConverter createAuthoritiesConverter() {
+        JwtGrantedAuthoritiesConverter converter = new JwtGrantedAuthoritiesConverter();
+        converter.setAuthoritiesClaimName(ROLE_CLAIM);
+        converter.setAuthorityPrefix("ROLE_");
+        return converter;
+    }
+}
@@ -0,0 +1,50 @@
+package com.hotelbooking.booking.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Выпуск access-токенов (JWT, HS256)
+ * Ключ подписи строится один раз при создании бина
+ */
+@Component
+public class JwtTokenProvider {
+
+    private final SecretKey signingKey;
+    private final Duration accessTokenTtl;
+
+    public JwtTokenProvider(@Value("${jwt.secret:mySuperSecretKeyForJWTTokenSigningInHotelBookingSystem2024}") String jwtSecret,
+                            @Value("${jwt.access-token-ttl:1h}") Duration accessTokenTtl) {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.accessTokenTtl = accessTokenTtl;
+    }
+
+    /**
+     * Сгенерировать access-токен с claims sub, uid и role
+     */
+    public String createAccessToken(Long userId, String username, String role) {
+        Instant now = Instant.now();
+
+        return Jwts.builder()
+                .setSubject(username)
+                .claim(JwtPrincipalConverter.USER_ID_CLAIM, userId)
+                .claim(JwtPrincipalConverter.ROLE_CLAIM, role)
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(accessTokenTtl)))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    public Duration getAccessTokenTtl() {
+        return accessTokenTtl;
+    }
+}
@@ -0,0 +1,112 @@
+package com.hotelbooking.booking.security;
+
+import com.hotelbooking.booking.entity.RefreshToken;
+import com.hotelbooking.booking.repository.RefreshTokenRepository;
+import com.hotelbooking.booking.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Хранилище непрозрачных refresh-токенов в таблице refresh_tokens
+ * Общая БД делает токены видимыми всем экземплярам сервиса и переживает перезапуск;
+ * при обновлении токен ротируется (старый удаляется), просроченные записи вычищаются по расписанию
+ */
+@Component
+@Slf4j
+public class RefreshTokenStore {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final Duration refreshTokenTtl;
+
+    public RefreshTokenStore(RefreshTokenRepository refreshTokenRepository,
+                             UserRepository userRepository,
+                             @Value("${jwt.refresh-token-ttl:30d}") Duration refreshTokenTtl) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.refreshTokenTtl = refreshTokenTtl;
+    }
+
+    /**
+     * Выпустить refresh-токен для пользователя
+     */
+    @Transactional
+    public String issue(AuthenticatedUser user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = encoder.encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(hash(token), user.getId(), LocalDateTime.now().plus(refreshTokenTtl)));
+        return token;
+    }
+
+    /**
+     * Погасить refresh-токен: удаляет его и возвращает владельца, либо null если токен недействителен
+     * Из параллельных запросов с одним токеном владельца получает только тот, чей DELETE удалил строку
+     */
+    @Transactional
+    public AuthenticatedUser consume(String token) {
+        String tokenHash = hash(token);
+        RefreshToken stored = refreshTokenRepository.findById(tokenHash).orElse(null);
+        if (stored == null || refreshTokenRepository.deleteByTokenHash(tokenHash) == 0
+                || stored.getExpiresAt().isBefore(LocalDateTime.now())) {
+            return null;
+        }
+        // Имя и роль берутся актуальными из users (кэш второго уровня), а не на момент выдачи токена
+        return userRepository.findById(stored.getUserId())
+                .map(user -> new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole().name()))
+                .orElse(null);
+    }
+
+    /**
+     * Отозвать токен (выход из системы)
+     */
+    @Transactional
+    public void revoke(String token) {
+        refreshTokenRepository.deleteByTokenHash(hash(token));
+    }
+
+    /**
+     * Отозвать все токены пользователя (смена роли, удаление)
+     */
+    @Transactional
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-token-purge-interval-ms:60000}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.debug("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    /**
+     * SHA-256 токена: у токена 256 бит случайности, поэтому соль и медленный хэш не нужны
+     */
+    static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.hotelbooking.booking.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
+
+/**
+ * Не отдает bearer-токен на проверку, если принципал уже взят из заголовка доверенного шлюза
+ */
+public class TrustedGatewayBearerTokenResolver implements BearerTokenResolver {
+
+    private final DefaultBearerTokenResolver delegate = new DefaultBearerTokenResolver();
+
+    @Override
+    public String resolve(HttpServletRequest request) {
+        if (request.getAttribute(TrustedGatewayFilter.TRUSTED_ATTRIBUTE) != null) {
+            return null;
+        }
+        return delegate.resolve(request);
+    }
+}
@@ -0,0 +1,47 @@
+package com.hotelbooking.booking.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hotelbooking.booking.exception.NotFoundException;
+import com.hotelbooking.booking.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Ограниченный кэш пользователей по имени
+ * Используется, когда в токене нет ID пользователя (токены, выпущенные до добавления claim uid)
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, AuthenticatedUser> cache;
+
+    public UserCache(UserRepository userRepository,
+                     @Value("${booking.user-cache.max-size:10000}") long maxSize,
+                     @Value("${booking.user-cache.ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Получить пользователя по имени, при промахе загрузить из БД
+     */
+    public AuthenticatedUser getByUsername(String username) {
+        return cache.get(username, key -> userRepository.findByUsername(key)
+                .map(user -> new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole().name()))
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден")));
+    }
+
+    /**
+     * Удалить пользователя из кэша (после изменения или удаления)
+     */
+    public void evict(String username) {
+        cache.invalidate(username);
+    }
+}
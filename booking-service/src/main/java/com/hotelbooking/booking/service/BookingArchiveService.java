@@ -0,0 +1,113 @@
+package com.hotelbooking.booking.service;
+
+import com.hotelbooking.booking.entity.ArchivedBooking;
+import com.hotelbooking.booking.entity.Booking;
+import com.hotelbooking.booking.mapper.BookingMapper;
+import com.hotelbooking.booking.repository.ArchivedBookingRepository;
+import com.hotelbooking.booking.repository.BookingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис архивации бронирований
+ * Переносит завершенные и отмененные бронирования старше горизонта в таблицу booking_archive,
+ * чтобы горячая таблица bookings оставалась небольшой
+ */
+@Service
+@Slf4j
+public class BookingArchiveService {
+
+    private static final Set<Booking.Status> ARCHIVABLE_STATUSES =
+            EnumSet.of(Booking.Status.CONFIRMED, Booking.Status.CANCELLED);
+
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingMapper bookingMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int horizonDays;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public BookingArchiveService(BookingRepository bookingRepository,
+                                 ArchivedBookingRepository archivedBookingRepository,
+                                 BookingMapper bookingMapper,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${booking.archive.enabled:true}") boolean enabled,
+                                 @Value("${booking.archive.horizon-days:90}") int horizonDays,
+                                 @Value("${booking.archive.batch-size:500}") int batchSize,
+                                 @Value("${booking.archive.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.bookingMapper = bookingMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.horizonDays = horizonDays;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    /**
+     * Плановая архивация по расписанию
+     */
+    @Scheduled(initialDelayString = "${booking.archive.initial-delay-ms:60000}",
+               fixedDelayString = "${booking.archive.interval-ms:3600000}")
+    public void scheduledArchive() {
+        if (!enabled) {
+            return;
+        }
+        int archived = archiveOldBookings(LocalDate.now().minusDays(horizonDays));
+        if (archived > 0) {
+            log.info("Archived {} bookings older than {} days", archived, horizonDays);
+        }
+    }
+
+    /**
+     * Перенести в архив бронирования с датой выезда раньше cutoff
+     * Каждая пачка выполняется в отдельной транзакции, чтобы не держать длинные блокировки
+     *
+     * @return количество перенесенных бронирований
+     */
+    public int archiveOldBookings(LocalDate cutoff) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            if (moved == null || moved == 0) {
+                break;
+            }
+            total += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private int archiveBatch(LocalDate cutoff) {
+        // Всегда берем первую страницу: перенесенные записи удаляются из горячей таблицы
+        List<Booking> bookings = bookingRepository.findArchivable(ARCHIVABLE_STATUSES, cutoff, PageRequest.of(0, batchSize));
+        if (bookings.isEmpty()) {
+            return 0;
+        }
+
+        List<ArchivedBooking> archived = bookings.stream()
+                .map(bookingMapper::toArchive)
+                .collect(Collectors.toList());
+        archivedBookingRepository.saveAll(archived);
+        bookingRepository.deleteAllByIdInBatch(bookings.stream().map(Booking::getId).collect(Collectors.toList()));
+
+        log.debug("Archived batch of {} bookings", bookings.size());
+        return bookings.size();
+    }
+}
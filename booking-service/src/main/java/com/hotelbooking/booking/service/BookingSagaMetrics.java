@@ -0,0 +1,45 @@
+package com.hotelbooking.booking.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Таймер шагов Saga бронирования: booking.saga.step{step, outcome}
+ * Вместе с http.client.requests (вызовы Hotel Service) показывает, куда уходит время создания бронирования.
+ * SLO-границы гистограммы задаются в management.metrics.distribution.slo.booking.saga.step
+ */
+@Component
+public class BookingSagaMetrics {
+
+    public static final String STEP_PENDING = "pending";
+    public static final String STEP_CONFIRM = "confirm";
+    public static final String STEP_COMPENSATE = "compensate";
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_UNAVAILABLE = "unavailable";
+    public static final String OUTCOME_ERROR = "error";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public BookingSagaMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void record(Timer.Sample sample, String step, String outcome) {
+        sample.stop(timers.computeIfAbsent(step + ':' + outcome, key -> Timer.builder("booking.saga.step")
+                .description("Время шага Saga создания бронирования")
+                .tag("step", step)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)));
+    }
+}
@@ -4,16 +4,29 @@ import com.hotelbooking.booking.client.HotelServiceClient;
 import com.hotelbooking.booking.dto.BookingDto;
 import com.hotelbooking.booking.dto.CreateBookingRequest;
 import com.hotelbooking.booking.dto.RoomDto;
+import com.hotelbooking.booking.entity.ArchivedBooking;
 import com.hotelbooking.booking.entity.Booking;
 import com.hotelbooking.booking.entity.User;
+import com.hotelbooking.booking.exception.BusinessException;
+import com.hotelbooking.booking.exception.ConflictException;
+import com.hotelbooking.booking.exception.ForbiddenException;
+import com.hotelbooking.booking.exception.NotFoundException;
+import com.hotelbooking.booking.exception.UnavailableException;
+import com.hotelbooking.booking.journal.BookingEventJournal;
+import com.hotelbooking.booking.journal.BookingEventType;
 import com.hotelbooking.booking.mapper.BookingMapper;
+import com.hotelbooking.booking.repository.ArchivedBookingRepository;
 import com.hotelbooking.booking.repository.BookingRepository;
+import com.hotelbooking.booking.security.AuthenticatedUser;
 import io.github.resilience4j.retry.annotation.Retry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -28,25 +41,43 @@ import java.util.stream.Collectors;
 public class BookingService {
 
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final BookingMapper bookingMapper;
     private final UserService userService;
     private final HotelServiceClient hotelServiceClient;
+    private final BookingEventJournal bookingEventJournal;
+    private final BookingSagaMetrics sagaMetrics;
 
     /**
      * Создать бронирование с паттерном Saga
      */
     @Transactional
-    public BookingDto createBooking(CreateBookingRequest request, String username) {
-        log.info("Starting booking creation for user: {}, requestId: {}", username, request.getRequestId());
+    public BookingDto createBooking(CreateBookingRequest request, AuthenticatedUser currentUser) {
+        String username = currentUser.getUsername();
+        log.debug("Starting booking creation for user: {}, requestId: {}", username, request.getRequestId());
 
-        User user = userService.getUserByUsername(username);
+        // ID пользователя уже есть в токене - ссылка без SELECT из users
+        User user = userService.getUserReference(currentUser.getId());
 
         // Для идемпотентности - проверяем существующий запрос
         if (request.getRequestId() != null) {
             Booking existingBooking = bookingRepository.findByRequestId(request.getRequestId()).orElse(null);
             if (existingBooking != null) {
-                log.info("Found existing booking for requestId: {}", request.getRequestId());
-                return bookingMapper.toDto(existingBooking);
+                if (!isOwner(existingBooking, currentUser)) {
+                    throw new ForbiddenException("Доступ запрещен");
+                }
+                log.debug("Found existing booking for requestId: {}", request.getRequestId());
+                return convertToDto(existingBooking, currentUser);
+            }
+
+            // Бронирование могло уже уйти в архив - повтор запроса не должен создавать новое
+            ArchivedBooking archivedBooking = archivedBookingRepository.findByRequestId(request.getRequestId()).orElse(null);
+            if (archivedBooking != null) {
+                if (!archivedBooking.getUserId().equals(currentUser.getId())) {
+                    throw new ForbiddenException("Доступ запрещен");
+                }
+                log.debug("Found archived booking for requestId: {}", request.getRequestId());
+                return bookingMapper.toDto(archivedBooking);
             }
         }
 
@@ -60,14 +91,15 @@ public class BookingService {
         // Автоподбор номера если не указан
         if (request.getAutoSelect() != null && request.getAutoSelect()) {
             roomId = selectOptimalRoom();
-            log.info("Auto-selected room: {} for user: {}", roomId, username);
+            log.debug("Auto-selected room: {} for user: {}", roomId, username);
         }
 
         if (roomId == null) {
-            throw new RuntimeException("Не удалось выбрать номер");
+            throw new UnavailableException("Не удалось выбрать номер");
         }
 
         // Шаг 1: Создаем бронирование в статусе PENDING
+        Timer.Sample pendingSample = sagaMetrics.start();
         Booking booking = new Booking();
         booking.setUser(user);
         booking.setRoomId(roomId);
@@ -77,8 +109,11 @@ public class BookingService {
         booking.setRequestId(request.getRequestId());
 
         booking = bookingRepository.save(booking);
-        log.info("Created booking in PENDING status: {}", booking.getId());
+        bookingEventJournal.record(BookingEventType.PENDING, booking);
+        sagaMetrics.record(pendingSample, BookingSagaMetrics.STEP_PENDING, BookingSagaMetrics.OUTCOME_SUCCESS);
+        log.debug("Created booking in PENDING status: {}", booking.getId());
 
+        Timer.Sample confirmSample = sagaMetrics.start();
         try {
             // Шаг 2: Вызываем Hotel Service для подтверждения доступности
             boolean available = confirmRoomAvailabilityWithRetry(roomId);
@@ -87,20 +122,27 @@ public class BookingService {
                 // Шаг 3: Подтверждаем бронирование
                 booking.setStatus(Booking.Status.CONFIRMED);
                 booking = bookingRepository.save(booking);
-                log.info("Booking confirmed: {}", booking.getId());
+                bookingEventJournal.record(BookingEventType.CONFIRMED, booking);
+                sagaMetrics.record(confirmSample, BookingSagaMetrics.STEP_CONFIRM, BookingSagaMetrics.OUTCOME_SUCCESS);
+                log.debug("Booking confirmed: {}", booking.getId());
 
-                return bookingMapper.toDto(booking);
+                return convertToDto(booking, currentUser);
             } else {
+                sagaMetrics.record(confirmSample, BookingSagaMetrics.STEP_CONFIRM, BookingSagaMetrics.OUTCOME_UNAVAILABLE);
                 // Компенсация: отменяем бронирование
                 performCompensation(booking);
-                throw new RuntimeException("Номер недоступен на выбранные даты");
+                throw new ConflictException("Номер недоступен на выбранные даты");
             }
 
+        } catch (BusinessException e) {
+            // Ожидаемый исход, компенсация уже выполнена
+            throw e;
         } catch (Exception e) {
+            sagaMetrics.record(confirmSample, BookingSagaMetrics.STEP_CONFIRM, BookingSagaMetrics.OUTCOME_ERROR);
             log.error("Error during booking confirmation: {}", e.getMessage());
             // Компенсация при ошибке
             performCompensation(booking);
-            throw new RuntimeException("Ошибка при подтверждении бронирования: " + e.getMessage());
+            throw new UnavailableException("Ошибка при подтверждении бронирования: " + e.getMessage());
         }
     }
 
@@ -143,16 +185,20 @@ public class BookingService {
     private void performCompensation(Booking booking) {
         log.info("Performing compensation for booking: {}", booking.getId());
 
+        Timer.Sample sample = sagaMetrics.start();
         try {
             // Отменяем бронирование
             booking.setStatus(Booking.Status.CANCELLED);
             bookingRepository.save(booking);
+            bookingEventJournal.record(BookingEventType.COMPENSATED, booking);
 
             // Снимаем блокировку номера
             hotelServiceClient.releaseRoomBlock(booking.getRoomId());
 
+            sagaMetrics.record(sample, BookingSagaMetrics.STEP_COMPENSATE, BookingSagaMetrics.OUTCOME_SUCCESS);
             log.info("Compensation completed for booking: {}", booking.getId());
         } catch (Exception e) {
+            sagaMetrics.record(sample, BookingSagaMetrics.STEP_COMPENSATE, BookingSagaMetrics.OUTCOME_ERROR);
             log.error("Error during compensation for booking: {}", booking.getId(), e);
         }
     }
@@ -160,46 +206,85 @@ public class BookingService {
     /**
      * Получить все бронирования пользователя
      */
-    public List<BookingDto> getUserBookings(String username) {
-        User user = userService.getUserByUsername(username);
-        return bookingRepository.findByUserOrderByCreatedAtDesc(user).stream()
-                .map(this::convertToDto)
+    public List<BookingDto> getUserBookings(AuthenticatedUser currentUser) {
+        return getUserBookings(currentUser, false);
+    }
+
+    /**
+     * Получить бронирования пользователя, при includeArchived также из архива
+     */
+    public List<BookingDto> getUserBookings(AuthenticatedUser currentUser, boolean includeArchived) {
+        List<BookingDto> bookings = bookingRepository.findByUserIdOrderByCreatedAtDesc(currentUser.getId()).stream()
+                .map(booking -> convertToDto(booking, currentUser))
                 .collect(Collectors.toList());
+
+        if (includeArchived) {
+            archivedBookingRepository.findByUserIdOrderByCreatedAtDesc(currentUser.getId()).stream()
+                    .map(bookingMapper::toDto)
+                    .forEach(bookings::add);
+            bookings.sort(Comparator.comparing(BookingDto::getCreatedAt,
+                    Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder())));
+        }
+        return bookings;
     }
 
     /**
      * Получить бронирование по ID
      */
-    public BookingDto getBookingById(Long id, String username) {
-        Booking booking = bookingRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Бронирование не найдено"));
+    public BookingDto getBookingById(Long id, AuthenticatedUser currentUser) {
+        return getBookingById(id, currentUser, false);
+    }
+
+    /**
+     * Получить бронирование по ID, при includeArchived с поиском в архиве
+     */
+    public BookingDto getBookingById(Long id, AuthenticatedUser currentUser, boolean includeArchived) {
+        Booking booking = bookingRepository.findById(id).orElse(null);
+        if (booking == null && includeArchived) {
+            return getArchivedBooking(id, currentUser);
+        }
+        if (booking == null) {
+            throw new NotFoundException("Бронирование не найдено");
+        }
 
         // Проверяем, что пользователь имеет доступ только к своим бронированиям
-        if (!booking.getUser().getUsername().equals(username)) {
-            throw new RuntimeException("Доступ запрещен");
+        if (!isOwner(booking, currentUser)) {
+            throw new ForbiddenException("Доступ запрещен");
+        }
+
+        return convertToDto(booking, currentUser);
+    }
+
+    private BookingDto getArchivedBooking(Long id, AuthenticatedUser currentUser) {
+        ArchivedBooking archived = archivedBookingRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
+
+        if (!archived.getUserId().equals(currentUser.getId())) {
+            throw new ForbiddenException("Доступ запрещен");
         }
 
-        return convertToDto(booking);
+        return bookingMapper.toDto(archived);
     }
 
     /**
      * Отменить бронирование
      */
     @Transactional
-    public void cancelBooking(Long id, String username) {
+    public void cancelBooking(Long id, AuthenticatedUser currentUser) {
         Booking booking = bookingRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Бронирование не найдено"));
+                .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
 
-        if (!booking.getUser().getUsername().equals(username)) {
-            throw new RuntimeException("Доступ запрещен");
+        if (!isOwner(booking, currentUser)) {
+            throw new ForbiddenException("Доступ запрещен");
         }
 
         if (booking.getStatus() == Booking.Status.CANCELLED) {
-            throw new RuntimeException("Бронирование уже отменено");
+            throw new ConflictException("Бронирование уже отменено");
         }
 
         booking.setStatus(Booking.Status.CANCELLED);
         bookingRepository.save(booking);
+        bookingEventJournal.record(BookingEventType.CANCELLED, booking);
 
         // Освобождаем номер
         try {
@@ -209,13 +294,21 @@ public class BookingService {
         }
     }
 
+    /**
+     * Проверка владельца по ID (getId у lazy-прокси User не загружает сущность)
+     */
+    private boolean isOwner(Booking booking, AuthenticatedUser currentUser) {
+        return booking.getUser().getId().equals(currentUser.getId());
+    }
+
     /**
      * Преобразование Booking в DTO с правильным маппингом
+     * Данные пользователя берутся из принципала, а не из lazy-связи
      */
-    private BookingDto convertToDto(Booking booking) {
+    private BookingDto convertToDto(Booking booking, AuthenticatedUser owner) {
         BookingDto dto = bookingMapper.toDto(booking);
-        dto.setUserId(booking.getUser().getId());
-        dto.setUsername(booking.getUser().getUsername());
+        dto.setUserId(owner.getId());
+        dto.setUsername(owner.getUsername());
         dto.setStatus(booking.getStatus().name());
         return dto;
     }
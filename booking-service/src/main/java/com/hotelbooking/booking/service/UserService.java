@@ -2,97 +2,128 @@ package com.hotelbooking.booking.service;
 
 import com.hotelbooking.booking.dto.AuthRequest;
 import com.hotelbooking.booking.dto.AuthResponse;
+import com.hotelbooking.booking.dto.RefreshTokenRequest;
 import com.hotelbooking.booking.dto.RegisterRequest;
 import com.hotelbooking.booking.dto.UserDto;
 import com.hotelbooking.booking.entity.User;
+import com.hotelbooking.booking.exception.ConflictException;
+import com.hotelbooking.booking.exception.NotFoundException;
+import com.hotelbooking.booking.exception.UnauthorizedException;
 import com.hotelbooking.booking.mapper.UserMapper;
 import com.hotelbooking.booking.repository.UserRepository;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import com.hotelbooking.booking.security.AuthenticatedUser;
+import com.hotelbooking.booking.security.JwtTokenProvider;
+import com.hotelbooking.booking.security.PasswordHashingExecutor;
+import com.hotelbooking.booking.security.RefreshTokenStore;
+import com.hotelbooking.booking.security.UserCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-
-import javax.crypto.SecretKey;
-import java.time.Duration;
-import java.time.Instant;
-import java.util.Date;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Сервис для управления пользователями и аутентификацией
  */
 @Service
+@RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
-
-    @org.springframework.beans.factory.annotation.Value("${jwt.secret:mySuperSecretKeyForJWTTokenSigningInHotelBookingSystem2024}")
-    private String jwtSecretString;
-    private final Duration jwtExpiration = Duration.ofHours(1); // 1 час
-
-    private SecretKey getJwtSecret() {
-        return Keys.hmacShaKeyFor((jwtSecretString != null ? jwtSecretString : "testSecretKeyForJWTTokenSigningWithMinimum256BitsRequiredForSecurity").getBytes());
-    }
-
-    // Конструктор для Spring (параметры будут инжектированы)
-    @org.springframework.beans.factory.annotation.Autowired
-    public UserService(UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder) {
-        this.userRepository = userRepository;
-        this.userMapper = userMapper;
-        this.passwordEncoder = passwordEncoder;
-    }
-
-    // Конструктор для тестов
-    public UserService(UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder, String jwtSecret) {
-        this.userRepository = userRepository;
-        this.userMapper = userMapper;
-        this.passwordEncoder = passwordEncoder;
-        this.jwtSecretString = jwtSecret;
-    }
+    private final UserCache userCache;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final RefreshTokenStore refreshTokenStore;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Регистрация нового пользователя
+     * Хэш считается вне транзакции, как в authenticate: всплеск регистраций не забирает соединения из пула БД
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse register(RegisterRequest request) {
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new RuntimeException("Пользователь с таким именем уже существует");
-        }
-
-        User user = new User();
-        user.setUsername(request.getUsername());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setRole(User.Role.USER); // По умолчанию USER
-
-        user = userRepository.save(user);
+        String passwordHash = hashingExecutor.execute(() -> passwordEncoder.encode(request.getPassword()));
+        User user = createWithHash(request.getUsername(), User.Role.USER, passwordHash); // По умолчанию USER
         return generateAuthResponse(user);
     }
 
     /**
      * Аутентификация пользователя
+     * Проверка пароля выполняется в выделенном пуле хэширования;
+     * хэш со стоимостью ниже настроенной пересчитывается при успешном входе
+     * Вне транзакции: ожидание слота в пуле и BCrypt не держат соединение из пула БД
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse authenticate(AuthRequest request) {
         User user = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new RuntimeException("Неверное имя пользователя или пароль"));
-
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            throw new RuntimeException("Неверное имя пользователя или пароль");
+                .orElseThrow(() -> new UnauthorizedException("Неверное имя пользователя или пароль"));
+
+        String storedHash = user.getPassword();
+        String rehashed = hashingExecutor.execute(() -> {
+            if (!passwordEncoder.matches(request.getPassword(), storedHash)) {
+                throw new UnauthorizedException("Неверное имя пользователя или пароль");
+            }
+            return passwordEncoder.upgradeEncoding(storedHash) ? passwordEncoder.encode(request.getPassword()) : null;
+        });
+
+        if (rehashed != null) {
+            upgradePassword(user.getId(), storedHash, rehashed);
         }
 
         return generateAuthResponse(user);
     }
 
+    /**
+     * Сохранить пересчитанный хэш в отдельной короткой транзакции
+     * Хэш не перезаписывается, если пароль успели сменить, пока считался новый
+     */
+    private void upgradePassword(Long userId, String storedHash, String rehashed) {
+        transactionTemplate.executeWithoutResult(status -> userRepository.findById(userId)
+                .filter(user -> storedHash.equals(user.getPassword()))
+                .ifPresent(user -> {
+                    user.setPassword(rehashed);
+                    userRepository.save(user);
+                }));
+    }
+
+    /**
+     * Обновить access-токен по refresh-токену без проверки пароля
+     * Refresh-токен одноразовый: взамен выдается новый
+     */
+    @Transactional
+    public AuthResponse refresh(RefreshTokenRequest request) {
+        AuthenticatedUser user = refreshTokenStore.consume(request.getRefreshToken());
+        if (user == null) {
+            throw new UnauthorizedException("Недействительный refresh токен");
+        }
+        return generateAuthResponse(user);
+    }
+
+    /**
+     * Выход: отзыв refresh-токена
+     */
+    @Transactional
+    public void logout(RefreshTokenRequest request) {
+        refreshTokenStore.revoke(request.getRefreshToken());
+    }
+
     /**
      * Получить пользователя по имени
      */
     public User getUserByUsername(String username) {
         return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+    }
+
+    /**
+     * Получить ссылку на пользователя по ID без загрузки из БД (для связей сущностей)
+     */
+    public User getUserReference(Long id) {
+        return userRepository.getReferenceById(id);
     }
 
     /**
@@ -100,7 +131,7 @@ public class UserService {
      */
     public UserDto getUserById(Long id) {
         User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
         UserDto userDto = userMapper.toDto(user);
         userDto.setRole(user.getRole().name()); // Устанавливаем роль вручную
         return userDto;
@@ -108,32 +139,46 @@ public class UserService {
 
     /**
      * Создать пользователя (только для админов)
+     * Хэш временного пароля считается вне транзакции, как в register
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserDto createUser(UserDto userDto) {
-        if (userRepository.existsByUsername(userDto.getUsername())) {
-            throw new RuntimeException("Пользователь с таким именем уже существует");
-        }
-
-        User user = new User();
-        user.setUsername(userDto.getUsername());
-        user.setRole(User.Role.valueOf(userDto.getRole()));
-        user.setPassword(passwordEncoder.encode("defaultPassword123")); // Временный пароль
-        user = userRepository.save(user);
+        User.Role role = User.Role.valueOf(userDto.getRole());
+        String passwordHash = hashingExecutor.execute(() -> passwordEncoder.encode("defaultPassword123")); // Временный пароль
+        User user = createWithHash(userDto.getUsername(), role, passwordHash);
 
         UserDto result = userMapper.toDto(user);
         result.setRole(user.getRole().name());
         return result;
     }
 
+    /**
+     * Проверка имени и сохранение в короткой транзакции с уже посчитанным хэшем
+     */
+    private User createWithHash(String username, User.Role role, String passwordHash) {
+        return transactionTemplate.execute(status -> {
+            if (userRepository.existsByUsername(username)) {
+                throw new ConflictException("Пользователь с таким именем уже существует");
+            }
+
+            User user = new User();
+            user.setUsername(username);
+            user.setPassword(passwordHash);
+            user.setRole(role);
+            return userRepository.save(user);
+        });
+    }
+
     /**
      * Обновить пользователя
      */
     @Transactional
     public UserDto updateUser(Long id, UserDto userDto) {
         User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
 
+        userCache.evict(user.getUsername());
+        refreshTokenStore.revokeAll(user.getId()); // Старые токены несут прежние имя и роль
         user.setUsername(userDto.getUsername());
         if (userDto.getRole() != null) {
             user.setRole(User.Role.valueOf(userDto.getRole()));
@@ -150,27 +195,25 @@ public class UserService {
      */
     @Transactional
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("Пользователь не найден");
-        }
-        userRepository.deleteById(id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        userRepository.delete(user);
+        userCache.evict(user.getUsername());
+        refreshTokenStore.revokeAll(user.getId());
     }
 
     /**
-     * Генерация JWT токена
+     * Генерация пары access/refresh токенов
      */
     private AuthResponse generateAuthResponse(User user) {
-        Instant now = Instant.now();
-        Instant expiry = now.plus(jwtExpiration);
-
-        String token = Jwts.builder()
-                .setSubject(user.getUsername())
-                .claim("role", user.getRole().name())
-                .setIssuedAt(Date.from(now))
-                .setExpiration(Date.from(expiry))
-                .signWith(getJwtSecret(), SignatureAlgorithm.HS256)
-                .compact();
-
-        return new AuthResponse(token, "Bearer", user.getUsername(), user.getRole().name());
+        return generateAuthResponse(new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole().name()));
+    }
+
+    private AuthResponse generateAuthResponse(AuthenticatedUser user) {
+        String token = jwtTokenProvider.createAccessToken(user.getId(), user.getUsername(), user.getRole());
+        String refreshToken = refreshTokenStore.issue(user);
+
+        return new AuthResponse(token, "Bearer", user.getUsername(), user.getRole(), refreshToken,
+                jwtTokenProvider.getAccessTokenTtl().toSeconds());
     }
 }
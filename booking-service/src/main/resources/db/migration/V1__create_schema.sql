@@ -0,0 +1,35 @@
+-- Исходная схема Booking Service (ранее создавалась Hibernate через ddl-auto)
+
+CREATE TABLE users (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username   VARCHAR(255) NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    role       VARCHAR(20)  NOT NULL,
+    created_at TIMESTAMP(6),
+    CONSTRAINT uq_users_username UNIQUE (username)
+);
+
+CREATE TABLE bookings (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    BIGINT       NOT NULL,
+    room_id    BIGINT       NOT NULL,
+    start_date DATE         NOT NULL,
+    end_date   DATE         NOT NULL,
+    status     VARCHAR(20)  NOT NULL,
+    created_at TIMESTAMP(6),
+    request_id VARCHAR(255),
+    CONSTRAINT fk_bookings_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE booking_archive (
+    id          BIGINT       NOT NULL PRIMARY KEY,
+    user_id     BIGINT       NOT NULL,
+    username    VARCHAR(255) NOT NULL,
+    room_id     BIGINT       NOT NULL,
+    start_date  DATE         NOT NULL,
+    end_date    DATE         NOT NULL,
+    status      VARCHAR(20)  NOT NULL,
+    created_at  TIMESTAMP(6),
+    request_id  VARCHAR(255),
+    archived_at TIMESTAMP(6) NOT NULL
+);
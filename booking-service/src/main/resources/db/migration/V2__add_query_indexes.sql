@@ -0,0 +1,16 @@
+-- Индексы под запросы BookingRepository и ArchivedBookingRepository
+
+-- existsOverlappingBooking: room_id = ? AND status = 'CONFIRMED' AND пересечение дат
+CREATE INDEX idx_bookings_room_status_dates ON bookings (room_id, status, start_date, end_date);
+
+-- findByRequestId; один запрос создает не больше одного бронирования
+CREATE UNIQUE INDEX uq_bookings_request_id ON bookings (request_id);
+
+-- findByUserIdOrderByCreatedAtDesc, findByUserAndStatus
+CREATE INDEX idx_bookings_user_created ON bookings (user_id, created_at);
+
+-- findArchivable: status IN (...) AND end_date < ?
+CREATE INDEX idx_bookings_status_end_date ON bookings (status, end_date);
+
+-- ArchivedBookingRepository.findByUserIdOrderByCreatedAtDesc
+CREATE INDEX idx_booking_archive_user_created ON booking_archive (user_id, created_at);
@@ -0,0 +1,2 @@
+-- ArchivedBookingRepository.findByRequestId; проверка идемпотентности по архиву
+CREATE UNIQUE INDEX uq_booking_archive_request_id ON booking_archive (request_id);
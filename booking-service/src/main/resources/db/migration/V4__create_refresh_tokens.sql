@@ -0,0 +1,15 @@
+-- Refresh-токены в общей БД: переживают перезапуск и видны всем репликам сервиса
+-- Хранится только SHA-256 токена, сам токен есть лишь у клиента
+
+CREATE TABLE refresh_tokens (
+    token_hash VARCHAR(64)  NOT NULL PRIMARY KEY,
+    user_id    BIGINT       NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+-- revokeAll: user_id = ?
+CREATE INDEX idx_refresh_tokens_user_id ON refresh_tokens (user_id);
+
+-- purgeExpired: expires_at < ?
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
@@ -0,0 +1,96 @@
+package com.hotelbooking.booking.journal;
+
+import com.hotelbooking.booking.entity.Booking;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для BookingEventJournal
+ */
+class BookingEventJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private BookingEventJournal journal;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        journal = new BookingEventJournal(true, directory.toString(), 1, 16, 10);
+        journal.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        journal.stop();
+    }
+
+    @Test
+    void record_ShouldPublishOnlyAfterCommit() throws InterruptedException {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        journal.record(BookingEventType.PENDING, booking(1L));
+        journal.record(BookingEventType.CONFIRMED, booking(1L));
+
+        // When: до коммита события не видны
+        Thread.sleep(50);
+        long beforeCommit = journal.lastSequence();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+
+        // Then
+        assertThat(beforeCommit).isZero();
+        assertThat(awaitSequence(2)).isEqualTo(2);
+        assertThat(journal.read(1, 10)).extracting(BookingEvent::getType)
+                .containsExactly(BookingEventType.PENDING, BookingEventType.CONFIRMED);
+    }
+
+    @Test
+    void record_ShouldDiscardEventsOfRolledBackTransaction() throws InterruptedException {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        journal.record(BookingEventType.PENDING, booking(1L));
+        journal.record(BookingEventType.COMPENSATED, booking(1L));
+
+        // When: откат - afterCommit не вызывается
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_ROLLED_BACK);
+        journal.record(BookingEventType.CANCELLED, booking(2L));
+
+        // Then
+        assertThat(awaitSequence(1)).isEqualTo(1);
+        assertThat(journal.read(1, 10)).extracting(BookingEvent::getBookingId).containsExactly(2L);
+    }
+
+    private long awaitSequence(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (journal.lastSequence() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50); // Лишние события, если они есть, успевают дойти до журнала
+        return journal.lastSequence();
+    }
+
+    private Booking booking(Long id) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setRoomId(10L);
+        booking.setRequestId("req-" + id);
+        return booking;
+    }
+}
@@ -0,0 +1,90 @@
+package com.hotelbooking.booking.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для SegmentedJournal
+ */
+class SegmentedJournalTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void append_ShouldAssignSequencesAndReadBack() throws IOException {
+        // Given
+        try (SegmentedJournal journal = new SegmentedJournal(directory, SEGMENT_SIZE)) {
+            journal.append(event(BookingEventType.PENDING, 1L, "req-1"));
+            journal.append(event(BookingEventType.CONFIRMED, 1L, null));
+
+            // When
+            List<BookingEvent> events = journal.read(1, 10);
+
+            // Then
+            assertThat(events).extracting(BookingEvent::getSequence).containsExactly(1L, 2L);
+            assertThat(events.get(0).getType()).isEqualTo(BookingEventType.PENDING);
+            assertThat(events.get(0).getRequestId()).isEqualTo("req-1");
+            assertThat(events.get(1).getRequestId()).isNull();
+            assertThat(journal.lastSequence()).isEqualTo(2L);
+        }
+    }
+
+    @Test
+    void append_ShouldRotateSegmentsAndReadAcrossThem() throws IOException {
+        // Given
+        try (SegmentedJournal journal = new SegmentedJournal(directory, SEGMENT_SIZE)) {
+            for (long i = 1; i <= 50; i++) {
+                journal.append(event(BookingEventType.PENDING, i, "req-" + i));
+            }
+
+            // When
+            List<BookingEvent> events = journal.read(20, 100);
+
+            // Then
+            assertThat(segmentCount()).isGreaterThan(1);
+            assertThat(events).hasSize(31);
+            assertThat(events.get(0).getBookingId()).isEqualTo(20L);
+            assertThat(events.get(30).getBookingId()).isEqualTo(50L);
+        }
+    }
+
+    @Test
+    void recover_ShouldContinueSequenceAfterReopen() throws IOException {
+        // Given
+        try (SegmentedJournal journal = new SegmentedJournal(directory, SEGMENT_SIZE)) {
+            for (long i = 1; i <= 30; i++) {
+                journal.append(event(BookingEventType.PENDING, i, "req-" + i));
+            }
+        }
+
+        // When
+        try (SegmentedJournal reopened = new SegmentedJournal(directory, SEGMENT_SIZE)) {
+            long sequence = reopened.append(event(BookingEventType.CANCELLED, 31L, null));
+
+            // Then
+            assertThat(sequence).isEqualTo(31L);
+            assertThat(reopened.read(1, 100)).hasSize(31);
+        }
+    }
+
+    private BookingEvent event(BookingEventType type, Long bookingId, String requestId) {
+        return new BookingEvent(0, System.currentTimeMillis(), type, bookingId, 7L, 3L, requestId);
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
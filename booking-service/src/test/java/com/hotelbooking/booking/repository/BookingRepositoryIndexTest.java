@@ -0,0 +1,112 @@
+package com.hotelbooking.booking.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для индексов из db/migration: планы запросов BookingRepository и ArchivedBookingRepository
+ * идут по индексам, а не tableScan
+ */
+class BookingRepositoryIndexTest {
+
+    private static final String URL = "jdbc:h2:mem:booking-index-test;DB_CLOSE_DELAY=-1";
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        Flyway.configure().dataSource(URL, "sa", "").load().migrate();
+        connection = DriverManager.getConnection(URL, "sa", "");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    void existsOverlappingBooking_ShouldUseRoomStatusDatesIndex() throws SQLException {
+        // When
+        String plan = explain("SELECT COUNT(*) FROM bookings WHERE room_id = 1 AND status = 'CONFIRMED'"
+            + " AND start_date <= DATE '2025-06-10' AND end_date >= DATE '2025-06-01'");
+
+        // Then
+        assertThat(plan).contains("IDX_BOOKINGS_ROOM_STATUS_DATES").doesNotContain("tableScan");
+    }
+
+    @Test
+    void findByRequestId_ShouldUseRequestIdIndex() throws SQLException {
+        // When
+        String plan = explain("SELECT * FROM bookings WHERE request_id = 'req-1'");
+
+        // Then
+        assertThat(plan).contains("UQ_BOOKINGS_REQUEST_ID").doesNotContain("tableScan");
+    }
+
+    @Test
+    void findByUserIdOrderByCreatedAtDesc_ShouldUseUserIdIndex() throws SQLException {
+        // When
+        String plan = explain("SELECT * FROM bookings WHERE user_id = 1 ORDER BY created_at DESC");
+
+        // Then: H2 может выбрать и индекс внешнего ключа, важно что поиск по user_id идет по индексу
+        assertThat(plan).containsPattern("/\\* PUBLIC\\.\\w+: USER_ID = ").doesNotContain("tableScan");
+    }
+
+    @Test
+    void findArchivable_ShouldUseStatusEndDateIndex() throws SQLException {
+        // When
+        String plan = explain("SELECT * FROM bookings WHERE status IN ('COMPLETED', 'CANCELLED')"
+            + " AND end_date < DATE '2025-01-01' ORDER BY id FETCH FIRST 100 ROWS ONLY");
+
+        // Then
+        assertThat(plan).contains("IDX_BOOKINGS_STATUS_END_DATE").doesNotContain("tableScan");
+    }
+
+    @Test
+    void archivedFindByUserIdOrderByCreatedAtDesc_ShouldUseArchiveUserCreatedIndex() throws SQLException {
+        // When
+        String plan = explain("SELECT * FROM booking_archive WHERE user_id = 1 ORDER BY created_at DESC");
+
+        // Then
+        assertThat(plan).contains("IDX_BOOKING_ARCHIVE_USER_CREATED").doesNotContain("tableScan");
+    }
+
+    @Test
+    void archivedFindByRequestId_ShouldUseArchiveRequestIdIndex() throws SQLException {
+        // When
+        String plan = explain("SELECT * FROM booking_archive WHERE request_id = 'req-1'");
+
+        // Then
+        assertThat(plan).contains("UQ_BOOKING_ARCHIVE_REQUEST_ID").doesNotContain("tableScan");
+    }
+
+    @Test
+    void refreshTokenDeleteExpired_ShouldUseExpiresAtIndex() throws SQLException {
+        // When
+        String plan = explain("SELECT * FROM refresh_tokens WHERE expires_at < TIMESTAMP '2025-01-01 00:00:00'");
+
+        // Then
+        assertThat(plan).contains("IDX_REFRESH_TOKENS_EXPIRES_AT").doesNotContain("tableScan");
+    }
+
+    private String explain(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+}
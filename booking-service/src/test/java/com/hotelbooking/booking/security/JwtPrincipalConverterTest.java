@@ -0,0 +1,87 @@
+package com.hotelbooking.booking.security;
+
+import com.hotelbooking.booking.exception.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тесты для JwtPrincipalConverter
+ */
+@ExtendWith(MockitoExtension.class)
+class JwtPrincipalConverterTest {
+
+    @Mock
+    private UserCache userCache;
+
+    private JwtPrincipalConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        converter = new JwtPrincipalConverter(userCache);
+    }
+
+    @Test
+    void convert_TokenWithUserId_ShouldBuildPrincipalFromClaims() {
+        // Given
+        Jwt jwt = jwt("alice").claim(JwtPrincipalConverter.USER_ID_CLAIM, 7L).build();
+
+        // When
+        AbstractAuthenticationToken authentication = converter.convert(jwt);
+
+        // Then
+        assertThat(authentication.getPrincipal()).isInstanceOfSatisfying(AuthenticatedUser.class, user -> {
+            assertThat(user.getId()).isEqualTo(7L);
+            assertThat(user.getUsername()).isEqualTo("alice");
+            assertThat(user.getRole()).isEqualTo("ADMIN");
+        });
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+        verify(userCache, never()).getByUsername(anyString());
+    }
+
+    @Test
+    void convert_LegacyTokenWithoutUserId_ShouldLoadPrincipalFromCache() {
+        // Given
+        AuthenticatedUser user = new AuthenticatedUser(7L, "alice", "ADMIN");
+        when(userCache.getByUsername("alice")).thenReturn(user);
+
+        // When
+        AbstractAuthenticationToken authentication = converter.convert(jwt("alice").build());
+
+        // Then
+        assertThat(authentication.getPrincipal()).isEqualTo(user);
+    }
+
+    @Test
+    void convert_LegacyTokenOfDeletedUser_ShouldRejectAsInvalidToken() {
+        // Given
+        when(userCache.getByUsername("deleted")).thenThrow(new NotFoundException("Пользователь не найден"));
+
+        // When & Then: AuthenticationException превращается фильтром в 401, а не в 500
+        assertThatThrownBy(() -> converter.convert(jwt("deleted").build()))
+                .isInstanceOf(InvalidBearerTokenException.class)
+                .isInstanceOf(AuthenticationException.class)
+                .hasCauseInstanceOf(NotFoundException.class);
+    }
+
+    private static Jwt.Builder jwt(String subject) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .subject(subject)
+                .claim(JwtPrincipalConverter.ROLE_CLAIM, "ADMIN");
+    }
+}
@@ -0,0 +1,101 @@
+package com.hotelbooking.booking.security;
+
+import com.hotelbooking.booking.entity.RefreshToken;
+import com.hotelbooking.booking.entity.User;
+import com.hotelbooking.booking.repository.RefreshTokenRepository;
+import com.hotelbooking.booking.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тесты для RefreshTokenStore
+ */
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenStoreTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private RefreshTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new RefreshTokenStore(refreshTokenRepository, userRepository, Duration.ofDays(30));
+    }
+
+    @Test
+    void issue_ShouldStoreOnlyTokenHash() {
+        // When
+        String token = store.issue(new AuthenticatedUser(1L, "testuser", "USER"));
+
+        // Then
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertThat(saved.getValue().getTokenHash()).isEqualTo(RefreshTokenStore.hash(token)).isNotEqualTo(token).hasSize(64);
+        assertThat(saved.getValue().getUserId()).isEqualTo(1L);
+        assertThat(saved.getValue().getExpiresAt()).isAfter(LocalDateTime.now().plusDays(29));
+    }
+
+    @Test
+    void consume_ShouldReturnCurrentOwner_WhenTokenValid() {
+        // Given
+        String hash = RefreshTokenStore.hash("token");
+        when(refreshTokenRepository.findById(hash))
+                .thenReturn(Optional.of(new RefreshToken(hash, 1L, LocalDateTime.now().plusDays(1))));
+        when(refreshTokenRepository.deleteByTokenHash(hash)).thenReturn(1);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(new User(1L, "renamed", "hash", User.Role.ADMIN, null)));
+
+        // When
+        AuthenticatedUser user = store.consume("token");
+
+        // Then
+        assertThat(user.getId()).isEqualTo(1L);
+        assertThat(user.getUsername()).isEqualTo("renamed");
+        assertThat(user.getRole()).isEqualTo("ADMIN");
+    }
+
+    @Test
+    void consume_ShouldReturnNull_WhenConcurrentRequestDeletedTokenFirst() {
+        // Given
+        String hash = RefreshTokenStore.hash("token");
+        when(refreshTokenRepository.findById(hash))
+                .thenReturn(Optional.of(new RefreshToken(hash, 1L, LocalDateTime.now().plusDays(1))));
+        when(refreshTokenRepository.deleteByTokenHash(hash)).thenReturn(0);
+
+        // When & Then
+        assertThat(store.consume("token")).isNull();
+        verify(userRepository, never()).findById(1L);
+    }
+
+    @Test
+    void consume_ShouldReturnNull_WhenTokenExpiredOrUnknown() {
+        // Given
+        String expired = RefreshTokenStore.hash("expired");
+        when(refreshTokenRepository.findById(expired))
+                .thenReturn(Optional.of(new RefreshToken(expired, 1L, LocalDateTime.now().minusSeconds(1))));
+        when(refreshTokenRepository.deleteByTokenHash(expired)).thenReturn(1);
+        when(refreshTokenRepository.findById(RefreshTokenStore.hash("unknown"))).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThat(store.consume("expired")).isNull();
+        assertThat(store.consume("unknown")).isNull();
+        verify(refreshTokenRepository, never()).deleteByTokenHash(RefreshTokenStore.hash("unknown"));
+        verify(userRepository, never()).findById(1L);
+    }
+}
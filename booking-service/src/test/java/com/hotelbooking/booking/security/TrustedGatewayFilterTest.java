@@ -0,0 +1,143 @@
+package com.hotelbooking.booking.security;
+
+import com.hotelbooking.booking.exception.NotFoundException;
+import com.hotelbooking.common.security.TrustedPrincipalVerifier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тесты для TrustedGatewayFilter
+ */
+@ExtendWith(MockitoExtension.class)
+class TrustedGatewayFilterTest {
+
+    private static final String SECRET = "testSecretKeyForTrustedGatewayHeaderSigning2024";
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    @Mock
+    private UserCache userCache;
+
+    private TrustedGatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new TrustedGatewayFilter(new TrustedPrincipalVerifier(SECRET, Clock.fixed(NOW, ZoneOffset.UTC)), userCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_ValidHeader_ShouldAuthenticateAndSkipBearerToken() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(TrustedGatewayFilter.PRINCIPAL_HEADER, sign(SECRET, "2\nUSER\n" + (NOW.getEpochSecond() + 60) + "\nuser"));
+        request.addHeader("Authorization", "Bearer some.jwt.token");
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getPrincipal()).isInstanceOf(AuthenticatedUser.class);
+        AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+        assertThat(principal.getId()).isEqualTo(2L);
+        assertThat(principal.getUsername()).isEqualTo("user");
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+        assertThat(new TrustedGatewayBearerTokenResolver().resolve(request)).isNull();
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    @Test
+    void authenticate_WrongSignature_ShouldReturnNull() {
+        // Given
+        String header = sign("anotherSecretKeyForTrustedGatewayHeaderSigning2024", "2\nADMIN\n" + (NOW.getEpochSecond() + 60) + "\nuser");
+
+        // When & Then
+        assertThat(filter.authenticate(header)).isNull();
+        verifyNoInteractions(userCache);
+    }
+
+    @Test
+    void authenticate_WithoutUserId_ShouldResolveUserFromCache() {
+        // Given
+        AuthenticatedUser cached = new AuthenticatedUser(5L, "legacy", "USER");
+        when(userCache.getByUsername("legacy")).thenReturn(cached);
+        String header = sign(SECRET, "\nUSER\n" + (NOW.getEpochSecond() + 60) + "\nlegacy");
+
+        // When
+        AuthenticatedUser principal = filter.authenticate(header);
+
+        // Then
+        assertThat(principal).isSameAs(cached);
+    }
+
+    @Test
+    void doFilter_WithoutUserIdOfDeletedUser_ShouldFallBackToJwtValidation() throws Exception {
+        // Given
+        when(userCache.getByUsername("deleted")).thenThrow(new NotFoundException("Пользователь не найден"));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(TrustedGatewayFilter.PRINCIPAL_HEADER, sign(SECRET, "\nUSER\n" + (NOW.getEpochSecond() + 60) + "\ndeleted"));
+        request.addHeader("Authorization", "Bearer some.jwt.token");
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(new TrustedGatewayBearerTokenResolver().resolve(request)).isEqualTo("some.jwt.token");
+    }
+
+    @Test
+    void doFilter_WithoutHeader_ShouldLeaveBearerTokenToJwtValidation() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer some.jwt.token");
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(new TrustedGatewayBearerTokenResolver().resolve(request)).isEqualTo("some.jwt.token");
+    }
+
+    /**
+     * Подпись в формате шлюза (TrustedPrincipalSigner)
+     */
+    private static String sign(String secret, String payload) {
+        try {
+            Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+            String encodedPayload = encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return encodedPayload + "." + encoder.encodeToString(mac.doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.hotelbooking.booking.service;
+
+import com.hotelbooking.booking.entity.ArchivedBooking;
+import com.hotelbooking.booking.entity.Booking;
+import com.hotelbooking.booking.entity.User;
+import com.hotelbooking.booking.mapper.BookingMapper;
+import com.hotelbooking.booking.repository.ArchivedBookingRepository;
+import com.hotelbooking.booking.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тесты для BookingArchiveService
+ */
+@ExtendWith(MockitoExtension.class)
+class BookingArchiveServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Mock
+    private BookingMapper bookingMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookingArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        archiveService = new BookingArchiveService(bookingRepository, archivedBookingRepository, bookingMapper,
+                new TransactionTemplate(transactionManager), true, 90, 2, 10);
+    }
+
+    @Test
+    void archiveOldBookings_ShouldMoveBatchesUntilExhausted() {
+        // Given
+        LocalDate cutoff = LocalDate.of(2024, 1, 1);
+        Booking first = booking(1L);
+        Booking second = booking(2L);
+        Booking third = booking(3L);
+
+        when(bookingRepository.findArchivable(any(), eq(cutoff), any()))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+        when(bookingMapper.toArchive(any(Booking.class))).thenReturn(new ArchivedBooking());
+
+        // When
+        int archived = archiveService.archiveOldBookings(cutoff);
+
+        // Then
+        assertThat(archived).isEqualTo(3);
+        verify(archivedBookingRepository, times(2)).saveAll(anyList());
+        verify(bookingRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(bookingRepository).deleteAllByIdInBatch(List.of(3L));
+    }
+
+    @Test
+    void archiveOldBookings_ShouldDoNothing_WhenNoCandidates() {
+        // Given
+        LocalDate cutoff = LocalDate.of(2024, 1, 1);
+        when(bookingRepository.findArchivable(any(), eq(cutoff), any())).thenReturn(List.of());
+
+        // When
+        int archived = archiveService.archiveOldBookings(cutoff);
+
+        // Then
+        assertThat(archived).isZero();
+        verify(archivedBookingRepository, never()).saveAll(anyList());
+    }
+
+    private Booking booking(Long id) {
+        User user = new User(1L, "testuser", "encodedPassword", User.Role.USER, null);
+        return new Booking(id, user, 10L, LocalDate.of(2023, 5, 1), LocalDate.of(2023, 5, 3),
+                Booking.Status.CONFIRMED, null, "req-" + id);
+    }
+}
@@ -1,9 +1,23 @@
 package com.hotelbooking.booking.service;
 
+import com.hotelbooking.booking.dto.AuthRequest;
+import com.hotelbooking.booking.dto.AuthResponse;
+import com.hotelbooking.booking.dto.RefreshTokenRequest;
 import com.hotelbooking.booking.dto.RegisterRequest;
+import com.hotelbooking.booking.dto.UserDto;
 import com.hotelbooking.booking.entity.User;
+import com.hotelbooking.booking.exception.TooManyRequestsException;
 import com.hotelbooking.booking.mapper.UserMapper;
 import com.hotelbooking.booking.repository.UserRepository;
+import com.hotelbooking.booking.security.JwtTokenProvider;
+import com.hotelbooking.booking.security.AuthenticatedUser;
+import com.hotelbooking.booking.security.PasswordHashingExecutor;
+import com.hotelbooking.booking.security.RefreshTokenStore;
+import com.hotelbooking.booking.security.UserCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,13 +25,21 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -35,11 +57,29 @@ class UserServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private RefreshTokenStore refreshTokenStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private static final String JWT_SECRET = "testSecretKeyForJWTTokenSigningWithMinimum256BitsRequiredForSecurity";
+
     private UserService userService;
 
     @BeforeEach
     void setUp() {
-        userService = new UserService(userRepository, userMapper, passwordEncoder, "testSecretKeyForJWTTokenSigningWithMinimum256BitsRequiredForSecurity");
+        PasswordHashingExecutor hashingExecutor = new PasswordHashingExecutor(1, 4, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        userService = userService(hashingExecutor);
+    }
+
+    private UserService userService(PasswordHashingExecutor hashingExecutor) {
+        JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(JWT_SECRET, Duration.ofHours(1));
+        return new UserService(userRepository, userMapper, passwordEncoder, userCache, hashingExecutor,
+                jwtTokenProvider, refreshTokenStore, new TransactionTemplate(transactionManager));
     }
 
     @Test
@@ -73,6 +113,48 @@ class UserServiceTest {
                 .hasMessage("Пользователь с таким именем уже существует");
     }
 
+    @Test
+    void register_ShouldNotOpenTransaction_WhenHashingRejected() {
+        // Given: пул хэширования ждет не дольше 50 мс, BCrypt дольше
+        PasswordHashingExecutor hashingExecutor = new PasswordHashingExecutor(1, 1, Duration.ofMillis(50), new SimpleMeterRegistry());
+        when(passwordEncoder.encode("password123")).thenAnswer(invocation -> {
+            Thread.sleep(1000);
+            return "encodedPassword";
+        });
+
+        // When & Then
+        try {
+            assertThatThrownBy(() -> userService(hashingExecutor).register(new RegisterRequest("testuser", "password123")))
+                    .isInstanceOf(TooManyRequestsException.class);
+            verify(transactionManager, never()).getTransaction(any());
+            verify(userRepository, never()).existsByUsername(anyString());
+        } finally {
+            hashingExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void register_ShouldHashBeforeTransaction() throws NoSuchMethodException {
+        // Given
+        RegisterRequest request = new RegisterRequest("testuser", "password123");
+        when(passwordEncoder.encode("password123")).thenAnswer(invocation -> {
+            verify(transactionManager, never()).getTransaction(any());
+            return "encodedPassword";
+        });
+        when(userRepository.existsByUsername("testuser")).thenReturn(false);
+        when(userRepository.save(any(User.class))).thenReturn(new User(1L, "testuser", "encodedPassword", User.Role.USER, null));
+
+        // When
+        userService.register(request);
+
+        // Then: метод не наследует readOnly-транзакцию класса, сохранение - в своей короткой
+        assertThat(UserService.class.getMethod("register", RegisterRequest.class).getAnnotation(Transactional.class).propagation())
+                .isEqualTo(Propagation.NOT_SUPPORTED);
+        assertThat(UserService.class.getMethod("createUser", UserDto.class).getAnnotation(Transactional.class).propagation())
+                .isEqualTo(Propagation.NOT_SUPPORTED);
+        verify(transactionManager).commit(any());
+    }
+
     @Test
     void authenticate_ShouldReturnToken_WhenCredentialsValid() {
         // Given
@@ -82,8 +164,7 @@ class UserServiceTest {
         when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(true);
 
         // When
-        var response = userService.authenticate(
-                new com.hotelbooking.booking.dto.AuthRequest("testuser", "password123"));
+        var response = userService.authenticate(new AuthRequest("testuser", "password123"));
 
         // Then
         assertThat(response.getUsername()).isEqualTo("testuser");
@@ -100,9 +181,146 @@ class UserServiceTest {
         when(passwordEncoder.matches("wrongpassword", "encodedPassword")).thenReturn(false);
 
         // When & Then
-        assertThatThrownBy(() -> userService.authenticate(
-                new com.hotelbooking.booking.dto.AuthRequest("testuser", "wrongpassword")))
+        assertThatThrownBy(() -> userService.authenticate(new AuthRequest("testuser", "wrongpassword")))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage("Неверное имя пользователя или пароль");
     }
+
+    @Test
+    void authenticate_ShouldIssueTokenWithUserIdClaim() {
+        // Given
+        User user = new User(42L, "testuser", "encodedPassword", User.Role.ADMIN, null);
+
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(true);
+
+        // When
+        var response = userService.authenticate(new AuthRequest("testuser", "password123"));
+
+        // Then
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(JWT_SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(response.getToken())
+                .getBody();
+        assertThat(claims.getSubject()).isEqualTo("testuser");
+        assertThat(claims.get("uid", Long.class)).isEqualTo(42L);
+        assertThat(claims.get("role", String.class)).isEqualTo("ADMIN");
+    }
+
+    @Test
+    void authenticate_ShouldRehashPassword_WhenEncodingIsOutdated() {
+        // Given
+        User user = new User(1L, "testuser", "weakHash", User.Role.USER, null);
+
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("password123", "weakHash")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("weakHash")).thenReturn(true);
+        when(passwordEncoder.encode("password123")).thenReturn("strongHash");
+
+        // When
+        userService.authenticate(new AuthRequest("testuser", "password123"));
+
+        // Then
+        assertThat(user.getPassword()).isEqualTo("strongHash");
+        verify(userRepository).save(user);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void authenticate_ShouldRejectWithTooManyRequests_WhenHashingQueueIsFull() throws InterruptedException {
+        // Given: один поток занят, единственное место в очереди тоже
+        PasswordHashingExecutor hashingExecutor = new PasswordHashingExecutor(1, 1, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        Thread busy = new Thread(() -> hashingExecutor.execute(() -> {
+            started.countDown();
+            release.await();
+            return null;
+        }));
+        busy.start();
+        started.await();
+        Thread queued = new Thread(() -> hashingExecutor.execute(() -> null));
+        queued.start();
+        while (queued.getState() != Thread.State.TIMED_WAITING) {
+            Thread.onSpinWait(); // Ждем, пока задача встанет в очередь и поток начнет ждать результат
+        }
+
+        User user = new User(1L, "testuser", "encodedPassword", User.Role.USER, null);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+
+        // When & Then
+        try {
+            assertThatThrownBy(() -> userService(hashingExecutor).authenticate(new AuthRequest("testuser", "password123")))
+                    .isInstanceOfSatisfying(TooManyRequestsException.class, e -> {
+                        assertThat(e.getStatus().value()).isEqualTo(429);
+                        assertThat(e.getRetryAfterSeconds()).isEqualTo(1);
+                    });
+            verify(passwordEncoder, never()).matches(anyString(), anyString());
+        } finally {
+            release.countDown();
+            busy.join();
+            queued.join();
+            hashingExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void authenticate_ShouldRejectWithTooManyRequests_WhenHashingTimesOut() {
+        // Given
+        PasswordHashingExecutor hashingExecutor = new PasswordHashingExecutor(1, 1, Duration.ofMillis(50), new SimpleMeterRegistry());
+        User user = new User(1L, "testuser", "encodedPassword", User.Role.USER, null);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("password123", "encodedPassword")).thenAnswer(invocation -> {
+            Thread.sleep(1000);
+            return true;
+        });
+
+        // When & Then
+        assertThatThrownBy(() -> userService(hashingExecutor).authenticate(new AuthRequest("testuser", "password123")))
+                .isInstanceOf(TooManyRequestsException.class)
+                .hasMessage("Слишком много запросов аутентификации, повторите позже");
+        hashingExecutor.shutdown();
+    }
+
+    @Test
+    void authenticate_ShouldNotRehash_WhenPasswordInvalid() {
+        // Given
+        User user = new User(1L, "testuser", "weakHash", User.Role.USER, null);
+
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("wrong", "weakHash")).thenReturn(false);
+
+        // When & Then
+        assertThatThrownBy(() -> userService.authenticate(new AuthRequest("testuser", "wrong")))
+                .hasMessage("Неверное имя пользователя или пароль");
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void refresh_ShouldIssueNewTokensWithoutPasswordCheck() {
+        // Given
+        when(refreshTokenStore.consume("old-refresh")).thenReturn(new AuthenticatedUser(1L, "testuser", "USER"));
+        when(refreshTokenStore.issue(any(AuthenticatedUser.class))).thenReturn("new-refresh");
+
+        // When
+        AuthResponse refreshed = userService.refresh(new RefreshTokenRequest("old-refresh"));
+
+        // Then
+        assertThat(refreshed.getToken()).isNotNull();
+        assertThat(refreshed.getUsername()).isEqualTo("testuser");
+        assertThat(refreshed.getRefreshToken()).isEqualTo("new-refresh");
+        verify(passwordEncoder, never()).matches(anyString(), anyString());
+    }
+
+    @Test
+    void refresh_ShouldReject_WhenTokenInvalid() {
+        // Given: токен уже погашен, отозван или просрочен
+        when(refreshTokenStore.consume("used-refresh")).thenReturn(null);
+
+        // When & Then
+        assertThatThrownBy(() -> userService.refresh(new RefreshTokenRequest("used-refresh")))
+                .hasMessage("Недействительный refresh токен");
+    }
 }
@@ -0,0 +1,53 @@
+package com.hotelbooking.common.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+
+import javax.cache.Cache;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Регионы второго уровня кэша Hibernate на Caffeine с размером и временем жизни из SecondLevelCacheProperties
+ * Стандартная фабрика создает недостающие регионы без ограничений (defaults из reference.conf Caffeine),
+ * а файл настроек Caffeine не находится внутри fat jar; здесь каждый регион создается с явной конфигурацией
+ */
+public class CaffeineRegionFactory extends JCacheRegionFactory {
+
+    private final SecondLevelCacheProperties properties;
+
+    public CaffeineRegionFactory(SecondLevelCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected CachingProvider getCachingProvider(Map<String, Object> properties) {
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+    }
+
+    @Override
+    protected Cache<Object, Object> createCache(String regionName) {
+        return getCacheManager().createCache(regionName, configuration(regionName));
+    }
+
+    /**
+     * Конфигурация региона; отметки изменения таблиц для кэша запросов не вытесняются
+     * и не истекают, иначе кэш запросов вернул бы результат, устаревший после записи
+     */
+    CaffeineConfiguration<Object, Object> configuration(String regionName) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStatisticsEnabled(properties.isStatistics());
+        if (RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME.equals(regionName)) {
+            return configuration;
+        }
+        SecondLevelCacheProperties.Region region = properties.getRegions()
+                .getOrDefault(regionName, properties.getDefaults());
+        configuration.setMaximumSize(OptionalLong.of(region.getMaxSize()));
+        configuration.setExpireAfterWrite(OptionalLong.of(region.getExpireAfterWrite().toNanos()));
+        return configuration;
+    }
+}
@@ -0,0 +1,36 @@
+package com.hotelbooking.common.cache;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Второй уровень кэша Hibernate и кэш запросов для сервисов с hibernate-jcache и Caffeine JCache в зависимостях
+ * Кэшируются только сущности с @Cache и запросы с подсказкой org.hibernate.cacheable
+ */
+@AutoConfiguration(beforeName = "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration")
+@ConditionalOnClass({JCacheRegionFactory.class, CaffeineCachingProvider.class, HibernatePropertiesCustomizer.class})
+@ConditionalOnProperty(prefix = "hotelbooking.hibernate-cache", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheAutoConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheHibernatePropertiesCustomizer(SecondLevelCacheProperties properties) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, new CaffeineRegionFactory(properties));
+            // Регионы не описываются заранее: каждый создается фабрикой при первом обращении
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.CREATE.getExternalRepresentation());
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, properties.isQueryCache());
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, properties.isStatistics());
+        };
+    }
+}
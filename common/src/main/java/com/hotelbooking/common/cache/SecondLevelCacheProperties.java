@@ -0,0 +1,43 @@
+package com.hotelbooking.common.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Настройки второго уровня кэша Hibernate (JCache на Caffeine)
+ */
+@Data
+@ConfigurationProperties(prefix = "hotelbooking.hibernate-cache")
+public class SecondLevelCacheProperties {
+
+    /** false - сущности и запросы всегда читаются из БД */
+    private boolean enabled = true;
+
+    /** Кэш результатов запросов с подсказкой org.hibernate.cacheable */
+    private boolean queryCache = true;
+
+    /** Статистика Hibernate (попадания, промахи, запись по регионам) для метрик hibernate.* */
+    private boolean statistics = true;
+
+    /** Настройки регионов, не перечисленных в regions */
+    private Region defaults = new Region();
+
+    /** Настройки по имени региона (@Cache(region), @NaturalIdCache(region), default-query-results-region) */
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Data
+    public static class Region {
+
+        /** Предел числа записей региона */
+        private long maxSize = 10_000;
+
+        /**
+         * Время жизни записи: кэш локален для экземпляра, изменения с других экземпляров видны не позже этого срока
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+    }
+}
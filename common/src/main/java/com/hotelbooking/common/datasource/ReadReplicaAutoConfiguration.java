@@ -0,0 +1,127 @@
+package com.hotelbooking.common.datasource;
+
+import com.hotelbooking.common.pool.HikariPoolInstrumentation;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.function.Supplier;
+
+/**
+ * Основной пул (spring.datasource) и пул реплики (hotelbooking.datasource.replica) за одним DataSource:
+ * read-only транзакции читают из реплики, пока она доступна и не отстает
+ * Создается вместо DataSource из DataSourceAutoConfiguration
+ */
+@AutoConfiguration(beforeName = "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration")
+@ConditionalOnClass({HikariDataSource.class, AbstractRoutingDataSource.class})
+@ConditionalOnProperty(prefix = "hotelbooking.datasource.replica", name = "enabled")
+@EnableConfigurationProperties({DataSourceProperties.class, ReadReplicaProperties.class})
+public class ReadReplicaAutoConfiguration {
+
+    @Bean
+    public ReadReplicaDataSources readReplicaDataSources(DataSourceProperties dataSourceProperties,
+                                                         ReadReplicaProperties properties, Environment environment,
+                                                         ObjectProvider<HikariPoolInstrumentation> poolInstrumentation) {
+        if (!StringUtils.hasText(properties.getUrl())) {
+            throw new IllegalStateException("hotelbooking.datasource.replica.url must be set when the replica is enabled");
+        }
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+
+        HikariDataSource replica = new HikariDataSource();
+        primary.copyStateTo(replica);
+        replica.setPoolName("replica");
+        replica.setJdbcUrl(properties.getUrl());
+        if (StringUtils.hasText(properties.getUsername())) {
+            replica.setUsername(properties.getUsername());
+            replica.setPassword(properties.getPassword());
+        }
+        if (properties.getMaximumPoolSize() != null) {
+            replica.setMaximumPoolSize(properties.getMaximumPoolSize());
+        }
+        replica.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+        replica.setReadOnly(true);
+        // Недоступная реплика не должна мешать старту: чтение пойдет в основной источник
+        replica.setInitializationFailTimeout(-1);
+        // Пулы не являются бинами: метрики по эндпоинтам и адаптивный размер подключаются здесь
+        poolInstrumentation.ifAvailable(instrumentation -> {
+            instrumentation.instrument(primary);
+            instrumentation.instrument(replica);
+        });
+
+        ReadYourWritesTracker readYourWrites = properties.isReadYourWrites()
+            ? new ReadYourWritesTracker(sessionKey(), ReadYourWritesTracker.window(properties))
+            : null;
+        return new ReadReplicaDataSources(primary, replica, properties, readYourWrites);
+    }
+
+    @Bean
+    public DataSource dataSource(ReadReplicaDataSources dataSources) {
+        return new LazyConnectionDataSourceProxy(dataSources.getRouting());
+    }
+
+    @Bean
+    public RoutingTransactionListener routingTransactionListener(ReadReplicaDataSources dataSources) {
+        return new RoutingTransactionListener(dataSources.getRouting(), dataSources.getReadYourWrites(),
+            replicaTransactionBegun());
+    }
+
+    /**
+     * Hibernate не использует второй уровень кэша в транзакциях, читающих из реплики; без Hibernate и Spring ORM - ничего
+     */
+    private static Runnable replicaTransactionBegun() {
+        ClassLoader classLoader = ReadReplicaAutoConfiguration.class.getClassLoader();
+        if (!ClassUtils.isPresent("org.hibernate.Session", classLoader)
+                || !ClassUtils.isPresent("org.springframework.orm.jpa.EntityManagerHolder", classLoader)) {
+            return null;
+        }
+        return ReplicaSessionCacheMode::bypassCache;
+    }
+
+    /**
+     * Пользователь из SecurityContext, если Spring Security есть в сервисе; без него read-your-writes не работает
+     */
+    private static Supplier<String> sessionKey() {
+        if (!ClassUtils.isPresent("org.springframework.security.core.context.SecurityContextHolder",
+                ReadReplicaAutoConfiguration.class.getClassLoader())) {
+            return () -> null;
+        }
+        return new SecurityContextSessionKey();
+    }
+
+    private static final class SecurityContextSessionKey implements Supplier<String> {
+
+        @Override
+        public String get() {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class MetricsConfiguration {
+
+        @Bean
+        public ReadReplicaMetrics readReplicaMetrics(ReadReplicaDataSources dataSources) {
+            return new ReadReplicaMetrics(dataSources);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.hotelbooking.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Пулы основного источника и реплики, проверка реплики и маршрутизация между ними
+ * Сам не является DataSource: единственный DataSource сервиса - обертка над getRouting(), поэтому
+ * обертки над всеми DataSource (datasource-micrometer) оборачивают только его и не считают запросы дважды
+ */
+public class ReadReplicaDataSources implements SmartLifecycle, DisposableBean {
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadWriteRoutingDataSource routing;
+    private final ReadYourWritesTracker readYourWrites;
+
+    /**
+     * @param readYourWrites null - без read-your-writes
+     */
+    public ReadReplicaDataSources(HikariDataSource primary, HikariDataSource replica, ReadReplicaProperties properties,
+                                  ReadYourWritesTracker readYourWrites) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = new ReplicaLagMonitor(replica, properties);
+        this.routing = new ReadWriteRoutingDataSource(primary, replica, lagMonitor, readYourWrites);
+        this.readYourWrites = readYourWrites;
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    public HikariDataSource getReplica() {
+        return replica;
+    }
+
+    public ReplicaLagMonitor getLagMonitor() {
+        return lagMonitor;
+    }
+
+    public ReadWriteRoutingDataSource getRouting() {
+        return routing;
+    }
+
+    /**
+     * null - read-your-writes выключен
+     */
+    public ReadYourWritesTracker getReadYourWrites() {
+        return readYourWrites;
+    }
+
+    @Override
+    public void start() {
+        lagMonitor.start();
+    }
+
+    @Override
+    public void stop() {
+        lagMonitor.stop();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return lagMonitor.isRunning();
+    }
+
+    @Override
+    public void destroy() {
+        lagMonitor.stop();
+        replica.close();
+        primary.close();
+    }
+}
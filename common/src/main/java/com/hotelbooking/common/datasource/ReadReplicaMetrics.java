@@ -0,0 +1,52 @@
+package com.hotelbooking.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Метрики маршрутизации: datasource.routing.connections{target}, datasource.replica.lag,
+ * datasource.replica.available и метрики пула реплики (hikaricp.*{pool=replica}), если их не подключил
+ * HikariPoolInstrumentation; пул основного источника Spring Boot привязывает сам через unwrap маршрутизирующего источника
+ */
+public class ReadReplicaMetrics implements MeterBinder {
+
+    private final ReadReplicaDataSources dataSources;
+
+    public ReadReplicaMetrics(ReadReplicaDataSources dataSources) {
+        this.dataSources = dataSources;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        ReadWriteRoutingDataSource routing = dataSources.getRouting();
+        ReplicaLagMonitor lagMonitor = dataSources.getLagMonitor();
+        HikariDataSource replica = dataSources.getReplica();
+        FunctionCounter.builder("datasource.routing.connections", routing, ReadWriteRoutingDataSource::getPrimaryConnections)
+                .tag("target", "primary")
+                .description("Connections routed to the primary data source")
+                .register(registry);
+        FunctionCounter.builder("datasource.routing.connections", routing, ReadWriteRoutingDataSource::getReplicaConnections)
+                .tag("target", "replica")
+                .description("Connections routed to the read replica")
+                .register(registry);
+        FunctionCounter.builder("datasource.routing.fallback", routing, ReadWriteRoutingDataSource::getFallbackConnections)
+                .description("Read-only connections sent to the primary because the replica failed")
+                .register(registry);
+        TimeGauge.builder("datasource.replica.lag", lagMonitor, TimeUnit.MILLISECONDS, ReplicaLagMonitor::getLagMillis)
+                .description("Replica lag from the last check, -1 if unknown")
+                .register(registry);
+        Gauge.builder("datasource.replica.available", lagMonitor, monitor -> monitor.isAvailable() ? 1 : 0)
+                .description("1 if the replica serves read-only transactions")
+                .register(registry);
+        if (replica.getMetricRegistry() == null && replica.getMetricsTrackerFactory() == null) {
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.hotelbooking.common.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки реплики для чтения: read-only транзакции идут в ее пул, остальные - в основной (spring.datasource)
+ */
+@Data
+@ConfigurationProperties(prefix = "hotelbooking.datasource.replica")
+public class ReadReplicaProperties {
+
+    /** false - один источник spring.datasource, как без реплики */
+    private boolean enabled = false;
+
+    private String url;
+
+    /** Пустое значение - имя и пароль основного источника */
+    private String username;
+
+    private String password;
+
+    /** Размер пула реплики; пустое значение - как у основного пула */
+    private Integer maximumPoolSize;
+
+    /** Ожидание соединения реплики; при отказе чтение сразу уходит в основной источник */
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+
+    /** Отставание, после которого реплика исключается из чтения до следующей успешной проверки */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /** Период проверки доступности и отставания реплики */
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+    /**
+     * Запрос к реплике, возвращающий отставание в миллисекундах (одно число)
+     * Не задан - проверяется только доступность, отставание считается нулевым
+     */
+    private String lagQuery;
+
+    /**
+     * После своей записи пользователь читает из основного источника, пока реплика может ее не содержать
+     * (max-lag + lag-check-interval)
+     */
+    private boolean readYourWrites = true;
+}
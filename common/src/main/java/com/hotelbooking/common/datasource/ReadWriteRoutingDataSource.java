@@ -0,0 +1,149 @@
+package com.hotelbooking.common.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-only транзакции - в реплику, остальное (запись, работа вне транзакции) - в основной источник
+ * Реплика не используется, пока ReplicaLagMonitor считает ее недоступной или отстающей, и для пользователя,
+ * недавно закоммитившего запись (ReadYourWritesTracker)
+ * Флаг read-only транзакции становится известен после ее открытия, а JPA берет соединение при открытии,
+ * поэтому источник выбирает RoutingTransactionListener перед открытием и закрепляет его за транзакцией:
+ * все соединения транзакции идут в один источник, и известно, читает ли она из реплики;
+ * без слушателя (DataSourceTransactionManager) работает LazyConnectionDataSourceProxy:
+ * физическое соединение берется на первом запросе
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    /** Источник открываемой сейчас транзакции, null - транзакция не открывается */
+    private static final ThreadLocal<Target> BEGINNING = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWrites;
+    /** Ключ источника, закрепленного за текущей транзакцией, в TransactionSynchronizationManager */
+    private final Object transactionTargetKey = new Object();
+
+    private final LongAdder primaryConnections = new LongAdder();
+    private final LongAdder replicaConnections = new LongAdder();
+    private final LongAdder fallbackConnections = new LongAdder();
+
+    /**
+     * @param readYourWrites null - без read-your-writes
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                      ReadYourWritesTracker readYourWrites) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+        this.readYourWrites = readYourWrites;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    void beginning(boolean readOnly) {
+        BEGINNING.set(readOnly ? readTarget() : Target.PRIMARY);
+    }
+
+    /**
+     * Транзакция открыта: выбранный при открытии источник закрепляется за ней до завершения
+     */
+    void begun(boolean opened) {
+        Target target = BEGINNING.get();
+        BEGINNING.remove();
+        if (!opened || target == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(transactionTargetKey, target);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(transactionTargetKey);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(transactionTargetKey, target);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(transactionTargetKey);
+            }
+        });
+    }
+
+    /**
+     * Текущая транзакция читает из реплики: ее данные могут отставать на max-lag
+     * При отказе реплики соединение все равно уходит в основной источник, признак остается
+     */
+    public boolean isReplicaTransaction() {
+        return TransactionSynchronizationManager.getResource(transactionTargetKey) == Target.REPLICA;
+    }
+
+    private Target readTarget() {
+        if (!lagMonitor.isAvailable() || (readYourWrites != null && readYourWrites.isPinnedToPrimary())) {
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+
+    @Override
+    protected Target determineCurrentLookupKey() {
+        Target beginning = BEGINNING.get();
+        if (beginning != null) {
+            return beginning;
+        }
+        Target pinned = (Target) TransactionSynchronizationManager.getResource(transactionTargetKey);
+        if (pinned != null) {
+            return pinned;
+        }
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? readTarget() : Target.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() == Target.REPLICA) {
+            try {
+                Connection connection = replica.getConnection();
+                replicaConnections.increment();
+                return connection;
+            } catch (SQLException e) {
+                // Реплика пропала между проверками: чтение не должно падать, пока жив основной источник
+                lagMonitor.markUnavailable(e);
+                fallbackConnections.increment();
+            }
+        }
+        primaryConnections.increment();
+        return primary.getConnection();
+    }
+
+    /**
+     * Соединения, выданные основным источником (включая fallback)
+     */
+    public long getPrimaryConnections() {
+        return primaryConnections.sum();
+    }
+
+    public long getReplicaConnections() {
+        return replicaConnections.sum();
+    }
+
+    /**
+     * Чтения, ушедшие в основной источник из-за отказа реплики при получении соединения
+     */
+    public long getFallbackConnections() {
+        return fallbackConnections.sum();
+    }
+}
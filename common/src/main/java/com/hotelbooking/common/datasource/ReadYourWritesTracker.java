@@ -0,0 +1,56 @@
+package com.hotelbooking.common.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Последние записи по пользователям: после коммита своей записи пользователь в течение окна
+ * читает из основного источника, а не из реплики, которая может ее еще не содержать
+ * Записи хранятся в памяти экземпляра, чтение на другом экземпляре сервиса их не видит
+ */
+public class ReadYourWritesTracker {
+
+    private final Supplier<String> sessionKey;
+    private final Cache<String, Boolean> recentWriters;
+
+    /**
+     * @param sessionKey ключ текущего пользователя, null - запрос без пользователя
+     */
+    public ReadYourWritesTracker(Supplier<String> sessionKey, Duration window) {
+        this.sessionKey = sessionKey;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    /**
+     * Окно read-your-writes: реплика может отставать на max-lag, и это выясняется не позже следующей проверки
+     */
+    public static Duration window(ReadReplicaProperties properties) {
+        return properties.getMaxLag().plus(properties.getLagCheckInterval());
+    }
+
+    /**
+     * Ключ текущего пользователя или null
+     */
+    public String currentKey() {
+        return sessionKey.get();
+    }
+
+    public void recordWrite(String key) {
+        if (key != null) {
+            recentWriters.put(key, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Текущий пользователь недавно писал и должен читать из основного источника
+     */
+    public boolean isPinnedToPrimary() {
+        String key = currentKey();
+        return key != null && recentWriters.getIfPresent(key) != null;
+    }
+}
@@ -0,0 +1,121 @@
+package com.hotelbooking.common.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Периодическая проверка реплики: доступность и отставание (lag-query)
+ * Реплика участвует в чтении, только пока последняя проверка успешна и отставание не больше max-lag;
+ * до первой проверки чтение идет в основной источник
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    /** Отставание неизвестно: реплика недоступна или еще не проверялась */
+    public static final long UNKNOWN_LAG = -1;
+
+    private final DataSource replica;
+    private final ReadReplicaProperties properties;
+
+    private volatile long lagMillis = UNKNOWN_LAG;
+    private volatile boolean available;
+    private volatile ScheduledExecutorService executor;
+
+    public ReplicaLagMonitor(DataSource replica, ReadReplicaProperties properties) {
+        this.replica = replica;
+        this.properties = properties;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Отставание по последней проверке в миллисекундах или UNKNOWN_LAG
+     */
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    /**
+     * Проверить реплику сейчас
+     */
+    public void check() {
+        try (Connection connection = replica.getConnection()) {
+            update(measureLag(connection), null);
+        } catch (SQLException | RuntimeException e) {
+            update(UNKNOWN_LAG, e);
+        }
+    }
+
+    /**
+     * Соединение с репликой не получено при маршрутизации: не ждать следующей проверки
+     */
+    public void markUnavailable(Exception cause) {
+        update(UNKNOWN_LAG, cause);
+    }
+
+    private long measureLag(Connection connection) throws SQLException {
+        if (properties.getLagQuery() == null || properties.getLagQuery().isBlank()) {
+            int timeoutSeconds = (int) Math.max(1, properties.getConnectionTimeout().toSeconds());
+            if (!connection.isValid(timeoutSeconds)) {
+                throw new SQLException("Replica connection is not valid");
+            }
+            return 0;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(properties.getLagQuery())) {
+            // NULL (например, на PostgreSQL вне режима восстановления) - отставания нет
+            return rs.next() ? Math.max(0, rs.getLong(1)) : 0;
+        }
+    }
+
+    private synchronized void update(long lag, Exception cause) {
+        boolean wasAvailable = available;
+        lagMillis = lag;
+        available = lag != UNKNOWN_LAG && lag <= properties.getMaxLag().toMillis();
+        if (wasAvailable && !available) {
+            if (cause != null) {
+                log.warn("Read replica excluded from reads: {}", cause.toString());
+            } else {
+                log.warn("Read replica excluded from reads: lag {} ms exceeds max-lag {}", lag, properties.getMaxLag());
+            }
+        } else if (!wasAvailable && available) {
+            log.info("Read replica included in reads, lag {} ms", lag);
+        }
+    }
+
+    /**
+     * Запустить периодическую проверку, первая - сразу
+     */
+    public void start() {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, properties.getLagCheckInterval().toMillis());
+        scheduler.scheduleWithFixedDelay(this::check, 0, interval, TimeUnit.MILLISECONDS);
+        executor = scheduler;
+    }
+
+    public void stop() {
+        ScheduledExecutorService scheduler = executor;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            executor = null;
+        }
+    }
+
+    public boolean isRunning() {
+        return executor != null;
+    }
+}
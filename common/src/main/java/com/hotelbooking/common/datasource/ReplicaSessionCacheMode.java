@@ -0,0 +1,61 @@
+package com.hotelbooking.common.datasource;
+
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.CacheStoreMode;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+/**
+ * Сессия Hibernate транзакции, читающей из реплики, не работает со вторым уровнем кэша (CacheMode.IGNORE)
+ * Реплика может отставать на max-lag: строка или результат запроса из нее, положенные в кэш после сброса
+ * записью, отдавались бы до истечения срока региона, и ни max-lag, ни read-your-writes бы не соблюдались
+ * GET не подходит: при промахе кэша запросов Hibernate кладет результат и в этом режиме
+ * Подключается ReadReplicaAutoConfiguration, если в сервисе есть Hibernate и Spring ORM
+ */
+final class ReplicaSessionCacheMode {
+
+    private static final String STORE_MODE = SpecHints.HINT_SPEC_CACHE_STORE_MODE;
+    private static final String RETRIEVE_MODE = SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE;
+
+    private ReplicaSessionCacheMode() {
+    }
+
+    /**
+     * Отключить кэш сессиям, открытым JpaTransactionManager для текущей транзакции
+     */
+    static void bypassCache() {
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (resource instanceof EntityManagerHolder holder) {
+                bypassCache(holder.getEntityManager().unwrap(Session.class));
+            }
+        }
+    }
+
+    private static void bypassCache(Session session) {
+        CacheMode previousMode = session.getCacheMode();
+        Map<String, Object> properties = session.getProperties();
+        Object previousStoreMode = properties.getOrDefault(STORE_MODE, CacheStoreMode.USE);
+        Object previousRetrieveMode = properties.getOrDefault(RETRIEVE_MODE, CacheRetrieveMode.USE);
+        session.setCacheMode(CacheMode.IGNORE);
+        // find() берет режим из свойств JPA, а не из CacheMode сессии
+        session.setProperty(STORE_MODE, CacheStoreMode.BYPASS);
+        session.setProperty(RETRIEVE_MODE, CacheRetrieveMode.BYPASS);
+        // С open-in-view сессия переживает транзакцию: следующая может читать из основного источника
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (session.isOpen()) {
+                    session.setCacheMode(previousMode);
+                    session.setProperty(STORE_MODE, previousStoreMode);
+                    session.setProperty(RETRIEVE_MODE, previousRetrieveMode);
+                }
+            }
+        });
+    }
+}
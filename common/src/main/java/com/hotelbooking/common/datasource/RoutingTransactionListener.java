@@ -0,0 +1,68 @@
+package com.hotelbooking.common.datasource;
+
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Выбирает источник ReadWriteRoutingDataSource перед открытием транзакции и закрепляет его за ней,
+ * отмечает коммиты пишущих транзакций для read-your-writes
+ * Обертки DataSource (datasource-micrometer читает getMetaData при получении соединения) берут физическое
+ * соединение еще при открытии, до того как флаг транзакции попадает в TransactionSynchronizationManager
+ * Spring Boot добавляет бин во все менеджеры транзакций (TransactionManagerCustomizers)
+ */
+public class RoutingTransactionListener implements TransactionExecutionListener {
+
+    private final ReadWriteRoutingDataSource routing;
+    private final ReadYourWritesTracker readYourWrites;
+    private final Runnable replicaTransactionBegun;
+
+    /**
+     * @param readYourWrites          null - без read-your-writes
+     * @param replicaTransactionBegun вызывается после открытия транзакции, читающей из реплики; null - не нужен
+     */
+    public RoutingTransactionListener(ReadWriteRoutingDataSource routing, ReadYourWritesTracker readYourWrites,
+                                      Runnable replicaTransactionBegun) {
+        this.routing = routing;
+        this.readYourWrites = readYourWrites;
+        this.replicaTransactionBegun = replicaTransactionBegun;
+    }
+
+    @Override
+    public void beforeBegin(TransactionExecution transaction) {
+        routing.beginning(transaction.isReadOnly());
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        routing.begun(beginFailure == null);
+        if (beginFailure != null) {
+            return;
+        }
+        if (!transaction.isReadOnly()) {
+            trackWrite();
+        } else if (replicaTransactionBegun != null && routing.isReplicaTransaction()) {
+            replicaTransactionBegun.run();
+        }
+    }
+
+    /**
+     * Пишущая транзакция: после коммита пользователь на время окна привязывается к основному источнику
+     */
+    private void trackWrite() {
+        if (readYourWrites == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        String key = readYourWrites.currentKey();
+        if (key == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWrites.recordWrite(key);
+            }
+        });
+    }
+}
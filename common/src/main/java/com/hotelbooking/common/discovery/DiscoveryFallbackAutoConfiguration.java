@@ -0,0 +1,66 @@
+package com.hotelbooking.common.discovery;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.cloud.loadbalancer.cache.LoadBalancerCacheManager;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Clock;
+
+/**
+ * Резервный источник экземпляров для lb:// вызовов: снимок реестра на диске и статический файл
+ * Сервис маршрутизирует запросы сразу после старта и при недоступной Eureka
+ * С hotelbooking.discovery.push изменения реестра приходят от eureka-server сразу, а не опросом
+ * Файлы пишутся собственным ObjectMapper: их формат не зависит от настроек Jackson приложения
+ */
+@AutoConfiguration
+@ConditionalOnClass(ServiceInstanceListSupplier.class)
+@ConditionalOnProperty(prefix = "hotelbooking.discovery", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties({DiscoveryFallbackProperties.class, RegistryPushProperties.class})
+@LoadBalancerClients(defaultConfiguration = DiscoveryFallbackLoadBalancerConfiguration.class)
+public class DiscoveryFallbackAutoConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "hotelbooking.discovery.snapshot", name = "enabled", matchIfMissing = true)
+    public RegistrySnapshot registrySnapshot(DiscoveryFallbackProperties properties) {
+        DiscoveryFallbackProperties.Snapshot snapshot = properties.getSnapshot();
+        return new RegistrySnapshot(Path.of(snapshot.getPath()), snapshot.getMaxAge(),
+            new ObjectMapper(), Clock.systemUTC());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "hotelbooking.discovery", name = "static-file")
+    public StaticServiceInstances staticServiceInstances(DiscoveryFallbackProperties properties) {
+        return new StaticServiceInstances(Path.of(properties.getStaticFile()), new ObjectMapper());
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "hotelbooking.discovery.push", name = "enabled")
+    static class PushConfiguration {
+
+        @Bean
+        public RegistryPushOverlay registryPushOverlay(RegistryPushProperties properties) {
+            return new RegistryPushOverlay(properties.getOverlayTtl(), Clock.systemUTC());
+        }
+
+        @Bean
+        public RegistryEventSubscriber registryEventSubscriber(RegistryPushProperties properties,
+                                                               RegistryPushOverlay overlay,
+                                                               BeanFactory beanFactory) {
+            // Кэш балансировщика объявлен с autowireCandidate = false и не внедряется параметром,
+            // поэтому ищем его так же, как ServiceInstanceListSupplierBuilder.withCaching()
+            LoadBalancerCacheManager cacheManager = beanFactory.getBeanProvider(LoadBalancerCacheManager.class).getIfAvailable();
+            return new RegistryEventSubscriber(URI.create(properties.getUrl()), properties.getReconnectDelay(),
+                overlay, cacheManager, new ObjectMapper());
+        }
+    }
+}
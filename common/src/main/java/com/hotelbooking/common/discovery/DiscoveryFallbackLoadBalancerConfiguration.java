@@ -0,0 +1,79 @@
+package com.hotelbooking.common.discovery;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ConditionalOnBlockingDiscoveryEnabled;
+import org.springframework.cloud.client.ConditionalOnReactiveDiscoveryEnabled;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Конфигурация дочернего контекста LoadBalancer (defaultConfiguration): та же цепочка поставщиков,
+ * что у LoadBalancerClientConfiguration по умолчанию, но перед кэшем пустой ответ discovery заменяется
+ * резервным источником экземпляров, а затем накладываются уведомления eureka-server
+ * (снятый экземпляр не возвращается из снимка)
+ * Не должна попадать под component scan приложений
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "spring.cloud.loadbalancer.configurations", havingValue = "default", matchIfMissing = true)
+public class DiscoveryFallbackLoadBalancerConfiguration {
+
+    private static ServiceInstanceListSupplier withPushOverlay(ServiceInstanceListSupplier delegate,
+                                                               ObjectProvider<RegistryPushOverlay> pushOverlay) {
+        RegistryPushOverlay overlay = pushOverlay.getIfAvailable();
+        return overlay != null ? new PushOverlayServiceInstanceListSupplier(delegate, overlay) : delegate;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnReactiveDiscoveryEnabled
+    @Order(1)
+    static class ReactiveSupportConfiguration {
+
+        @Bean
+        @ConditionalOnBean(ReactiveDiscoveryClient.class)
+        @ConditionalOnMissingBean
+        public ServiceInstanceListSupplier fallbackDiscoveryClientServiceInstanceListSupplier(
+                ConfigurableApplicationContext context,
+                ObjectProvider<StaticServiceInstances> staticInstances,
+                ObjectProvider<RegistrySnapshot> snapshot,
+                ObjectProvider<RegistryPushOverlay> pushOverlay) {
+            return ServiceInstanceListSupplier.builder()
+                .withDiscoveryClient()
+                .with((ctx, delegate) -> new FallbackServiceInstanceListSupplier(delegate,
+                    staticInstances.getIfAvailable(), snapshot.getIfAvailable()))
+                .with((ctx, delegate) -> withPushOverlay(delegate, pushOverlay))
+                .withCaching()
+                .build(context);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnBlockingDiscoveryEnabled
+    @Order(2)
+    static class BlockingSupportConfiguration {
+
+        @Bean
+        @ConditionalOnBean(DiscoveryClient.class)
+        @ConditionalOnMissingBean
+        public ServiceInstanceListSupplier fallbackDiscoveryClientServiceInstanceListSupplier(
+                ConfigurableApplicationContext context,
+                ObjectProvider<StaticServiceInstances> staticInstances,
+                ObjectProvider<RegistrySnapshot> snapshot,
+                ObjectProvider<RegistryPushOverlay> pushOverlay) {
+            return ServiceInstanceListSupplier.builder()
+                .withBlockingDiscoveryClient()
+                .with((ctx, delegate) -> new FallbackServiceInstanceListSupplier(delegate,
+                    staticInstances.getIfAvailable(), snapshot.getIfAvailable()))
+                .with((ctx, delegate) -> withPushOverlay(delegate, pushOverlay))
+                .withCaching()
+                .build(context);
+        }
+    }
+}
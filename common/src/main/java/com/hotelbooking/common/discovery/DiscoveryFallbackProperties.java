@@ -0,0 +1,36 @@
+package com.hotelbooking.common.discovery;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки резервного источника экземпляров сервисов на случай, когда Eureka недоступна
+ */
+@Data
+@ConfigurationProperties(prefix = "hotelbooking.discovery")
+public class DiscoveryFallbackProperties {
+
+    private boolean enabled = true;
+
+    /** Последний известный состав сервисов на диске: после рестарта доступен до первого ответа Eureka */
+    private Snapshot snapshot = new Snapshot();
+
+    /**
+     * Файл со статическим списком экземпляров ({"hotel-service": ["http://localhost:8081"]})
+     * для окружений без Eureka; перечитывается при изменении
+     */
+    private String staticFile;
+
+    @Data
+    public static class Snapshot {
+
+        private boolean enabled = true;
+
+        private String path = "./data/discovery/registry-snapshot.json";
+
+        /** Записи старше не используются: адреса могли давно смениться */
+        private Duration maxAge = Duration.ofDays(7);
+    }
+}
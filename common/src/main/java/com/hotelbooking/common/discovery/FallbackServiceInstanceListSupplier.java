@@ -0,0 +1,69 @@
+package com.hotelbooking.common.discovery;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Экземпляры из discovery, а если он ничего не вернул (Eureka недоступна, реестр еще не получен) -
+ * из статического файла или снимка последнего известного состава
+ * Как только discovery снова отвечает, используется его ответ, а снимок обновляется
+ */
+@Slf4j
+public class FallbackServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier {
+
+    private final StaticServiceInstances staticInstances;
+    private final RegistrySnapshot snapshot;
+    private final AtomicBoolean fallbackActive = new AtomicBoolean();
+
+    /**
+     * @param staticInstances статический файл, может быть null
+     * @param snapshot        снимок реестра, может быть null
+     */
+    public FallbackServiceInstanceListSupplier(ServiceInstanceListSupplier delegate,
+                                               StaticServiceInstances staticInstances,
+                                               RegistrySnapshot snapshot) {
+        super(delegate);
+        this.staticInstances = staticInstances;
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return delegate.get()
+            .onErrorResume(e -> {
+                log.debug("Discovery failed for {}: {}", getServiceId(), e.getMessage());
+                return Flux.just(List.of());
+            })
+            .map(this::withFallback);
+    }
+
+    private List<ServiceInstance> withFallback(List<ServiceInstance> discovered) {
+        String serviceId = getServiceId();
+        if (!discovered.isEmpty()) {
+            if (snapshot != null) {
+                snapshot.update(serviceId, discovered);
+            }
+            if (fallbackActive.compareAndSet(true, false)) {
+                log.info("Discovery returned {} instances of {}, fallback is no longer used", discovered.size(), serviceId);
+            }
+            return discovered;
+        }
+
+        String source = "static file";
+        List<ServiceInstance> fallback = staticInstances != null ? staticInstances.getInstances(serviceId) : List.of();
+        if (fallback.isEmpty() && snapshot != null) {
+            source = "registry snapshot";
+            fallback = snapshot.getInstances(serviceId);
+        }
+        if (!fallback.isEmpty() && fallbackActive.compareAndSet(false, true)) {
+            log.warn("Discovery returned no instances of {}, using {} from {}", serviceId, fallback.size(), source);
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,26 @@
+package com.hotelbooking.common.discovery;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Ответ discovery с учетом уведомлений eureka-server, которые локальная копия реестра еще не получила
+ */
+public class PushOverlayServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier {
+
+    private final RegistryPushOverlay overlay;
+
+    public PushOverlayServiceInstanceListSupplier(ServiceInstanceListSupplier delegate, RegistryPushOverlay overlay) {
+        super(delegate);
+        this.overlay = overlay;
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return delegate.get().map(instances -> overlay.apply(getServiceId(), instances));
+    }
+}
@@ -0,0 +1,22 @@
+package com.hotelbooking.common.discovery;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Изменение реестра из потока eureka-server: регистрация (в том числе смена статуса) или снятие экземпляра
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record RegistryEvent(String action, String app, String instanceId, String host, Integer port,
+                            Boolean secure, String status) {
+
+    public static final String REGISTERED = "REGISTERED";
+    public static final String CANCELLED = "CANCELLED";
+    public static final String STATUS_UP = "UP";
+
+    /**
+     * Экземпляр можно выбирать: зарегистрирован со статусом UP
+     */
+    public boolean isUp() {
+        return REGISTERED.equals(action) && STATUS_UP.equals(status) && host != null && port != null;
+    }
+}
@@ -0,0 +1,163 @@
+package com.hotelbooking.common.discovery;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cloud.loadbalancer.core.CachingServiceInstanceListSupplier;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Читает поток изменений реестра eureka-server (Server-Sent Events) в отдельном потоке
+ * На каждое событие обновляет RegistryPushOverlay и сбрасывает кэш экземпляров балансировщика для сервиса,
+ * так что следующий lb:// запрос видит новый экземпляр сразу, а не через один-два интервала опроса Eureka
+ */
+@Slf4j
+public class RegistryEventSubscriber implements SmartLifecycle {
+
+    private static final String EVENT_NAME = "registry";
+
+    private final URI url;
+    private final Duration reconnectDelay;
+    private final RegistryPushOverlay overlay;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+
+    private volatile boolean running;
+    private volatile Thread thread;
+    private volatile Stream<String> currentStream;
+
+    /**
+     * @param cacheManager кэш поставщиков экземпляров балансировщика, может быть null
+     */
+    public RegistryEventSubscriber(URI url, Duration reconnectDelay, RegistryPushOverlay overlay,
+                                   CacheManager cacheManager, ObjectMapper objectMapper) {
+        this.url = url;
+        this.reconnectDelay = reconnectDelay;
+        this.overlay = overlay;
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "registry-events");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Stream<String> stream = currentStream;
+        if (stream != null) {
+            stream.close();
+        }
+        Thread current = thread;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        boolean failureLogged = false;
+        while (running) {
+            try {
+                // Сервер закрывает поток по таймауту подписки - переподключаемся сразу
+                consume();
+                failureLogged = false;
+                continue;
+            } catch (IOException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                if (!failureLogged) {
+                    log.warn("Registry events stream {} is unavailable, retrying every {}: {}", url, reconnectDelay, e.toString());
+                    failureLogged = true;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                Thread.sleep(reconnectDelay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void consume() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(url).header("Accept", "text/event-stream").GET().build();
+        HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+        try (Stream<String> lines = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IOException("HTTP " + response.statusCode());
+            }
+            currentStream = lines;
+            log.debug("Subscribed to registry events at {}", url);
+            String eventName = null;
+            StringBuilder data = new StringBuilder();
+            Iterator<String> iterator = lines.iterator();
+            while (running && iterator.hasNext()) {
+                String line = iterator.next();
+                if (line.isEmpty()) {
+                    if (data.length() > 0 && (eventName == null || EVENT_NAME.equals(eventName))) {
+                        onData(data.toString());
+                    }
+                    eventName = null;
+                    data.setLength(0);
+                } else if (line.startsWith("event:")) {
+                    eventName = line.substring(6).trim();
+                } else if (line.startsWith("data:")) {
+                    if (data.length() > 0) {
+                        data.append('\n');
+                    }
+                    data.append(line.substring(5).trim());
+                }
+                // Строки-комментарии (":heartbeat") только поддерживают соединение
+            }
+        } finally {
+            currentStream = null;
+        }
+    }
+
+    void onData(String json) {
+        RegistryEvent event;
+        try {
+            event = objectMapper.readValue(json, RegistryEvent.class);
+        } catch (IOException e) {
+            log.debug("Ignoring malformed registry event {}: {}", json, e.getMessage());
+            return;
+        }
+        String serviceId = overlay.onEvent(event);
+        if (serviceId == null) {
+            return;
+        }
+        log.debug("Registry event {} {} {} ({})", event.action(), serviceId, event.instanceId(), event.status());
+        if (cacheManager != null) {
+            Cache cache = cacheManager.getCache(CachingServiceInstanceListSupplier.SERVICE_INSTANCE_CACHE_NAME);
+            if (cache != null) {
+                cache.evict(serviceId);
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.hotelbooking.common.discovery;
+
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Изменения реестра, о которых пришло уведомление, но которые еще не видны в локальной копии реестра Eureka
+ * Накладываются на ответ discovery: новые UP-экземпляры добавляются, снятые и не-UP убираются.
+ * Запись живет overlayTtl, после чего discovery уже отражает изменение сам
+ */
+public class RegistryPushOverlay {
+
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<String, Map<String, Entry>> services = new ConcurrentHashMap<>();
+
+    public RegistryPushOverlay(Duration ttl, Clock clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * Запомнить изменение; возвращает ID сервиса (как у балансировщика) или null, если событие неполное
+     */
+    public String onEvent(RegistryEvent event) {
+        if (event.app() == null || event.instanceId() == null) {
+            return null;
+        }
+        String serviceId = event.app().toLowerCase(Locale.ROOT);
+        ServiceInstance instance = event.isUp()
+            ? new DefaultServiceInstance(event.instanceId(), serviceId, event.host(), event.port(),
+                Boolean.TRUE.equals(event.secure()))
+            : null;
+        services.computeIfAbsent(serviceId, id -> new ConcurrentHashMap<>())
+            .put(event.instanceId(), new Entry(instance, clock.millis() + ttl.toMillis()));
+        return serviceId;
+    }
+
+    public List<ServiceInstance> apply(String serviceId, List<ServiceInstance> discovered) {
+        Map<String, Entry> entries = services.get(serviceId);
+        if (entries == null) {
+            return discovered;
+        }
+        long now = clock.millis();
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        if (entries.isEmpty()) {
+            return discovered;
+        }
+
+        List<ServiceInstance> result = new ArrayList<>(discovered.size() + entries.size());
+        for (ServiceInstance instance : discovered) {
+            if (!entries.containsKey(instance.getInstanceId())) {
+                result.add(instance);
+            }
+        }
+        for (Entry entry : entries.values()) {
+            if (entry.instance() != null) {
+                result.add(entry.instance());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * instance == null - экземпляр снят или не в статусе UP
+     */
+    private record Entry(ServiceInstance instance, long expiresAt) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.hotelbooking.common.discovery;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Подписка на поток изменений реестра eureka-server (/registry/events)
+ */
+@Data
+@ConfigurationProperties(prefix = "hotelbooking.discovery.push")
+public class RegistryPushProperties {
+
+    private boolean enabled = false;
+
+    private String url = "http://localhost:8761/registry/events";
+
+    /**
+     * Сколько изменение из уведомления накладывается на ответ discovery:
+     * за это время опрос Eureka (fetch-интервал плюс кэш ответов сервера) успевает его получить
+     */
+    private Duration overlayTtl = Duration.ofMinutes(2);
+
+    /** Пауза перед повторным подключением после обрыва потока */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+}
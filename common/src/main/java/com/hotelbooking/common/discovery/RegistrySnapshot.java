@@ -0,0 +1,147 @@
+package com.hotelbooking.common.discovery;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Последний известный состав сервисов, сохраняемый на диск
+ * Читается один раз при старте; запись идет в фоновом потоке при изменении состава и при остановке
+ */
+@Slf4j
+public class RegistrySnapshot implements DisposableBean {
+
+    private static final TypeReference<Map<String, ServiceEntry>> FILE_TYPE = new TypeReference<>() {
+    };
+
+    private final Path file;
+    private final Duration maxAge;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final Map<String, ServiceEntry> services = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushPending = new AtomicBoolean();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "registry-snapshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RegistrySnapshot(Path file, Duration maxAge, ObjectMapper objectMapper, Clock clock) {
+        this.file = file;
+        this.maxAge = maxAge;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        load();
+    }
+
+    /**
+     * Экземпляры сервиса из снимка; пустой список, если записи нет или она старше maxAge
+     */
+    public List<ServiceInstance> getInstances(String serviceId) {
+        ServiceEntry entry = services.get(serviceId);
+        if (entry == null || clock.millis() - entry.updatedAt() > maxAge.toMillis()) {
+            return List.of();
+        }
+        return entry.instances().stream()
+            .map(instance -> instance.toServiceInstance(serviceId))
+            .toList();
+    }
+
+    /**
+     * Запомнить ответ discovery; файл перезаписывается, только если состав изменился
+     */
+    public void update(String serviceId, List<ServiceInstance> instances) {
+        List<SnapshotInstance> current = instances.stream().map(SnapshotInstance::from).toList();
+        ServiceEntry previous = services.put(serviceId, new ServiceEntry(clock.millis(), current));
+        if (previous == null || !previous.instances().equals(current)) {
+            scheduleFlush();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        // Сохраняем свежие метки времени, чтобы снимок не устарел раньше срока
+        scheduleFlush();
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void scheduleFlush() {
+        if (services.isEmpty() || !flushPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            writer.execute(this::flush);
+        } catch (RuntimeException e) {
+            flushPending.set(false);
+            log.debug("Registry snapshot writer is stopped: {}", e.getMessage());
+        }
+    }
+
+    void flush() {
+        flushPending.set(false);
+        try {
+            Path target = file.toAbsolutePath();
+            Files.createDirectories(target.getParent());
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), new TreeMap<>(services));
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write registry snapshot to {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            services.putAll(objectMapper.readValue(file.toFile(), FILE_TYPE));
+            log.info("Loaded registry snapshot from {}: {}", file, services.keySet());
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable registry snapshot {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Состав сервиса и время последнего подтверждения от discovery (epoch millis)
+     */
+    record ServiceEntry(long updatedAt, List<SnapshotInstance> instances) {
+    }
+
+    record SnapshotInstance(String instanceId, String host, int port, boolean secure, Map<String, String> metadata) {
+
+        static SnapshotInstance from(ServiceInstance instance) {
+            Map<String, String> metadata = instance.getMetadata() == null ? Map.of() : new TreeMap<>(instance.getMetadata());
+            return new SnapshotInstance(instance.getInstanceId(), instance.getHost(), instance.getPort(),
+                instance.isSecure(), metadata);
+        }
+
+        ServiceInstance toServiceInstance(String serviceId) {
+            return new DefaultServiceInstance(instanceId, serviceId, host, port, secure,
+                metadata == null ? Map.of() : metadata);
+        }
+    }
+}
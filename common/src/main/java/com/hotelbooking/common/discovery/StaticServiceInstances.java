@@ -0,0 +1,92 @@
+package com.hotelbooking.common.discovery;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Статический список экземпляров из JSON-файла: {"hotel-service": ["http://localhost:8081"]}
+ * Файл перечитывается при изменении времени модификации, так что состав можно менять без рестарта
+ */
+@Slf4j
+public class StaticServiceInstances {
+
+    private static final TypeReference<Map<String, List<String>>> FILE_TYPE = new TypeReference<>() {
+    };
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private volatile Loaded loaded = new Loaded(null, Map.of());
+
+    public StaticServiceInstances(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    public List<ServiceInstance> getInstances(String serviceId) {
+        return current().instances().getOrDefault(serviceId, List.of());
+    }
+
+    private Loaded current() {
+        Loaded snapshot = loaded;
+        FileTime modified;
+        try {
+            modified = Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return snapshot;
+        }
+        if (modified.equals(snapshot.modified())) {
+            return snapshot;
+        }
+        synchronized (this) {
+            if (!modified.equals(loaded.modified())) {
+                loaded = read(modified);
+            }
+            return loaded;
+        }
+    }
+
+    private Loaded read(FileTime modified) {
+        try {
+            Map<String, List<ServiceInstance>> instances = new HashMap<>();
+            objectMapper.readValue(file.toFile(), FILE_TYPE).forEach((serviceId, uris) ->
+                instances.put(serviceId, toInstances(serviceId, uris)));
+            log.info("Loaded static service instances from {}: {}", file, instances.keySet());
+            return new Loaded(modified, instances);
+        } catch (IOException | IllegalArgumentException e) {
+            // Оставляем прежний состав, пока файл не исправят
+            log.warn("Ignoring invalid static instances file {}: {}", file, e.getMessage());
+            return new Loaded(modified, loaded.instances());
+        }
+    }
+
+    private static List<ServiceInstance> toInstances(String serviceId, List<String> uris) {
+        List<ServiceInstance> instances = new ArrayList<>(uris.size());
+        for (String value : uris) {
+            URI uri = URI.create(value);
+            if (uri.getHost() == null) {
+                throw new IllegalArgumentException("no host in " + value + " for " + serviceId);
+            }
+            boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+            int port = uri.getPort() != -1 ? uri.getPort() : secure ? 443 : 80;
+            instances.add(new DefaultServiceInstance(serviceId + "/" + uri.getHost() + ":" + port,
+                serviceId, uri.getHost(), port, secure));
+        }
+        return List.copyOf(instances);
+    }
+
+    private record Loaded(FileTime modified, Map<String, List<ServiceInstance>> instances) {
+    }
+}
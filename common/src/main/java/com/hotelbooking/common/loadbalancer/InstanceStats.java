@@ -0,0 +1,162 @@
+package com.hotelbooking.common.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Статистика одного экземпляра сервиса: EWMA задержки с реакцией на пики и число незавершенных запросов
+ * Стоимость выбора = задержка * (незавершенные + 1). Задержка, выше текущей оценки,
+ * принимается сразу (peak), ниже - сглаживается; без новых замеров оценка затухает к нулю,
+ * так что медленный экземпляр со временем снова получает пробные запросы.
+ * Здесь же хранятся ошибки подряд и время исключения для OutlierDetector.
+ */
+public class InstanceStats {
+
+    /** Значение ejectedUntilNanos экземпляра, который ни разу не исключался */
+    private static final long NEVER_EJECTED = Long.MIN_VALUE;
+
+    /** Стоимость экземпляра без замеров, но с незавершенными запросами - хуже любого измеренного */
+    private static final double UNMEASURED_BUSY_PENALTY = 1e15;
+
+    private final double decayNanos;
+    private final long staleOutstandingNanos;
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    private double ewmaNanos;
+    private long lastObservationNanos;
+    private volatile long lastActivityNanos;
+
+    private int consecutiveFailures;
+    private int ejections;
+    private volatile long ejectedUntilNanos;
+
+    public InstanceStats(long decayNanos, long staleOutstandingNanos, long nowNanos) {
+        this.decayNanos = decayNanos;
+        this.staleOutstandingNanos = staleOutstandingNanos;
+        this.lastObservationNanos = nowNanos;
+        this.lastActivityNanos = nowNanos;
+        this.ejectedUntilNanos = NEVER_EJECTED;
+    }
+
+    public void requestStarted(long nowNanos) {
+        outstanding.incrementAndGet();
+        lastActivityNanos = nowNanos;
+    }
+
+    public void requestFinished(long latencyNanos, long nowNanos) {
+        if (outstanding.decrementAndGet() < 0) {
+            outstanding.set(0);
+        }
+        lastActivityNanos = nowNanos;
+        if (latencyNanos >= 0) {
+            observe(latencyNanos, nowNanos);
+        }
+    }
+
+    public synchronized void observe(long latencyNanos, long nowNanos) {
+        double weight = weight(nowNanos);
+        double decayed = ewmaNanos * weight;
+        // Вес нового замера растет со временем, прошедшим с предыдущего: EWMA по времени, а не по числу замеров
+        ewmaNanos = latencyNanos > decayed ? latencyNanos : decayed + latencyNanos * (1 - weight);
+        lastObservationNanos = nowNanos;
+    }
+
+    /**
+     * Стоимость отправки очередного запроса на этот экземпляр
+     */
+    public double cost(long nowNanos) {
+        int active = outstanding.get();
+        if (active > 0 && nowNanos - lastActivityNanos > staleOutstandingNanos) {
+            outstanding.set(0);
+            active = 0;
+        }
+        double latency;
+        synchronized (this) {
+            latency = decayedEwma(nowNanos);
+        }
+        if (latency == 0) {
+            return active == 0 ? 0 : UNMEASURED_BUSY_PENALTY + active;
+        }
+        return latency * (active + 1);
+    }
+
+    /**
+     * Успешный ответ; возвращает число ошибок подряд до него
+     */
+    public synchronized int recordSuccess() {
+        int failures = consecutiveFailures;
+        consecutiveFailures = 0;
+        return failures;
+    }
+
+    /**
+     * Ошибка; возвращает число ошибок подряд с учетом этой
+     */
+    public synchronized int recordFailure() {
+        return ++consecutiveFailures;
+    }
+
+    /**
+     * Исключить экземпляр из выбора до untilNanos; счетчик ошибок начинается заново
+     */
+    public synchronized void eject(long untilNanos) {
+        ejectedUntilNanos = untilNanos;
+        ejections++;
+        consecutiveFailures = 0;
+    }
+
+    /**
+     * Досрочно вернуть экземпляр в выбор
+     */
+    public synchronized void readmit(long nowNanos) {
+        ejectedUntilNanos = nowNanos;
+        consecutiveFailures = 0;
+    }
+
+    public synchronized void resetEjections() {
+        ejections = 0;
+    }
+
+    public boolean isEjected(long nowNanos) {
+        long until = ejectedUntilNanos;
+        return until != NEVER_EJECTED && nowNanos - until < 0;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public synchronized int getEjections() {
+        return ejections;
+    }
+
+    /**
+     * Сколько еще экземпляр исключен; 0, если не исключен
+     */
+    public long getRemainingEjectionNanos(long nowNanos) {
+        return isEjected(nowNanos) ? ejectedUntilNanos - nowNanos : 0;
+    }
+
+    /**
+     * Сколько прошло с конца последнего исключения; Long.MAX_VALUE, если исключений не было
+     */
+    public long getNanosSinceEjection(long nowNanos) {
+        long until = ejectedUntilNanos;
+        return until == NEVER_EJECTED ? Long.MAX_VALUE : nowNanos - until;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public synchronized double getEwmaMillis(long nowNanos) {
+        return decayedEwma(nowNanos) / 1_000_000.0;
+    }
+
+    private double decayedEwma(long nowNanos) {
+        return ewmaNanos * weight(nowNanos);
+    }
+
+    private double weight(long nowNanos) {
+        return Math.exp(-Math.max(0, nowNanos - lastObservationNanos) / decayNanos);
+    }
+}
@@ -0,0 +1,80 @@
+package com.hotelbooking.common.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+
+/**
+ * Сбор задержки, числа незавершенных запросов и ошибок по экземплярам
+ * Вызывается и шлюзом (ReactiveLoadBalancerClientFilter), и Feign (FeignBlockingLoadBalancerClient)
+ */
+public class InstanceStatsLifecycle implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final InstanceStatsRegistry registry;
+    private final OutlierDetector outlierDetector;
+
+    public InstanceStatsLifecycle(InstanceStatsRegistry registry, OutlierDetector outlierDetector) {
+        this.registry = registry;
+        this.outlierDetector = outlierDetector;
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+        // Экземпляр еще не выбран
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (request.getContext() instanceof TimedRequestContext timedContext) {
+            timedContext.setRequestStartTime(now);
+        }
+        registry.get(lbResponse.getServer()).requestStarted(now);
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (completionContext.status() == CompletionContext.Status.DISCARD
+                || lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long latency = -1;
+        Object context = completionContext.getLoadBalancerRequest() != null
+            ? completionContext.getLoadBalancerRequest().getContext() : null;
+        if (context instanceof TimedRequestContext timedContext && timedContext.getRequestStartTime() > 0) {
+            latency = now - timedContext.getRequestStartTime();
+        }
+        boolean failure = isFailure(completionContext);
+        InstanceStats stats = registry.get(lbResponse.getServer());
+        // Быстрый отказ (connection refused, 503) не должен делать больной экземпляр "самым быстрым"
+        stats.requestFinished(failure ? -1 : latency, now);
+
+        String key = InstanceStatsRegistry.key(lbResponse.getServer());
+        if (failure) {
+            outlierDetector.onFailure(key, stats, now);
+        } else {
+            outlierDetector.onSuccess(key, stats, now);
+        }
+    }
+
+    /**
+     * Ошибка экземпляра - исключение (таймаут, отказ соединения) или ответ 5xx; 4xx - ошибка клиента
+     */
+    static boolean isFailure(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            return true;
+        }
+        return completionContext.getClientResponse() instanceof ResponseData responseData
+            && responseData.getHttpStatus() != null
+            && responseData.getHttpStatus().is5xxServerError();
+    }
+}
@@ -0,0 +1,41 @@
+package com.hotelbooking.common.loadbalancer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.Map;
+
+/**
+ * Статистика экземпляров всех сервисов, общая для балансировщиков и LoadBalancerLifecycle
+ * Ключ - serviceId и адрес экземпляра; записи исчезнувших экземпляров вытесняются по простою
+ */
+public class InstanceStatsRegistry {
+
+    private final long decayNanos;
+    private final long staleOutstandingNanos;
+    private final Cache<String, InstanceStats> stats;
+
+    public InstanceStatsRegistry(LatencyAwareLoadBalancerProperties properties) {
+        this.decayNanos = properties.getDecayTime().toNanos();
+        this.staleOutstandingNanos = properties.getStaleOutstandingTimeout().toNanos();
+        this.stats = Caffeine.newBuilder()
+            .expireAfterAccess(properties.getStatsIdleTimeout())
+            .build();
+    }
+
+    public InstanceStats get(ServiceInstance instance) {
+        return stats.get(key(instance), k -> new InstanceStats(decayNanos, staleOutstandingNanos, System.nanoTime()));
+    }
+
+    /**
+     * Снимок статистики (для actuator), без создания новых записей
+     */
+    public Map<String, InstanceStats> snapshot() {
+        return Map.copyOf(stats.asMap());
+    }
+
+    public static String key(ServiceInstance instance) {
+        return instance.getServiceId() + '/' + instance.getHost() + ':' + instance.getPort();
+    }
+}
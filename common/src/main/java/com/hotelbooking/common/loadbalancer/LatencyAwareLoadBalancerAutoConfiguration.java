@@ -0,0 +1,50 @@
+package com.hotelbooking.common.loadbalancer;
+
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Подключает peak-EWMA балансировщик ко всем lb:// вызовам (маршруты шлюза, Feign) вместо round robin
+ * и пассивное исключение экземпляров, отвечающих ошибками
+ */
+@AutoConfiguration
+@ConditionalOnClass(ReactorServiceInstanceLoadBalancer.class)
+@ConditionalOnProperty(prefix = "hotelbooking.loadbalancer", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(LatencyAwareLoadBalancerProperties.class)
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
+public class LatencyAwareLoadBalancerAutoConfiguration {
+
+    @Bean
+    public InstanceStatsRegistry instanceStatsRegistry(LatencyAwareLoadBalancerProperties properties) {
+        return new InstanceStatsRegistry(properties);
+    }
+
+    @Bean
+    public OutlierDetector outlierDetector(LatencyAwareLoadBalancerProperties properties) {
+        return new OutlierDetector(properties.getOutlier());
+    }
+
+    @Bean
+    public InstanceStatsLifecycle instanceStatsLifecycle(InstanceStatsRegistry registry, OutlierDetector outlierDetector) {
+        return new InstanceStatsLifecycle(registry, outlierDetector);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Endpoint.class)
+    static class EndpointConfiguration {
+
+        @Bean
+        @ConditionalOnAvailableEndpoint
+        public LoadBalancerEndpoint loadBalancerEndpoint(InstanceStatsRegistry registry) {
+            return new LoadBalancerEndpoint(registry);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.hotelbooking.common.loadbalancer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки балансировщика с учетом задержки (peak-EWMA)
+ */
+@Data
+@ConfigurationProperties(prefix = "hotelbooking.loadbalancer")
+public class LatencyAwareLoadBalancerProperties {
+
+    private boolean enabled = true;
+
+    /** Время, за которое старые замеры задержки теряют вес (постоянная затухания EWMA) */
+    private Duration decayTime = Duration.ofSeconds(10);
+
+    /**
+     * Если по экземпляру долго нет ни начала, ни завершения запросов, счетчик незавершенных сбрасывается:
+     * отмененные запросы могут не сообщить о завершении
+     */
+    private Duration staleOutstandingTimeout = Duration.ofMinutes(1);
+
+    /** Статистика экземпляров, к которым не обращались это время, удаляется */
+    private Duration statsIdleTimeout = Duration.ofMinutes(10);
+
+    /** Пассивная проверка здоровья: временное исключение экземпляров, отвечающих ошибками */
+    private Outlier outlier = new Outlier();
+
+    @Data
+    public static class Outlier {
+
+        private boolean enabled = true;
+
+        /** Сколько ошибок подряд (5xx, таймаут, отказ соединения) приводит к исключению экземпляра */
+        private int consecutiveFailures = 5;
+
+        /** Время первого исключения; каждое следующее вдвое дольше предыдущего */
+        private Duration baseEjectionTime = Duration.ofSeconds(30);
+
+        /** Предел времени исключения; после такой же паузы без исключений счетчик сбрасывается */
+        private Duration maxEjectionTime = Duration.ofMinutes(5);
+    }
+}
@@ -0,0 +1,54 @@
+package com.hotelbooking.common.loadbalancer;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Actuator эндпоинт балансировщика: GET - задержка, нагрузка и исключение по экземплярам,
+ * DELETE - досрочно вернуть экземпляр (или все) в выбор
+ */
+@Endpoint(id = "loadbalancer")
+public class LoadBalancerEndpoint {
+
+    private final InstanceStatsRegistry registry;
+
+    public LoadBalancerEndpoint(InstanceStatsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public Map<String, Object> instances() {
+        long now = System.nanoTime();
+        Map<String, Object> result = new TreeMap<>();
+        registry.snapshot().forEach((key, stats) -> {
+            Map<String, Object> view = new LinkedHashMap<>();
+            view.put("ewmaMillis", Math.round(stats.getEwmaMillis(now) * 100) / 100.0);
+            view.put("outstanding", stats.getOutstanding());
+            view.put("consecutiveFailures", stats.getConsecutiveFailures());
+            view.put("ejected", stats.isEjected(now));
+            view.put("ejectedForMillis", stats.getRemainingEjectionNanos(now) / 1_000_000);
+            view.put("ejections", stats.getEjections());
+            result.put(key, view);
+        });
+        return result;
+    }
+
+    @DeleteOperation
+    public Map<String, Object> readmit(@Nullable String instance) {
+        long now = System.nanoTime();
+        int readmitted = 0;
+        for (Map.Entry<String, InstanceStats> entry : registry.snapshot().entrySet()) {
+            if ((instance == null || entry.getKey().equals(instance)) && entry.getValue().isEjected(now)) {
+                entry.getValue().readmit(now);
+                readmitted++;
+            }
+        }
+        return Map.of("readmitted", readmitted);
+    }
+}
@@ -0,0 +1,64 @@
+package com.hotelbooking.common.loadbalancer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Пассивная проверка здоровья экземпляров по результатам реальных запросов
+ * После N ошибок подряд экземпляр исключается из выбора балансировщика на base * 2^(k-1),
+ * где k - номер исключения (не дольше max). Так серия ошибок не превращается в повторы,
+ * удваивающие нагрузку на уже больной экземпляр, пока Eureka еще считает его живым.
+ */
+@Slf4j
+public class OutlierDetector {
+
+    private final boolean enabled;
+    private final int consecutiveFailures;
+    private final long baseEjectionNanos;
+    private final long maxEjectionNanos;
+
+    public OutlierDetector(LatencyAwareLoadBalancerProperties.Outlier properties) {
+        this.enabled = properties.isEnabled();
+        this.consecutiveFailures = Math.max(1, properties.getConsecutiveFailures());
+        this.baseEjectionNanos = properties.getBaseEjectionTime().toNanos();
+        this.maxEjectionNanos = Math.max(baseEjectionNanos, properties.getMaxEjectionTime().toNanos());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void onSuccess(String key, InstanceStats stats, long nowNanos) {
+        if (!enabled) {
+            return;
+        }
+        stats.recordSuccess();
+        // Долго без исключений - следующее снова начнется с базового времени
+        if (stats.getEjections() > 0 && stats.getNanosSinceEjection(nowNanos) > maxEjectionNanos) {
+            stats.resetEjections();
+            log.debug("Ejection backoff reset for instance {}", key);
+        }
+    }
+
+    public void onFailure(String key, InstanceStats stats, long nowNanos) {
+        if (!enabled || stats.isEjected(nowNanos)) {
+            return;
+        }
+        if (stats.recordFailure() >= consecutiveFailures) {
+            long duration = ejectionTime(stats.getEjections());
+            stats.eject(nowNanos + duration);
+            log.warn("Instance {} ejected for {} ms after {} consecutive failures (ejection #{})",
+                key, duration / 1_000_000, consecutiveFailures, stats.getEjections());
+        }
+    }
+
+    /**
+     * Время исключения с экспоненциальным ростом: previousEjections = 0 - базовое
+     */
+    long ejectionTime(int previousEjections) {
+        long duration = baseEjectionNanos;
+        for (int i = 0; i < previousEjections && duration < maxEjectionNanos; i++) {
+            duration *= 2;
+        }
+        return Math.min(duration, maxEjectionNanos);
+    }
+}
@@ -0,0 +1,96 @@
+package com.hotelbooking.common.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Балансировщик peak-EWMA с выбором из двух случайных (power of two choices)
+ * Из двух случайных экземпляров берется тот, у кого меньше задержка * (незавершенные + 1).
+ * Медленный или зависший в GC экземпляр быстро набирает незавершенные запросы и высокую оценку
+ * задержки и перестает получать трафик, а случайная пара не дает всем клиентам сразу
+ * навалиться на один самый быстрый экземпляр.
+ * Экземпляры, исключенные OutlierDetector, в выборе не участвуют, пока исключены не все.
+ */
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final String serviceId;
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final InstanceStatsRegistry statsRegistry;
+
+    public PeakEwmaLoadBalancer(String serviceId, ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                InstanceStatsRegistry statsRegistry) {
+        this.serviceId = serviceId;
+        this.supplierProvider = supplierProvider;
+        this.statsRegistry = statsRegistry;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> {
+            Response<ServiceInstance> response = select(instances);
+            if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+                callback.selectedServiceInstance(response.getServer());
+            }
+            return response;
+        });
+    }
+
+    Response<ServiceInstance> select(List<ServiceInstance> allInstances) {
+        long now = System.nanoTime();
+        List<ServiceInstance> instances = withoutEjected(allInstances, now);
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        return new DefaultResponse(statsRegistry.get(a).cost(now) <= statsRegistry.get(b).cost(now) ? a : b);
+    }
+
+    /**
+     * Если исключены все экземпляры, выбор идет из полного списка: лучше попробовать больной, чем отказать сразу
+     */
+    private List<ServiceInstance> withoutEjected(List<ServiceInstance> instances, long now) {
+        List<ServiceInstance> healthy = null;
+        for (int i = 0; i < instances.size(); i++) {
+            boolean ejected = statsRegistry.get(instances.get(i)).isEjected(now);
+            if (ejected && healthy == null) {
+                healthy = new ArrayList<>(instances.subList(0, i));
+            } else if (!ejected && healthy != null) {
+                healthy.add(instances.get(i));
+            }
+        }
+        if (healthy == null) {
+            return instances;
+        }
+        return healthy.isEmpty() ? instances : healthy;
+    }
+
+    public String getServiceId() {
+        return serviceId;
+    }
+}
@@ -0,0 +1,26 @@
+package com.hotelbooking.common.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Конфигурация дочернего контекста LoadBalancer для каждого сервиса (defaultConfiguration)
+ * Не должна попадать под component scan приложений
+ */
+@Configuration(proxyBeanMethods = false)
+public class PeakEwmaLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> peakEwmaLoadBalancer(Environment environment,
+                                                                     ObjectProvider<ServiceInstanceListSupplier> suppliers,
+                                                                     InstanceStatsRegistry statsRegistry) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new PeakEwmaLoadBalancer(serviceId, suppliers, statsRegistry);
+    }
+}
@@ -0,0 +1,88 @@
+package com.hotelbooking.common.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Фильтр идентификатора запроса и выборочной трассировки
+ * Кладет X-Request-Id в MDC и решает, пишутся ли DEBUG логи этого запроса.
+ * Решение зависит только от хэша идентификатора, поэтому все сервисы,
+ * получившие тот же X-Request-Id, трассируют один и тот же запрос
+ * Идентификатор клиента принимается только в безопасном для логов виде, иначе генерируется новый
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestIdFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String REQUEST_ID_MDC_KEY = "requestId";
+    public static final String SAMPLED_MDC_KEY = "sampled";
+
+    static final int MAX_REQUEST_ID_LENGTH = 64;
+
+    private static final int SAMPLING_BUCKETS = 10_000;
+
+    private final int sampledBuckets;
+
+    public RequestIdFilter(double samplingRate) {
+        if (samplingRate < 0 || samplingRate > 1) {
+            throw new IllegalArgumentException("logging.sampling.rate must be between 0 and 1");
+        }
+        this.sampledBuckets = (int) Math.round(samplingRate * SAMPLING_BUCKETS);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (!isValidRequestId(requestId)) {
+            requestId = UUID.randomUUID().toString();
+        }
+
+        MDC.put(REQUEST_ID_MDC_KEY, requestId);
+        if (isSampled(requestId)) {
+            MDC.put(SAMPLED_MDC_KEY, "true");
+        }
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(REQUEST_ID_MDC_KEY);
+            MDC.remove(SAMPLED_MDC_KEY);
+        }
+    }
+
+    /**
+     * Не длиннее 64 символов из [A-Za-z0-9._-]: заголовок попадает в MDC, JSON логов и запросы к другим сервисам
+     */
+    static boolean isValidRequestId(String requestId) {
+        if (requestId == null || requestId.isEmpty() || requestId.length() > MAX_REQUEST_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < requestId.length(); i++) {
+            char c = requestId.charAt(i);
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '.' || c == '_' || c == '-';
+            if (!allowed) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Детерминированная выборка по хэшу идентификатора запроса
+     */
+    public boolean isSampled(String requestId) {
+        return Math.floorMod(requestId.hashCode(), SAMPLING_BUCKETS) < sampledBuckets;
+    }
+}
@@ -0,0 +1,25 @@
+package com.hotelbooking.common.logging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Идентификатор запроса в MDC и выборочная DEBUG-трассировка для servlet-сервисов
+ * Turbo-фильтр подключается в logback-spring.xml сервиса (профиль prod)
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass(OncePerRequestFilter.class)
+public class RequestLoggingAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RequestIdFilter requestIdFilter(@Value("${logging.sampling.rate:0}") double samplingRate) {
+        return new RequestIdFilter(samplingRate);
+    }
+}
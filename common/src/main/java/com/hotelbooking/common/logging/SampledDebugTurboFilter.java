@@ -0,0 +1,30 @@
+package com.hotelbooking.common.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Logback turbo-фильтр: пропускает DEBUG логи приложения для запросов, попавших в выборку
+ * Вызывается до проверки уровня логгера, поэтому в проде уровень остается INFO,
+ * а полная трассировка пишется только для доли запросов (см. {@link RequestIdFilter})
+ */
+public class SampledDebugTurboFilter extends TurboFilter {
+
+    private String loggerPrefix = "com.hotelbooking";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level != Level.DEBUG || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        return MDC.get(RequestIdFilter.SAMPLED_MDC_KEY) != null ? FilterReply.ACCEPT : FilterReply.NEUTRAL;
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+}
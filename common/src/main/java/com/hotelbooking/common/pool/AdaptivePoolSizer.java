@@ -0,0 +1,119 @@
+package com.hotelbooking.common.pool;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Размер пулов по наблюдаемому ожиданию соединения, в границах min-size..max-size:
+ * - среднее ожидание за окно выше target-wait, таймаут или потоки в очереди - maximumPoolSize + step
+ * - shrink-after окон подряд без ожидания и с запасом не меньше step соединений - maximumPoolSize - step
+ * Рост сразу, уменьшение медленно: лишние соединения стоят дешевле очереди за соединением
+ */
+@Slf4j
+public class AdaptivePoolSizer implements SmartLifecycle {
+
+    private final HikariPoolInstrumentation instrumentation;
+    private final ConnectionPoolProperties.Adaptive properties;
+    private final Map<HikariPoolInstrumentation.InstrumentedPool, Integer> calmWindows = new ConcurrentHashMap<>();
+    private volatile ScheduledExecutorService scheduler;
+
+    public AdaptivePoolSizer(HikariPoolInstrumentation instrumentation, ConnectionPoolProperties properties) {
+        this.instrumentation = instrumentation;
+        this.properties = properties.getAdaptive();
+        if (this.properties.getMinSize() < 1 || this.properties.getMinSize() > this.properties.getMaxSize()) {
+            throw new IllegalStateException("hotelbooking.datasource.pool.adaptive requires 1 <= min-size <= max-size");
+        }
+    }
+
+    @Override
+    public void start() {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pool-sizer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::resizeSafely, interval, interval, TimeUnit.MILLISECONDS);
+        scheduler = executor;
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService executor = scheduler;
+        if (executor != null) {
+            executor.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private void resizeSafely() {
+        try {
+            resize();
+        } catch (RuntimeException e) {
+            log.warn("Connection pool resize failed: {}", e.toString());
+        }
+    }
+
+    /**
+     * Одно решение по каждому запущенному пулу; окно наблюдения начинается заново
+     */
+    void resize() {
+        for (HikariPoolInstrumentation.InstrumentedPool pool : instrumentation.getPools()) {
+            HikariPoolMXBean poolBean = pool.getDataSource().getHikariPoolMXBean();
+            if (poolBean == null) {
+                // Пул еще не запущен (ленивый старт Hikari) или закрыт
+                continue;
+            }
+            resize(pool, pool.getDataSource().getHikariConfigMXBean(), poolBean);
+        }
+    }
+
+    private void resize(HikariPoolInstrumentation.InstrumentedPool pool, HikariConfigMXBean config, HikariPoolMXBean poolBean) {
+        PoolUsageStats.Window window = pool.getStats().drain();
+        int current = config.getMaximumPoolSize();
+        boolean starved = window.timeouts() > 0
+                || window.meanWaitNanos() > properties.getTargetWait().toNanos()
+                || poolBean.getThreadsAwaitingConnection() > 0;
+        if (starved) {
+            calmWindows.put(pool, 0);
+            if (current < properties.getMaxSize()) {
+                apply(config, Math.min(properties.getMaxSize(), current + properties.getStep()), window);
+            }
+            return;
+        }
+        if (current > properties.getMinSize() && window.peakInUse() + properties.getStep() <= current) {
+            int calm = calmWindows.merge(pool, 1, Integer::sum);
+            if (calm >= properties.getShrinkAfter()) {
+                calmWindows.put(pool, 0);
+                apply(config, Math.max(properties.getMinSize(), current - properties.getStep()), window);
+            }
+            return;
+        }
+        calmWindows.put(pool, 0);
+    }
+
+    private void apply(HikariConfigMXBean config, int size, PoolUsageStats.Window window) {
+        int previous = config.getMaximumPoolSize();
+        // minimumIdle выше maximumPoolSize не дал бы пулу уменьшиться
+        if (config.getMinimumIdle() > size) {
+            config.setMinimumIdle(size);
+        }
+        config.setMaximumPoolSize(size);
+        log.info("Connection pool {} resized {} -> {} (mean wait {} ms, max wait {} ms, timeouts {}, peak in use {})",
+                config.getPoolName(), previous, size, TimeUnit.NANOSECONDS.toMillis(window.meanWaitNanos()),
+                TimeUnit.NANOSECONDS.toMillis(window.maxWaitNanos()), window.timeouts(), window.peakInUse());
+    }
+}
@@ -0,0 +1,40 @@
+package com.hotelbooking.common.pool;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Метрики пулов Hikari по эндпоинтам и адаптивный размер пула (hotelbooking.datasource.pool)
+ */
+@AutoConfiguration
+@ConditionalOnClass({HikariDataSource.class, MeterRegistry.class})
+@ConditionalOnProperty(prefix = "hotelbooking.datasource.pool", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(ConnectionPoolProperties.class)
+public class ConnectionPoolAutoConfiguration {
+
+    @Bean
+    public static HikariPoolInstrumentationPostProcessor hikariPoolInstrumentationPostProcessor(
+            ObjectProvider<HikariPoolInstrumentation> instrumentation) {
+        return new HikariPoolInstrumentationPostProcessor(instrumentation);
+    }
+
+    @Bean
+    public HikariPoolInstrumentation hikariPoolInstrumentation(ObjectProvider<MeterRegistry> registry,
+                                                               ConnectionPoolProperties properties) {
+        // Без actuator метрики никуда не выгружаются, но окна наблюдения для AdaptivePoolSizer считаются
+        return new HikariPoolInstrumentation(() -> registry.getIfAvailable(SimpleMeterRegistry::new), properties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "hotelbooking.datasource.pool.adaptive", name = "enabled")
+    public AdaptivePoolSizer adaptivePoolSizer(HikariPoolInstrumentation instrumentation, ConnectionPoolProperties properties) {
+        return new AdaptivePoolSizer(instrumentation, properties);
+    }
+}
@@ -0,0 +1,47 @@
+package com.hotelbooking.common.pool;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Телеметрия пулов Hikari и адаптивный размер пула
+ */
+@Data
+@ConfigurationProperties(prefix = "hotelbooking.datasource.pool")
+public class ConnectionPoolProperties {
+
+    /** false - стандартные метрики hikaricp.* без времени удержания по эндпоинтам */
+    private boolean enabled = true;
+
+    /** Метки method и uri эндпоинта у datasource.connection.hold; false - только pool */
+    private boolean endpointTags = true;
+
+    private Adaptive adaptive = new Adaptive();
+
+    @Data
+    public static class Adaptive {
+
+        /** Менять maximumPoolSize по времени ожидания соединения */
+        private boolean enabled = false;
+
+        /** Нижняя граница maximumPoolSize */
+        private int minSize = 5;
+
+        /** Верхняя граница maximumPoolSize: не больше, чем выдержит БД на все экземпляры */
+        private int maxSize = 30;
+
+        /** Окно наблюдения и период решения */
+        private Duration interval = Duration.ofSeconds(10);
+
+        /** Среднее ожидание соединения за окно, выше которого пул растет */
+        private Duration targetWait = Duration.ofMillis(5);
+
+        /** Шаг изменения maximumPoolSize */
+        private int step = 2;
+
+        /** Сколько окон подряд запас пула должен быть не меньше step, чтобы пул уменьшился */
+        private int shrinkAfter = 6;
+    }
+}
@@ -0,0 +1,109 @@
+package com.hotelbooking.common.pool;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Подключение InstrumentedMetricsTracker к пулам Hikari сервиса
+ * Пулы, созданные бинами DataSource, подключает HikariPoolInstrumentationPostProcessor,
+ * пулы внутри других бинов (основной пул и реплика ReadReplicaDataSources) - их автоконфигурация
+ */
+@Slf4j
+public class HikariPoolInstrumentation {
+
+    static final Tags NO_REQUEST = Tags.of("method", "NONE", "uri", "NONE");
+
+    private final Supplier<MeterRegistry> registry;
+    private final Supplier<Tags> endpoint;
+    private final List<InstrumentedPool> pools = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param registry вызывается при старте пула, а не при подключении: пул создается раньше MeterRegistry
+     */
+    public HikariPoolInstrumentation(Supplier<MeterRegistry> registry, ConnectionPoolProperties properties) {
+        this.registry = registry;
+        this.endpoint = properties.isEndpointTags() && ClassUtils.isPresent("jakarta.servlet.http.HttpServletRequest",
+                HikariPoolInstrumentation.class.getClassLoader())
+            ? new ServletEndpoint()
+            : () -> NO_REQUEST;
+    }
+
+    /**
+     * Подключить метрики к пулу, если у него еще нет своих (metricRegistry или metricsTrackerFactory)
+     */
+    public void instrument(HikariDataSource dataSource) {
+        if (dataSource.getMetricRegistry() != null || dataSource.getMetricsTrackerFactory() != null) {
+            log.debug("Hikari pool {} already has metrics, skipping instrumentation", dataSource.getPoolName());
+            return;
+        }
+        InstrumentedPool pool = new InstrumentedPool(dataSource);
+        dataSource.setMetricsTrackerFactory(pool);
+        pools.add(pool);
+    }
+
+    List<InstrumentedPool> getPools() {
+        return pools;
+    }
+
+    /**
+     * Пул и его окно наблюдения; фабрика трекера Hikari вызывается один раз при старте пула
+     */
+    final class InstrumentedPool implements MetricsTrackerFactory {
+
+        private final HikariDataSource dataSource;
+        private final PoolUsageStats stats = new PoolUsageStats();
+
+        private InstrumentedPool(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        HikariDataSource getDataSource() {
+            return dataSource;
+        }
+
+        PoolUsageStats getStats() {
+            return stats;
+        }
+
+        @Override
+        public IMetricsTracker create(String poolName, PoolStats poolStats) {
+            MeterRegistry meterRegistry = registry.get();
+            return new InstrumentedMetricsTracker(new MicrometerMetricsTrackerFactory(meterRegistry).create(poolName, poolStats),
+                    poolName, meterRegistry, endpoint, dataSource::getLeakDetectionThreshold, stats);
+        }
+    }
+
+    /**
+     * Шаблон пути контроллера, как в метке uri у http.server.requests; вне запроса - NONE,
+     * до выбора контроллера (фильтры безопасности) - UNKNOWN
+     */
+    private static final class ServletEndpoint implements Supplier<Tags> {
+
+        @Override
+        public Tags get() {
+            RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+            if (!(attributes instanceof ServletRequestAttributes servlet)) {
+                return NO_REQUEST;
+            }
+            HttpServletRequest request = servlet.getRequest();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            return Tags.of("method", request.getMethod(), "uri", pattern != null ? pattern.toString() : "UNKNOWN");
+        }
+    }
+}
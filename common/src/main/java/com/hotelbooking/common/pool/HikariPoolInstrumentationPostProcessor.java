@@ -0,0 +1,26 @@
+package com.hotelbooking.common.pool;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Подключает метрики к пулам Hikari бинов DataSource до инициализации, то есть до оберток
+ * (datasource-micrometer) и до привязки стандартных метрик Spring Boot, которые пропускают пул со своими метриками
+ */
+public class HikariPoolInstrumentationPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<HikariPoolInstrumentation> instrumentation;
+
+    public HikariPoolInstrumentationPostProcessor(ObjectProvider<HikariPoolInstrumentation> instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource) {
+            instrumentation.getObject().instrument(dataSource);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,80 @@
+package com.hotelbooking.common.pool;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Метрики Hikari (hikaricp.*) плюс время удержания соединения по эндпоинтам:
+ * datasource.connection.hold{pool,method,uri} и datasource.connection.leaks{pool,method,uri}
+ * Hikari вызывает recordConnectionUsageMillis при закрытии соединения в потоке, который его держал,
+ * поэтому эндпоинт берется из контекста текущего запроса
+ */
+class InstrumentedMetricsTracker implements IMetricsTracker {
+
+    private final IMetricsTracker delegate;
+    private final String poolName;
+    private final MeterRegistry registry;
+    private final Supplier<Tags> endpoint;
+    private final LongSupplier leakDetectionThreshold;
+    private final PoolUsageStats stats;
+
+    InstrumentedMetricsTracker(IMetricsTracker delegate, String poolName, MeterRegistry registry,
+                               Supplier<Tags> endpoint, LongSupplier leakDetectionThreshold, PoolUsageStats stats) {
+        this.delegate = delegate;
+        this.poolName = poolName;
+        this.registry = registry;
+        this.endpoint = endpoint;
+        this.leakDetectionThreshold = leakDetectionThreshold;
+        this.stats = stats;
+    }
+
+    @Override
+    public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+        delegate.recordConnectionCreatedMillis(connectionCreatedMillis);
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        delegate.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+        stats.acquired(elapsedAcquiredNanos);
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        delegate.recordConnectionUsageMillis(elapsedBorrowedMillis);
+        stats.released();
+        Tags tags = endpoint.get().and("pool", poolName);
+        Timer.builder("datasource.connection.hold")
+                .description("Time a connection was held, by the endpoint that held it")
+                .tags(tags)
+                .register(registry)
+                .record(elapsedBorrowedMillis, TimeUnit.MILLISECONDS);
+        long threshold = leakDetectionThreshold.getAsLong();
+        if (threshold > 0 && elapsedBorrowedMillis >= threshold) {
+            // Hikari уже записал в лог стек взятия соединения (ProxyLeakTask), здесь - кто и как часто
+            Counter.builder("datasource.connection.leaks")
+                    .description("Connections held longer than leakDetectionThreshold")
+                    .tags(tags)
+                    .register(registry)
+                    .increment();
+        }
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        delegate.recordConnectionTimeout();
+        stats.timedOut();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,45 @@
+package com.hotelbooking.common.pool;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ожидание и занятость соединений пула за текущее окно наблюдения AdaptivePoolSizer
+ */
+class PoolUsageStats {
+
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger peakInUse = new AtomicInteger();
+
+    void acquired(long nanos) {
+        acquisitions.incrementAndGet();
+        waitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+        peakInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+    }
+
+    void released() {
+        inUse.decrementAndGet();
+    }
+
+    void timedOut() {
+        timeouts.incrementAndGet();
+    }
+
+    /**
+     * Итог окна; следующее окно начинается с текущего числа занятых соединений
+     */
+    Window drain() {
+        long count = acquisitions.getAndSet(0);
+        long wait = waitNanos.getAndSet(0);
+        return new Window(count, count > 0 ? wait / count : 0, maxWaitNanos.getAndSet(0),
+                timeouts.getAndSet(0), peakInUse.getAndSet(inUse.get()));
+    }
+
+    record Window(long acquisitions, long meanWaitNanos, long maxWaitNanos, long timeouts, int peakInUse) {
+    }
+}
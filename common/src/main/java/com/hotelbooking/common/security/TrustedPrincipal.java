@@ -0,0 +1,8 @@
+package com.hotelbooking.common.security;
+
+/**
+ * Принципал из проверенного заголовка X-Auth-Principal
+ * userId равен null для токенов старого формата без uid
+ */
+public record TrustedPrincipal(Long userId, String role, String username) {
+}
@@ -0,0 +1,81 @@
+package com.hotelbooking.common.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.util.Base64;
+
+/**
+ * Проверка подписанного шлюзом заголовка X-Auth-Principal (режим доверенного шлюза)
+ * Формат задает TrustedPrincipalSigner в api-gateway:
+ * base64url(uid \n role \n exp \n username) + "." + base64url(HMAC-SHA256).
+ * Общая для сервисов часть: подпись, срок действия и разбор полей,
+ * а во что превратить принципал, решает фильтр конкретного сервиса
+ */
+public class TrustedPrincipalVerifier {
+
+    public static final String PRINCIPAL_HEADER = "X-Auth-Principal";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_LENGTH = 32;
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> mac;
+    private final Clock clock;
+
+    public TrustedPrincipalVerifier(String secret) {
+        this(secret, Clock.systemUTC());
+    }
+
+    public TrustedPrincipalVerifier(String secret, Clock clock) {
+        if (secret == null || secret.length() < MIN_SECRET_LENGTH) {
+            throw new IllegalStateException("security.trusted-gateway.secret must be at least "
+                    + MIN_SECRET_LENGTH + " characters");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.mac = ThreadLocal.withInitial(this::createMac);
+        this.clock = clock;
+    }
+
+    /**
+     * Проверить подпись и срок действия; null, если заголовок недействителен
+     */
+    public TrustedPrincipal verify(String header) {
+        int dot = header.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        String encodedPayload = header.substring(0, dot);
+        try {
+            byte[] expected = mac.get().doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+            if (!MessageDigest.isEqual(expected, DECODER.decode(header.substring(dot + 1)))) {
+                return null;
+            }
+
+            // uid \n role \n exp \n username
+            String[] parts = new String(DECODER.decode(encodedPayload), StandardCharsets.UTF_8).split("\n", 4);
+            if (parts.length != 4 || Long.parseLong(parts[2]) <= clock.instant().getEpochSecond()) {
+                return null;
+            }
+            Long userId = parts[0].isEmpty() ? null : Long.valueOf(parts[0]);
+            return new TrustedPrincipal(userId, parts[1], parts[3]);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private Mac createMac() {
+        try {
+            Mac instance = Mac.getInstance(HMAC_ALGORITHM);
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialize " + HMAC_ALGORITHM, e);
+        }
+    }
+}
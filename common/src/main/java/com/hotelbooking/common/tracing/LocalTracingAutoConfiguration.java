@@ -0,0 +1,48 @@
+package com.hotelbooking.common.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Локальные экспортеры спанов OpenTelemetry: кольцевой буфер с /actuator/traces и файл JSON Lines
+ * Spring Boot подключает все бины SpanExporter к BatchSpanProcessor, внешний коллектор не нужен
+ */
+@AutoConfiguration
+@ConditionalOnClass(SpanExporter.class)
+@EnableConfigurationProperties(LocalTracingProperties.class)
+public class LocalTracingAutoConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "hotelbooking.tracing.ring-buffer", name = "enabled", matchIfMissing = true)
+    public RingBufferSpanExporter ringBufferSpanExporter(LocalTracingProperties properties) {
+        return new RingBufferSpanExporter(properties.getRingBuffer().getCapacity());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "hotelbooking.tracing.file", name = "enabled")
+    public JsonLinesSpanExporter jsonLinesSpanExporter(LocalTracingProperties properties, ObjectMapper objectMapper) {
+        return new JsonLinesSpanExporter(Path.of(properties.getFile().getPath()), objectMapper);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Endpoint.class)
+    @ConditionalOnProperty(prefix = "hotelbooking.tracing.ring-buffer", name = "enabled", matchIfMissing = true)
+    static class EndpointConfiguration {
+
+        @Bean
+        @ConditionalOnAvailableEndpoint
+        public TracesEndpoint tracesEndpoint(RingBufferSpanExporter exporter) {
+            return new TracesEndpoint(exporter);
+        }
+    }
+}
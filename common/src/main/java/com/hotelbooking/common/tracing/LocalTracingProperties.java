@@ -0,0 +1,35 @@
+package com.hotelbooking.common.tracing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки локального экспорта спанов без внешнего коллектора
+ */
+@Data
+@ConfigurationProperties(prefix = "hotelbooking.tracing")
+public class LocalTracingProperties {
+
+    /** Последние спаны в памяти, доступны через /actuator/traces */
+    private RingBuffer ringBuffer = new RingBuffer();
+
+    /** Запись спанов в файл JSON Lines; один файл можно указать всем сервисам, чтобы видеть трассу целиком */
+    private File file = new File();
+
+    @Data
+    public static class RingBuffer {
+
+        private boolean enabled = true;
+
+        /** Сколько последних спанов хранить */
+        private int capacity = 4096;
+    }
+
+    @Data
+    public static class File {
+
+        private boolean enabled = false;
+
+        private String path = "./data/traces/spans.jsonl";
+    }
+}
@@ -0,0 +1,35 @@
+package com.hotelbooking.common.tracing;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Завершенный спан в виде, удобном для JSON (actuator и файл)
+ */
+public record RecordedSpan(String traceId, String spanId, String parentSpanId, String service, String name,
+                           String kind, Instant start, double durationMillis, String status,
+                           Map<String, String> attributes) {
+
+    private static final AttributeKey<String> SERVICE_NAME = AttributeKey.stringKey("service.name");
+
+    public static RecordedSpan from(SpanData span) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), String.valueOf(value)));
+        String parentSpanId = span.getParentSpanContext().isValid() ? span.getParentSpanId() : null;
+        return new RecordedSpan(
+            span.getTraceId(),
+            span.getSpanId(),
+            parentSpanId,
+            span.getResource().getAttribute(SERVICE_NAME),
+            span.getName(),
+            span.getKind().name(),
+            Instant.ofEpochSecond(0, span.getStartEpochNanos()),
+            (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1_000_000.0,
+            span.getStatus().getStatusCode().name(),
+            attributes);
+    }
+}
@@ -0,0 +1,59 @@
+package com.hotelbooking.common.tracing;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Экспортер спанов в кольцевой буфер в памяти: последние capacity спанов, старые перезаписываются
+ * Вызывается из потока BatchSpanProcessor, а не из потоков запросов
+ */
+public class RingBufferSpanExporter implements SpanExporter {
+
+    private final RecordedSpan[] buffer;
+    private long written;
+
+    public RingBufferSpanExporter(int capacity) {
+        this.buffer = new RecordedSpan[Math.max(1, capacity)];
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        List<RecordedSpan> recorded = new ArrayList<>(spans.size());
+        for (SpanData span : spans) {
+            recorded.add(RecordedSpan.from(span));
+        }
+        synchronized (this) {
+            for (RecordedSpan span : recorded) {
+                buffer[(int) (written++ % buffer.length)] = span;
+            }
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * Спаны в буфере, от старых к новым
+     */
+    public synchronized List<RecordedSpan> snapshot() {
+        int size = (int) Math.min(written, buffer.length);
+        List<RecordedSpan> result = new ArrayList<>(size);
+        for (long i = written - size; i < written; i++) {
+            result.add(buffer[(int) (i % buffer.length)]);
+        }
+        return result;
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
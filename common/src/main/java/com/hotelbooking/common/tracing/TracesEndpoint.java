@@ -0,0 +1,73 @@
+package com.hotelbooking.common.tracing;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Actuator эндпоинт последних трасс этого сервиса из кольцевого буфера
+ * GET /actuator/traces?minDurationMs=500 - трассы не быстрее порога, новые первыми;
+ * GET /actuator/traces/{traceId} - спаны трассы по времени начала
+ */
+@Endpoint(id = "traces")
+public class TracesEndpoint {
+
+    private static final int DEFAULT_LIMIT = 50;
+
+    private final RingBufferSpanExporter exporter;
+
+    public TracesEndpoint(RingBufferSpanExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    @ReadOperation
+    public List<TraceSummary> traces(@Nullable Double minDurationMs, @Nullable Integer limit) {
+        Map<String, List<RecordedSpan>> byTrace = exporter.snapshot().stream()
+            .collect(Collectors.groupingBy(RecordedSpan::traceId, LinkedHashMap::new, Collectors.toList()));
+        return byTrace.entrySet().stream()
+            .map(entry -> summarize(entry.getKey(), entry.getValue()))
+            .filter(summary -> minDurationMs == null || summary.durationMillis() >= minDurationMs)
+            .sorted(Comparator.comparing(TraceSummary::start).reversed())
+            .limit(limit != null ? limit : DEFAULT_LIMIT)
+            .toList();
+    }
+
+    @ReadOperation
+    public List<RecordedSpan> trace(@Selector String traceId) {
+        return exporter.snapshot().stream()
+            .filter(span -> span.traceId().equals(traceId))
+            .sorted(Comparator.comparing(RecordedSpan::start))
+            .toList();
+    }
+
+    private static TraceSummary summarize(String traceId, List<RecordedSpan> spans) {
+        Set<String> spanIds = spans.stream().map(RecordedSpan::spanId).collect(Collectors.toSet());
+        // Корень в этом сервисе - спан, родитель которого не здесь (пришел из другого сервиса или его нет)
+        RecordedSpan root = spans.stream()
+            .filter(span -> span.parentSpanId() == null || !spanIds.contains(span.parentSpanId()))
+            .min(Comparator.comparing(RecordedSpan::start))
+            .orElse(spans.get(0));
+        Instant start = spans.stream().map(RecordedSpan::start).min(Comparator.naturalOrder()).orElse(root.start());
+        double end = spans.stream()
+            .mapToDouble(span -> millisSince(start, span.start()) + span.durationMillis())
+            .max()
+            .orElse(root.durationMillis());
+        return new TraceSummary(traceId, root.name(), start, end, spans.size());
+    }
+
+    private static double millisSince(Instant from, Instant to) {
+        return (to.getEpochSecond() - from.getEpochSecond()) * 1000.0 + (to.getNano() - from.getNano()) / 1_000_000.0;
+    }
+
+    public record TraceSummary(String traceId, String rootName, Instant start, double durationMillis, int spanCount) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.hotelbooking.common.warmup;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.web.client.RestClient;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Заполнение пула Hikari: minimumIdle соединений берутся одновременно, поэтому создаются сразу,
+ * а не фоновым потоком пула во время первых запросов
+ * Выполняется один раз и раньше остальных задач
+ */
+@Slf4j
+public class ConnectionPoolWarmupTask implements WarmupTask, Ordered {
+
+    private final DataSource dataSource;
+
+    public ConnectionPoolWarmupTask(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public String getName() {
+        return "connection-pool";
+    }
+
+    @Override
+    public void run(RestClient local) throws SQLException {
+        int size = poolSize();
+        List<Connection> connections = new ArrayList<>(size);
+        try {
+            for (int i = 0; i < size; i++) {
+                connections.add(dataSource.getConnection());
+            }
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+        log.debug("Connection pool warmed up with {} connections", connections.size());
+    }
+
+    private int poolSize() throws SQLException {
+        // Источник может быть обернут (datasource-micrometer), настройки пула берутся через unwrap
+        if (dataSource.isWrapperFor(HikariConfigMXBean.class)) {
+            HikariConfigMXBean config = dataSource.unwrap(HikariConfigMXBean.class);
+            return Math.max(1, Math.min(config.getMinimumIdle(), config.getMaximumPoolSize()));
+        }
+        return 1;
+    }
+
+    @Override
+    public boolean isRepeated() {
+        return false;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,31 @@
+package com.hotelbooking.common.warmup;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * Переводит экземпляр в UP после прогрева
+ * Экземпляр регистрируется в Eureka со статусом eureka.instance.initial-status: STARTING и не выбирается клиентами;
+ * смена статуса сразу отправляется в Eureka (on-demand обновление InstanceInfoReplicator)
+ * Статус, отличный от STARTING (например, OUT_OF_SERVICE через /actuator/serviceregistry), не меняется
+ */
+@Slf4j
+public class EurekaWarmupStatusListener implements ApplicationListener<WarmupCompletedEvent> {
+
+    private final ApplicationInfoManager applicationInfoManager;
+
+    public EurekaWarmupStatusListener(ApplicationInfoManager applicationInfoManager) {
+        this.applicationInfoManager = applicationInfoManager;
+    }
+
+    @Override
+    public void onApplicationEvent(WarmupCompletedEvent event) {
+        InstanceStatus status = applicationInfoManager.getInfo().getStatus();
+        if (status == InstanceStatus.STARTING) {
+            applicationInfoManager.setInstanceStatus(InstanceStatus.UP);
+            log.info("Instance marked UP in Eureka after warm-up ({} ms)", event.getDuration().toMillis());
+        }
+    }
+}
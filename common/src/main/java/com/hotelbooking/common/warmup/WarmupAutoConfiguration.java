@@ -0,0 +1,71 @@
+package com.hotelbooking.common.warmup;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Прогрев сервиса перед переводом экземпляра в UP: задачи WarmupTask сервиса, заполнение пула соединений,
+ * затем статус UP в Eureka и метрики длительности
+ */
+@AutoConfiguration(afterName = {
+        "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration",
+        "org.springframework.cloud.netflix.eureka.EurekaClientAutoConfiguration"
+})
+@ConditionalOnWebApplication
+@EnableConfigurationProperties(WarmupProperties.class)
+public class WarmupAutoConfiguration {
+
+    @Bean
+    public WarmupCoordinator warmupCoordinator(WarmupProperties properties, ObjectProvider<WarmupTask> tasks,
+                                               ApplicationEventPublisher publisher) {
+        return new WarmupCoordinator(properties, tasks.orderedStream().toList(), publisher);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(HikariDataSource.class)
+    @ConditionalOnBean(DataSource.class)
+    @ConditionalOnProperty(prefix = "hotelbooking.warmup", name = "connection-pool", matchIfMissing = true)
+    static class ConnectionPoolConfiguration {
+
+        @Bean
+        public ConnectionPoolWarmupTask connectionPoolWarmupTask(DataSource dataSource) {
+            return new ConnectionPoolWarmupTask(dataSource);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(ApplicationInfoManager.class)
+    static class EurekaConfiguration {
+
+        @Bean
+        @ConditionalOnBean(ApplicationInfoManager.class)
+        public EurekaWarmupStatusListener eurekaWarmupStatusListener(ApplicationInfoManager applicationInfoManager) {
+            return new EurekaWarmupStatusListener(applicationInfoManager);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class MetricsConfiguration {
+
+        @Bean
+        @ConditionalOnBean(MeterRegistry.class)
+        public WarmupMetrics warmupMetrics(MeterRegistry registry) {
+            return new WarmupMetrics(registry);
+        }
+    }
+}
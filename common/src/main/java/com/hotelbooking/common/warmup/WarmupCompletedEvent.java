@@ -0,0 +1,32 @@
+package com.hotelbooking.common.warmup;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Прогрев завершен (или отключен): экземпляр можно переводить в UP
+ */
+@Getter
+public class WarmupCompletedEvent extends ApplicationEvent {
+
+    private final Duration duration;
+    private final List<TaskResult> results;
+
+    public WarmupCompletedEvent(Object source, Duration duration, List<TaskResult> results) {
+        super(source);
+        this.duration = duration;
+        this.results = results;
+    }
+
+    /**
+     * Итог одной задачи
+     *
+     * @param iterations выполнено итераций, включая неудачные
+     * @param failures   неудачных итераций
+     */
+    public record TaskResult(String name, int iterations, int failures, Duration duration) {
+    }
+}
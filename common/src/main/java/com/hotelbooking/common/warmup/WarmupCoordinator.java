@@ -0,0 +1,140 @@
+package com.hotelbooking.common.warmup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationListener;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Прогрев сервиса после старта веб-сервера, но до перевода экземпляра в UP
+ * Задачи выполняются по кругу (каждая итерация - все задачи), так что при нехватке времени прогреваются все пути;
+ * задача, упавшая MAX_CONSECUTIVE_FAILURES раз подряд, больше не повторяется
+ * Слушатель ApplicationReadyEvent выполняется синхронно: readiness (ACCEPTING_TRAFFIC) публикуется после прогрева
+ */
+@Slf4j
+public class WarmupCoordinator implements ApplicationListener<ApplicationReadyEvent> {
+
+    static final int MAX_CONSECUTIVE_FAILURES = 3;
+
+    private final WarmupProperties properties;
+    private final List<WarmupTask> tasks;
+    private final ApplicationEventPublisher publisher;
+
+    public WarmupCoordinator(WarmupProperties properties, List<WarmupTask> tasks, ApplicationEventPublisher publisher) {
+        this.properties = properties;
+        this.tasks = tasks;
+        this.publisher = publisher;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!properties.isEnabled() || tasks.isEmpty()
+                || !(event.getApplicationContext() instanceof WebServerApplicationContext web)
+                || web.getWebServer().getPort() <= 0) {
+            // Без прогрева экземпляр все равно должен стать UP
+            publisher.publishEvent(new WarmupCompletedEvent(this, Duration.ZERO, List.of()));
+            return;
+        }
+        publisher.publishEvent(warmup(localClient(web.getWebServer().getPort())));
+    }
+
+    /**
+     * Выполнить все задачи и вернуть итог
+     */
+    WarmupCompletedEvent warmup(RestClient local) {
+        long start = System.nanoTime();
+        long deadline = start + properties.getMaxDuration().toNanos();
+        List<TaskState> states = tasks.stream().map(TaskState::new).toList();
+
+        log.info("Warm-up started: {} tasks, {} iterations, max {}",
+                states.size(), properties.getIterations(), properties.getMaxDuration());
+
+        for (TaskState state : states) {
+            if (!state.task.isRepeated()) {
+                state.runOnce(local);
+            }
+        }
+
+        for (int i = 0; i < properties.getIterations(); i++) {
+            if (System.nanoTime() - deadline >= 0) {
+                log.warn("Warm-up stopped after {} of {} iterations: max-duration {} exceeded",
+                        i, properties.getIterations(), properties.getMaxDuration());
+                break;
+            }
+            boolean ran = false;
+            for (TaskState state : states) {
+                if (state.task.isRepeated() && !state.disabled) {
+                    state.runOnce(local);
+                    ran = true;
+                }
+            }
+            if (!ran) {
+                break;
+            }
+        }
+
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        List<WarmupCompletedEvent.TaskResult> results = states.stream().map(TaskState::toResult).toList();
+        log.info("Warm-up completed in {} ms: {}", duration.toMillis(), results.stream()
+                .map(r -> String.format("%s x%d (%d failed) %d ms", r.name(), r.iterations(), r.failures(),
+                        r.duration().toMillis()))
+                .collect(Collectors.joining(", ")));
+        return new WarmupCompletedEvent(this, duration, results);
+    }
+
+    private RestClient localClient(int port) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(properties.getRequestTimeout());
+        requestFactory.setReadTimeout(properties.getRequestTimeout());
+        return RestClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .requestFactory(requestFactory)
+                .build();
+    }
+
+    private static final class TaskState {
+
+        private final WarmupTask task;
+        private int iterations;
+        private int failures;
+        private int consecutiveFailures;
+        private long nanos;
+        private boolean disabled;
+
+        private TaskState(WarmupTask task) {
+            this.task = task;
+        }
+
+        private void runOnce(RestClient local) {
+            long start = System.nanoTime();
+            try {
+                task.run(local);
+                consecutiveFailures = 0;
+            } catch (Exception e) {
+                failures++;
+                consecutiveFailures++;
+                if (failures == 1) {
+                    log.warn("Warm-up task {} failed: {}", task.getName(), e.toString());
+                }
+                if (consecutiveFailures >= MAX_CONSECUTIVE_FAILURES) {
+                    disabled = true;
+                    log.warn("Warm-up task {} skipped after {} consecutive failures", task.getName(), consecutiveFailures);
+                }
+            } finally {
+                iterations++;
+                nanos += System.nanoTime() - start;
+            }
+        }
+
+        private WarmupCompletedEvent.TaskResult toResult() {
+            return new WarmupCompletedEvent.TaskResult(task.getName(), iterations, failures, Duration.ofNanos(nanos));
+        }
+    }
+}
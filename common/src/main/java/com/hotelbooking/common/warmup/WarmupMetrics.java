@@ -0,0 +1,34 @@
+package com.hotelbooking.common.warmup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.context.ApplicationListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Длительность прогрева в метриках: warmup.duration (весь прогрев) и warmup.task.duration{task}
+ */
+public class WarmupMetrics implements ApplicationListener<WarmupCompletedEvent> {
+
+    private final MeterRegistry registry;
+
+    public WarmupMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void onApplicationEvent(WarmupCompletedEvent event) {
+        long total = event.getDuration().toNanos();
+        TimeGauge.builder("warmup.duration", () -> total, TimeUnit.NANOSECONDS)
+                .description("Warm-up duration before the instance was marked UP")
+                .register(registry);
+        for (WarmupCompletedEvent.TaskResult result : event.getResults()) {
+            long nanos = result.duration().toNanos();
+            TimeGauge.builder("warmup.task.duration", () -> nanos, TimeUnit.NANOSECONDS)
+                    .tag("task", result.name())
+                    .description("Total time spent in a warm-up task")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.hotelbooking.common.warmup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки прогрева сервиса перед переводом экземпляра в UP
+ */
+@Data
+@ConfigurationProperties(prefix = "hotelbooking.warmup")
+public class WarmupProperties {
+
+    /** false - задачи не выполняются, экземпляр сразу переводится в UP */
+    private boolean enabled = true;
+
+    /** Сколько раз выполнить каждую повторяемую задачу */
+    private int iterations = 200;
+
+    /** Общий лимит времени прогрева, по истечении оставшиеся итерации пропускаются */
+    private Duration maxDuration = Duration.ofSeconds(30);
+
+    /** Таймаут одного запроса к собственному HTTP порту */
+    private Duration requestTimeout = Duration.ofSeconds(5);
+
+    /** Открыть minimumIdle соединений пула Hikari до первого запроса */
+    private boolean connectionPool = true;
+}
@@ -0,0 +1,56 @@
+package com.hotelbooking.common.warmup;
+
+import org.springframework.web.client.RestClient;
+
+/**
+ * Задача прогрева: одна итерация обращения к основному пути сервиса
+ * Бины этого типа собирает WarmupCoordinator и выполняет до перевода экземпляра в UP
+ */
+public interface WarmupTask {
+
+    String getName();
+
+    /**
+     * Выполнить одну итерацию
+     *
+     * @param local клиент к собственному HTTP порту сервиса (http://localhost:port)
+     */
+    void run(RestClient local) throws Exception;
+
+    /**
+     * false - задача выполняется один раз, а не hotelbooking.warmup.iterations раз
+     */
+    default boolean isRepeated() {
+        return true;
+    }
+
+    /**
+     * Задача из лямбды
+     */
+    static WarmupTask of(String name, Action action) {
+        return new WarmupTask() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public void run(RestClient local) throws Exception {
+                action.run(local);
+            }
+        };
+    }
+
+    /**
+     * GET запрос к собственному эндпоинту, ответ 2xx обязателен
+     */
+    static WarmupTask get(String name, String uri) {
+        return of(name, local -> local.get().uri(uri).retrieve().toBodilessEntity());
+    }
+
+    @FunctionalInterface
+    interface Action {
+
+        void run(RestClient local) throws Exception;
+    }
+}
@@ -0,0 +1,64 @@
+package com.hotelbooking.common.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import org.hibernate.cache.spi.RegionFactory;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для CaffeineRegionFactory
+ */
+class CaffeineRegionFactoryTest {
+
+    private final SecondLevelCacheProperties properties = new SecondLevelCacheProperties();
+    private final CaffeineRegionFactory factory = new CaffeineRegionFactory(properties);
+
+    @Test
+    void configuration_ShouldUseRegionSettings() {
+        // Given
+        SecondLevelCacheProperties.Region rooms = new SecondLevelCacheProperties.Region();
+        rooms.setMaxSize(500);
+        rooms.setExpireAfterWrite(Duration.ofSeconds(30));
+        properties.getRegions().put("rooms", rooms);
+
+        // When
+        CaffeineConfiguration<Object, Object> configuration = factory.configuration("rooms");
+
+        // Then
+        assertThat(configuration.getMaximumSize()).hasValue(500);
+        assertThat(configuration.getExpireAfterWrite()).hasValue(Duration.ofSeconds(30).toNanos());
+        assertThat(configuration.isStatisticsEnabled()).isTrue();
+    }
+
+    @Test
+    void configuration_ShouldFallBackToDefaultsForUnknownRegion() {
+        // Given
+        properties.getDefaults().setMaxSize(42);
+        properties.getDefaults().setExpireAfterWrite(Duration.ofMinutes(1));
+
+        // When
+        CaffeineConfiguration<Object, Object> configuration = factory.configuration("hotels");
+
+        // Then
+        assertThat(configuration.getMaximumSize()).hasValue(42);
+        assertThat(configuration.getExpireAfterWrite()).hasValue(Duration.ofMinutes(1).toNanos());
+    }
+
+    @Test
+    void configuration_ShouldKeepUpdateTimestampsUnboundedAndEternal() {
+        // Given
+        properties.getDefaults().setMaxSize(1);
+        properties.getDefaults().setExpireAfterWrite(Duration.ofSeconds(1));
+
+        // When
+        CaffeineConfiguration<Object, Object> configuration =
+            factory.configuration(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME);
+
+        // Then
+        assertThat(configuration.getMaximumSize()).isEmpty();
+        assertThat(configuration.getExpireAfterWrite()).isEmpty();
+    }
+}
@@ -0,0 +1,249 @@
+package com.hotelbooking.common.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для ReadWriteRoutingDataSource: основной источник и реплика - две отдельные базы H2
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private final DriverManagerDataSource primary = h2("primary");
+    private final DriverManagerDataSource replica = h2("replica");
+    private final AtomicReference<String> currentUser = new AtomicReference<>();
+    private final ReadReplicaProperties properties = new ReadReplicaProperties();
+
+    private ReplicaLagMonitor lagMonitor;
+    private ReadYourWritesTracker tracker;
+    private ReadWriteRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        for (DriverManagerDataSource dataSource : new DriverManagerDataSource[] {primary, replica}) {
+            JdbcTemplate template = new JdbcTemplate(dataSource);
+            template.execute("CREATE TABLE source (name VARCHAR(20))");
+            template.execute("CREATE TABLE lag (millis BIGINT)");
+            template.update("INSERT INTO source VALUES (?)", dataSource == primary ? "primary" : "replica");
+            template.update("INSERT INTO lag VALUES (0)");
+        }
+        properties.setLagQuery("SELECT millis FROM lag");
+        properties.setMaxLag(Duration.ofSeconds(5));
+        properties.setLagCheckInterval(Duration.ofSeconds(1));
+        lagMonitor = new ReplicaLagMonitor(replica, properties);
+        build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplica() {
+        // Given
+        lagMonitor.check();
+
+        // When
+        String source = readOnly.execute(status -> currentSource());
+
+        // Then
+        assertThat(source).isEqualTo("replica");
+        assertThat(routing.getReplicaConnections()).isEqualTo(1);
+    }
+
+    @Test
+    void readWriteTransactionAndNoTransaction_ShouldUsePrimary() {
+        // Given
+        lagMonitor.check();
+
+        // When
+        String inTransaction = readWrite.execute(status -> currentSource());
+        String withoutTransaction = currentSource();
+
+        // Then
+        assertThat(inTransaction).isEqualTo("primary");
+        assertThat(withoutTransaction).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplicaWhenConnectionTakenOnBegin() {
+        // Given: без LazyConnectionDataSourceProxy соединение берется при открытии транзакции, как у JPA
+        lagMonitor.check();
+        jdbc = new JdbcTemplate(routing);
+        readOnly = transactionTemplate(true, routing);
+
+        // When
+        String source = readOnly.execute(status -> currentSource());
+
+        // Then
+        assertThat(source).isEqualTo("replica");
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldKeepReplicaAroundNestedWriteTransaction() {
+        // Given
+        lagMonitor.check();
+        readWrite.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        // When
+        List<String> sources = readOnly.execute(status -> {
+            String before = currentSource();
+            String nested = readWrite.execute(inner -> currentSource());
+            return List.of(before, nested, currentSource(), String.valueOf(routing.isReplicaTransaction()));
+        });
+
+        // Then
+        assertThat(sources).containsExactly("replica", "primary", "replica", "true");
+        assertThat(routing.isReplicaTransaction()).isFalse();
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUsePrimaryUntilReplicaChecked() {
+        // When
+        String source = readOnly.execute(status -> currentSource());
+
+        // Then
+        assertThat(source).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUsePrimaryWhenReplicaLagExceedsMax() {
+        // Given
+        new JdbcTemplate(replica).update("UPDATE lag SET millis = 60000");
+        lagMonitor.check();
+
+        // When
+        String source = readOnly.execute(status -> currentSource());
+
+        // Then
+        assertThat(lagMonitor.isAvailable()).isFalse();
+        assertThat(lagMonitor.getLagMillis()).isEqualTo(60000);
+        assertThat(source).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldReturnToReplicaWhenLagRecovers() {
+        // Given
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.update("UPDATE lag SET millis = 60000");
+        lagMonitor.check();
+        replicaJdbc.update("UPDATE lag SET millis = 100");
+        lagMonitor.check();
+
+        // When
+        String source = readOnly.execute(status -> currentSource());
+
+        // Then
+        assertThat(source).isEqualTo("replica");
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldFallBackToPrimaryWhenReplicaConnectionFails() {
+        // Given
+        DriverManagerDataSource missing = new DriverManagerDataSource("jdbc:h2:mem:missing-replica;IFEXISTS=TRUE", "sa", "");
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(missing, properties) {
+            @Override
+            public boolean isAvailable() {
+                // Последняя проверка была успешной, реплика пропала после нее
+                return true;
+            }
+        };
+        routing = new ReadWriteRoutingDataSource(primary, missing, monitor, null);
+        jdbc = new JdbcTemplate(lazy(routing));
+        readOnly = transactionTemplate(true, jdbc.getDataSource());
+
+        // When
+        String source = readOnly.execute(status -> currentSource());
+
+        // Then
+        assertThat(source).isEqualTo("primary");
+        assertThat(routing.getFallbackConnections()).isEqualTo(1);
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldReadOwnWritesFromPrimary() {
+        // Given
+        lagMonitor.check();
+        currentUser.set("alice");
+        readWrite.executeWithoutResult(status -> jdbc.update("INSERT INTO source VALUES ('written')"));
+
+        // When
+        String writer = readOnly.execute(status -> currentSource());
+        currentUser.set("bob");
+        String otherUser = readOnly.execute(status -> currentSource());
+
+        // Then
+        assertThat(writer).isEqualTo("primary");
+        assertThat(otherUser).isEqualTo("replica");
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldNotPinUserAfterRollback() {
+        // Given
+        lagMonitor.check();
+        currentUser.set("alice");
+        readWrite.executeWithoutResult(status -> {
+            jdbc.update("INSERT INTO source VALUES ('written')");
+            status.setRollbackOnly();
+        });
+
+        // When
+        String source = readOnly.execute(status -> currentSource());
+
+        // Then
+        assertThat(source).isEqualTo("replica");
+    }
+
+    private void build() {
+        tracker = new ReadYourWritesTracker(currentUser::get, ReadYourWritesTracker.window(properties));
+        routing = new ReadWriteRoutingDataSource(primary, replica, lagMonitor, tracker);
+        jdbc = new JdbcTemplate(lazy(routing));
+        readOnly = transactionTemplate(true, jdbc.getDataSource());
+        readWrite = transactionTemplate(false, jdbc.getDataSource());
+    }
+
+    private TransactionTemplate transactionTemplate(boolean readOnlyFlag, DataSource dataSource) {
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionManager.addListener(new RoutingTransactionListener(routing, tracker, null));
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnlyFlag);
+        return template;
+    }
+
+    private static DataSource lazy(DataSource target) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy();
+        // Без значений по умолчанию прокси берет одно соединение для их чтения, и оно попадает в счетчики
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        proxy.setTargetDataSource(target);
+        proxy.afterPropertiesSet();
+        return proxy;
+    }
+
+    private String currentSource() {
+        return jdbc.queryForObject("SELECT name FROM source FETCH FIRST 1 ROWS ONLY", String.class);
+    }
+
+    private static DriverManagerDataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
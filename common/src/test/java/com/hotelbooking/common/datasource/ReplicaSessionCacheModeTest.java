@@ -0,0 +1,190 @@
+package com.hotelbooking.common.datasource;
+
+import com.hotelbooking.common.cache.CaffeineRegionFactory;
+import com.hotelbooking.common.cache.SecondLevelCacheProperties;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.SessionFactory;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для ReplicaSessionCacheMode: реплика вместе со вторым уровнем кэша Hibernate
+ */
+class ReplicaSessionCacheModeTest {
+
+    private final DriverManagerDataSource primary = h2("primary");
+    private final DriverManagerDataSource replica = h2("replica");
+    private final ReadReplicaProperties properties = new ReadReplicaProperties();
+
+    private ReplicaLagMonitor lagMonitor;
+    private EntityManagerFactory entityManagerFactory;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        for (DriverManagerDataSource dataSource : new DriverManagerDataSource[] {primary, replica}) {
+            JdbcTemplate template = new JdbcTemplate(dataSource);
+            template.execute("CREATE TABLE items (id BIGINT PRIMARY KEY, name VARCHAR(20))");
+            template.update("INSERT INTO items VALUES (1, ?)", dataSource == primary ? "primary" : "replica");
+        }
+        properties.setMaxLag(Duration.ofSeconds(5));
+        lagMonitor = new ReplicaLagMonitor(replica, properties);
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica, lagMonitor, null);
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(lazy(routing));
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setManagedTypes(PersistenceManagedTypes.of(Item.class.getName()));
+        factory.setJpaPropertyMap(Map.of(
+            AvailableSettings.USE_SECOND_LEVEL_CACHE, true,
+            AvailableSettings.CACHE_REGION_FACTORY, new CaffeineRegionFactory(new SecondLevelCacheProperties()),
+            ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.CREATE.getExternalRepresentation(),
+            AvailableSettings.USE_QUERY_CACHE, true,
+            AvailableSettings.GENERATE_STATISTICS, true));
+        factory.afterPropertiesSet();
+        entityManagerFactory = factory.getObject();
+
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        transactionManager.addListener(new RoutingTransactionListener(routing, null, ReplicaSessionCacheMode::bypassCache));
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManagerFactory.close();
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void replicaRead_ShouldNotPutIntoSecondLevelCache() {
+        // Given
+        lagMonitor.check();
+
+        // When
+        String name = readOnly.execute(status -> findName());
+
+        // Then
+        assertThat(name).isEqualTo("replica");
+        assertThat(entityManagerFactory.getCache().contains(Item.class, 1L)).isFalse();
+    }
+
+    @Test
+    void replicaQuery_ShouldNotPutIntoQueryCache() {
+        // Given
+        lagMonitor.check();
+
+        // When
+        String name = readOnly.execute(status -> queryName());
+
+        // Then
+        assertThat(name).isEqualTo("replica");
+        assertThat(statistics().getQueryCachePutCount()).isZero();
+    }
+
+    @Test
+    void primaryQuery_ShouldPutIntoQueryCache() {
+        // When
+        String name = readOnly.execute(status -> queryName());
+
+        // Then
+        assertThat(name).isEqualTo("primary");
+        assertThat(statistics().getQueryCachePutCount()).isEqualTo(1);
+    }
+
+    @Test
+    void primaryRead_ShouldPutIntoSecondLevelCache() {
+        // When: реплика еще не проверялась, read-only транзакция читает основной источник
+        String name = readOnly.execute(status -> findName());
+
+        // Then
+        assertThat(name).isEqualTo("primary");
+        assertThat(entityManagerFactory.getCache().contains(Item.class, 1L)).isTrue();
+    }
+
+    @Test
+    void replicaRead_ShouldNotAffectLaterPrimaryTransactions() {
+        // Given
+        lagMonitor.check();
+        readOnly.execute(status -> findName());
+
+        // When
+        String name = readWrite.execute(status -> findName());
+
+        // Then
+        assertThat(name).isEqualTo("primary");
+        assertThat(entityManagerFactory.getCache().contains(Item.class, 1L)).isTrue();
+    }
+
+    private String findName() {
+        return EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory).find(Item.class, 1L).getName();
+    }
+
+    private String queryName() {
+        return EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)
+            .createQuery("SELECT i.name FROM Item i WHERE i.id = 1", String.class)
+            .setHint(HibernateHints.HINT_CACHEABLE, true)
+            .getSingleResult();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static DriverManagerDataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:cache-mode-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private static LazyConnectionDataSourceProxy lazy(ReadWriteRoutingDataSource routing) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy();
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        proxy.setTargetDataSource(routing);
+        proxy.afterPropertiesSet();
+        return proxy;
+    }
+
+    @Entity(name = "Item")
+    @Table(name = "items")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
+    public static class Item {
+
+        @Id
+        private Long id;
+
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+    }
+}
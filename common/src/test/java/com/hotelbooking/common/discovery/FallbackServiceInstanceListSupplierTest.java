@@ -0,0 +1,128 @@
+package com.hotelbooking.common.discovery;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тесты для FallbackServiceInstanceListSupplier
+ */
+class FallbackServiceInstanceListSupplierTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+    private static final ServiceInstance HOTEL_1 =
+        new DefaultServiceInstance("hotel-service-1", "hotel-service", "10.0.0.1", 8081, false);
+
+    @TempDir
+    Path tempDir;
+
+    private ServiceInstanceListSupplier delegate;
+    private Path snapshotFile;
+    private RegistrySnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(ServiceInstanceListSupplier.class);
+        when(delegate.getServiceId()).thenReturn("hotel-service");
+        snapshotFile = tempDir.resolve("snapshot.json");
+        snapshot = snapshotAt(NOW);
+    }
+
+    @Test
+    void get_ShouldUseSnapshotFromPreviousRunWhenDiscoveryIsEmpty() {
+        // Given
+        when(delegate.get()).thenReturn(Flux.just(List.of(HOTEL_1)));
+        new FallbackServiceInstanceListSupplier(delegate, null, snapshot).get().blockFirst();
+        snapshot.flush();
+        when(delegate.get()).thenReturn(Flux.just(List.of()));
+
+        // When
+        List<ServiceInstance> instances =
+            new FallbackServiceInstanceListSupplier(delegate, null, snapshotAt(NOW.plusSeconds(60))).get().blockFirst();
+
+        // Then
+        assertThat(instances).hasSize(1);
+        assertThat(instances.get(0).getInstanceId()).isEqualTo("hotel-service-1");
+        assertThat(instances.get(0).getUri().toString()).isEqualTo("http://10.0.0.1:8081");
+    }
+
+    @Test
+    void get_ShouldIgnoreSnapshotOlderThanMaxAge() {
+        // Given
+        snapshot.update("hotel-service", List.of(HOTEL_1));
+        snapshot.flush();
+        when(delegate.get()).thenReturn(Flux.just(List.of()));
+
+        // When
+        List<ServiceInstance> instances =
+            new FallbackServiceInstanceListSupplier(delegate, null, snapshotAt(NOW.plus(Duration.ofDays(2)))).get().blockFirst();
+
+        // Then
+        assertThat(instances).isEmpty();
+    }
+
+    @Test
+    void get_ShouldPreferDiscoveryOverFallback() throws IOException {
+        // Given
+        StaticServiceInstances staticInstances = staticFile("{\"hotel-service\": [\"http://static-host:9000\"]}");
+        when(delegate.get()).thenReturn(Flux.just(List.of(HOTEL_1)));
+
+        // When
+        List<ServiceInstance> instances =
+            new FallbackServiceInstanceListSupplier(delegate, staticInstances, snapshot).get().blockFirst();
+
+        // Then
+        assertThat(instances).containsExactly(HOTEL_1);
+        assertThat(snapshot.getInstances("hotel-service")).hasSize(1);
+    }
+
+    @Test
+    void get_ShouldUseStaticFileWhenDiscoveryFails() throws IOException {
+        // Given
+        StaticServiceInstances staticInstances = staticFile("{\"hotel-service\": [\"http://static-host:9000\"]}");
+        when(delegate.get()).thenReturn(Flux.error(new IllegalStateException("eureka is down")));
+        FallbackServiceInstanceListSupplier supplier = new FallbackServiceInstanceListSupplier(delegate, staticInstances, snapshot);
+
+        // When
+        List<ServiceInstance> before = supplier.get().blockFirst();
+        Path file = tempDir.resolve("static.json");
+        Files.writeString(file, "{\"hotel-service\": [\"https://a:9443\", \"http://b:9001\"]}");
+        Files.setLastModifiedTime(file, FileTime.from(NOW.plusSeconds(10)));
+        List<ServiceInstance> after = supplier.get().blockFirst();
+
+        // Then
+        assertThat(before).extracting(ServiceInstance::getInstanceId).containsExactly("hotel-service/static-host:9000");
+        assertThat(after).extracting(ServiceInstance::getUri).extracting(Object::toString)
+            .containsExactly("https://a:9443", "http://b:9001");
+    }
+
+    private RegistrySnapshot snapshotAt(Instant now) {
+        return new RegistrySnapshot(snapshotFile, Duration.ofDays(1), new ObjectMapper(), Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private StaticServiceInstances staticFile(String json) throws IOException {
+        Path file = tempDir.resolve("static.json");
+        Files.writeString(file, json);
+        Files.setLastModifiedTime(file, FileTime.from(NOW));
+        return new StaticServiceInstances(file, new ObjectMapper());
+    }
+}
@@ -0,0 +1,126 @@
+package com.hotelbooking.common.discovery;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.CachingServiceInstanceListSupplier;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для RegistryPushOverlay и обработки событий RegistryEventSubscriber
+ */
+class RegistryPushOverlayTest {
+
+    private static final ServiceInstance HOTEL_1 =
+        new DefaultServiceInstance("host1:hotel-service:8081", "hotel-service", "host1", 8081, false);
+
+    private MutableClock clock;
+    private RegistryPushOverlay overlay;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-01-01T10:00:00Z"));
+        overlay = new RegistryPushOverlay(Duration.ofMinutes(2), clock);
+    }
+
+    @Test
+    void apply_ShouldAddRegisteredInstanceBeforeDiscoverySeesIt() {
+        // When
+        String serviceId = overlay.onEvent(new RegistryEvent(RegistryEvent.REGISTERED, "HOTEL-SERVICE",
+            "host2:hotel-service:8081", "host2", 8081, false, "UP"));
+
+        // Then
+        assertThat(serviceId).isEqualTo("hotel-service");
+        assertThat(overlay.apply("hotel-service", List.of(HOTEL_1)))
+            .extracting(ServiceInstance::getInstanceId)
+            .containsExactly("host1:hotel-service:8081", "host2:hotel-service:8081");
+    }
+
+    @Test
+    void apply_ShouldRemoveCancelledAndNotUpInstances() {
+        // Given
+        ServiceInstance hotel2 = new DefaultServiceInstance("host2:hotel-service:8081", "hotel-service", "host2", 8081, false);
+
+        // When
+        overlay.onEvent(new RegistryEvent(RegistryEvent.CANCELLED, "HOTEL-SERVICE",
+            "host1:hotel-service:8081", null, null, null, null));
+        overlay.onEvent(new RegistryEvent(RegistryEvent.REGISTERED, "HOTEL-SERVICE",
+            "host2:hotel-service:8081", "host2", 8081, false, "OUT_OF_SERVICE"));
+
+        // Then
+        assertThat(overlay.apply("hotel-service", List.of(HOTEL_1, hotel2))).isEmpty();
+    }
+
+    @Test
+    void apply_ShouldForgetEventsAfterTtl() {
+        // Given
+        overlay.onEvent(new RegistryEvent(RegistryEvent.CANCELLED, "HOTEL-SERVICE",
+            "host1:hotel-service:8081", null, null, null, null));
+
+        // When
+        clock.advance(Duration.ofMinutes(2));
+
+        // Then
+        assertThat(overlay.apply("hotel-service", List.of(HOTEL_1))).containsExactly(HOTEL_1);
+    }
+
+    @Test
+    void onData_ShouldUpdateOverlayAndEvictLoadBalancerCache() {
+        // Given
+        ConcurrentMapCacheManager cacheManager =
+            new ConcurrentMapCacheManager(CachingServiceInstanceListSupplier.SERVICE_INSTANCE_CACHE_NAME);
+        cacheManager.getCache(CachingServiceInstanceListSupplier.SERVICE_INSTANCE_CACHE_NAME)
+            .put("hotel-service", List.of(HOTEL_1));
+        RegistryEventSubscriber subscriber = new RegistryEventSubscriber(URI.create("http://localhost:8761/registry/events"),
+            Duration.ofSeconds(5), overlay, cacheManager, new ObjectMapper());
+
+        // When
+        subscriber.onData("{\"action\":\"REGISTERED\",\"app\":\"HOTEL-SERVICE\",\"instanceId\":\"host2:hotel-service:8081\","
+            + "\"host\":\"host2\",\"port\":8081,\"secure\":false,\"status\":\"UP\",\"zone\":\"a\"}");
+
+        // Then
+        assertThat(cacheManager.getCache(CachingServiceInstanceListSupplier.SERVICE_INSTANCE_CACHE_NAME)
+            .get("hotel-service")).isNull();
+        assertThat(overlay.apply("hotel-service", List.of())).extracting(ServiceInstance::getHost).containsExactly("host2");
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
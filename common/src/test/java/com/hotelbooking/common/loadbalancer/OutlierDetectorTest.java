@@ -0,0 +1,116 @@
+package com.hotelbooking.common.loadbalancer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для OutlierDetector
+ */
+class OutlierDetectorTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private OutlierDetector detector;
+    private InstanceStats stats;
+
+    @BeforeEach
+    void setUp() {
+        LatencyAwareLoadBalancerProperties.Outlier properties = new LatencyAwareLoadBalancerProperties.Outlier();
+        properties.setConsecutiveFailures(3);
+        properties.setBaseEjectionTime(Duration.ofSeconds(10));
+        properties.setMaxEjectionTime(Duration.ofSeconds(60));
+        detector = new OutlierDetector(properties);
+        stats = new InstanceStats(10 * SECOND, 60 * SECOND, 0);
+    }
+
+    @Test
+    void onFailure_ShouldEjectAfterConsecutiveFailures() {
+        // When
+        detector.onFailure("hotel-service/a:1", stats, 0);
+        detector.onFailure("hotel-service/a:1", stats, 0);
+        boolean ejectedBeforeThreshold = stats.isEjected(0);
+        detector.onFailure("hotel-service/a:1", stats, 0);
+
+        // Then
+        assertThat(ejectedBeforeThreshold).isFalse();
+        assertThat(stats.isEjected(0)).isTrue();
+        assertThat(stats.isEjected(10 * SECOND)).isFalse();
+    }
+
+    @Test
+    void onSuccess_ShouldResetConsecutiveFailures() {
+        // Given
+        detector.onFailure("hotel-service/a:1", stats, 0);
+        detector.onFailure("hotel-service/a:1", stats, 0);
+
+        // When
+        detector.onSuccess("hotel-service/a:1", stats, 0);
+        detector.onFailure("hotel-service/a:1", stats, 0);
+
+        // Then
+        assertThat(stats.isEjected(0)).isFalse();
+        assertThat(stats.getConsecutiveFailures()).isEqualTo(1);
+    }
+
+    @Test
+    void ejectionTime_ShouldGrowExponentiallyUpToMax() {
+        // Then
+        assertThat(detector.ejectionTime(0)).isEqualTo(10 * SECOND);
+        assertThat(detector.ejectionTime(1)).isEqualTo(20 * SECOND);
+        assertThat(detector.ejectionTime(2)).isEqualTo(40 * SECOND);
+        assertThat(detector.ejectionTime(3)).isEqualTo(60 * SECOND);
+        assertThat(detector.ejectionTime(100)).isEqualTo(60 * SECOND);
+    }
+
+    @Test
+    void select_ShouldSkipEjectedInstances_UnlessAllEjected() {
+        // Given
+        InstanceStatsRegistry registry = new InstanceStatsRegistry(new LatencyAwareLoadBalancerProperties());
+        PeakEwmaLoadBalancer loadBalancer = new PeakEwmaLoadBalancer("hotel-service", null, registry);
+        ServiceInstance healthy = new DefaultServiceInstance("hotel-1", "hotel-service", "10.0.0.1", 8081, false);
+        ServiceInstance failing = new DefaultServiceInstance("hotel-2", "hotel-service", "10.0.0.2", 8081, false);
+        registry.get(failing).eject(System.nanoTime() + 60 * SECOND);
+
+        // When
+        for (int i = 0; i < 50; i++) {
+            assertThat(loadBalancer.select(List.of(healthy, failing)).getServer()).isEqualTo(healthy);
+        }
+        ServiceInstance fallback = loadBalancer.select(List.of(failing)).getServer();
+
+        // Then
+        assertThat(fallback).isEqualTo(failing);
+    }
+
+    @Test
+    void isFailure_ShouldCountServerErrorsButNotClientErrors() {
+        // Given
+        ServiceInstance instance = new DefaultServiceInstance("hotel-1", "hotel-service", "10.0.0.1", 8081, false);
+
+        // Then
+        assertThat(InstanceStatsLifecycle.isFailure(completion(instance, HttpStatus.SERVICE_UNAVAILABLE))).isTrue();
+        assertThat(InstanceStatsLifecycle.isFailure(completion(instance, HttpStatus.NOT_FOUND))).isFalse();
+        assertThat(InstanceStatsLifecycle.isFailure(new CompletionContext<>(CompletionContext.Status.FAILED,
+            new RuntimeException("timeout"), new DefaultRequest<>(), new DefaultResponse(instance)))).isTrue();
+    }
+
+    private CompletionContext<Object, ServiceInstance, Object> completion(ServiceInstance instance, HttpStatus status) {
+        ResponseData response = new ResponseData(status, new HttpHeaders(), null, (RequestData) null);
+        return new CompletionContext<>(CompletionContext.Status.SUCCESS, new DefaultRequest<>(),
+            new DefaultResponse(instance), response);
+    }
+}
@@ -0,0 +1,108 @@
+package com.hotelbooking.common.loadbalancer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+/**
+ * Тесты для PeakEwmaLoadBalancer и InstanceStats
+ */
+class PeakEwmaLoadBalancerTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private InstanceStatsRegistry registry;
+    private PeakEwmaLoadBalancer loadBalancer;
+    private ServiceInstance fast;
+    private ServiceInstance slow;
+
+    @BeforeEach
+    void setUp() {
+        registry = new InstanceStatsRegistry(new LatencyAwareLoadBalancerProperties());
+        loadBalancer = new PeakEwmaLoadBalancer("hotel-service", null, registry);
+        fast = new DefaultServiceInstance("hotel-1", "hotel-service", "10.0.0.1", 8081, false);
+        slow = new DefaultServiceInstance("hotel-2", "hotel-service", "10.0.0.2", 8081, false);
+    }
+
+    @Test
+    void select_ShouldPreferInstanceWithLowerLatency() {
+        // Given
+        long now = System.nanoTime();
+        registry.get(fast).observe(5 * MILLI, now);
+        registry.get(slow).observe(500 * MILLI, now);
+
+        // When
+        Response<ServiceInstance> response = null;
+        for (int i = 0; i < 100; i++) {
+            response = loadBalancer.select(List.of(fast, slow));
+            assertThat(response.getServer()).isEqualTo(fast);
+        }
+
+        // Then
+        assertThat(response.hasServer()).isTrue();
+    }
+
+    @Test
+    void select_ShouldAvoidInstanceWithManyOutstandingRequests() {
+        // Given
+        long now = System.nanoTime();
+        registry.get(fast).observe(5 * MILLI, now);
+        registry.get(slow).observe(20 * MILLI, now);
+        for (int i = 0; i < 10; i++) {
+            registry.get(fast).requestStarted(now);
+        }
+
+        // When
+        Response<ServiceInstance> response = loadBalancer.select(List.of(fast, slow));
+
+        // Then
+        assertThat(response.getServer()).isEqualTo(slow);
+    }
+
+    @Test
+    void select_ShouldReturnEmptyResponse_WhenNoInstances() {
+        // When
+        Response<ServiceInstance> response = loadBalancer.select(List.of());
+
+        // Then
+        assertThat(response.hasServer()).isFalse();
+    }
+
+    @Test
+    void observe_ShouldTakePeakImmediatelyAndDecayOverTime() {
+        // Given
+        long decay = TimeUnit.SECONDS.toNanos(10);
+        InstanceStats stats = new InstanceStats(decay, TimeUnit.MINUTES.toNanos(1), 0);
+        stats.observe(10 * MILLI, 0);
+
+        // When
+        stats.observe(200 * MILLI, MILLI);
+
+        // Then
+        assertThat(stats.getEwmaMillis(MILLI)).isEqualTo(200.0);
+        assertThat(stats.getEwmaMillis(MILLI + decay)).isCloseTo(200.0 / Math.E, offset(0.01));
+    }
+
+    @Test
+    void requestFinished_ShouldReleaseOutstandingAndRecordLatency() {
+        // Given
+        InstanceStats stats = new InstanceStats(TimeUnit.SECONDS.toNanos(10), TimeUnit.MINUTES.toNanos(1), 0);
+        stats.requestStarted(0);
+
+        // When
+        stats.requestFinished(30 * MILLI, 30 * MILLI);
+
+        // Then
+        assertThat(stats.getOutstanding()).isZero();
+        assertThat(stats.getEwmaMillis(30 * MILLI)).isEqualTo(30.0);
+        assertThat(stats.cost(30 * MILLI)).isEqualTo(30.0 * MILLI);
+    }
+}
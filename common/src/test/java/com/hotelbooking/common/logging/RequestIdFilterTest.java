@@ -0,0 +1,147 @@
+package com.hotelbooking.common.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Тесты для RequestIdFilter и SampledDebugTurboFilter
+ */
+class RequestIdFilterTest {
+
+    @Test
+    void doFilter_ShouldPutRequestIdIntoMdcAndClearAfterwards() throws Exception {
+        // Given
+        RequestIdFilter filter = new RequestIdFilter(1.0);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(RequestIdFilter.REQUEST_ID_HEADER, "req-42");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> requestIdInChain = new AtomicReference<>();
+        AtomicReference<String> sampledInChain = new AtomicReference<>();
+        FilterChain chain = (req, res) -> {
+            requestIdInChain.set(MDC.get(RequestIdFilter.REQUEST_ID_MDC_KEY));
+            sampledInChain.set(MDC.get(RequestIdFilter.SAMPLED_MDC_KEY));
+        };
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertThat(requestIdInChain.get()).isEqualTo("req-42");
+        assertThat(sampledInChain.get()).isEqualTo("true");
+        assertThat(response.getHeader(RequestIdFilter.REQUEST_ID_HEADER)).isEqualTo("req-42");
+        assertThat(MDC.get(RequestIdFilter.REQUEST_ID_MDC_KEY)).isNull();
+        assertThat(MDC.get(RequestIdFilter.SAMPLED_MDC_KEY)).isNull();
+    }
+
+    @Test
+    void doFilter_WithoutHeader_ShouldGenerateRequestId() throws Exception {
+        // Given
+        RequestIdFilter filter = new RequestIdFilter(0);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> sampledInChain = new AtomicReference<>("unset");
+
+        // When
+        filter.doFilter(new MockHttpServletRequest(), response,
+                (req, res) -> sampledInChain.set(MDC.get(RequestIdFilter.SAMPLED_MDC_KEY)));
+
+        // Then
+        assertThat(response.getHeader(RequestIdFilter.REQUEST_ID_HEADER)).isNotBlank();
+        assertThat(sampledInChain.get()).isNull();
+    }
+
+    @Test
+    void doFilter_WithUnsafeHeader_ShouldReplaceRequestId() throws Exception {
+        // Given
+        RequestIdFilter filter = new RequestIdFilter(0);
+        String tooLong = "a".repeat(RequestIdFilter.MAX_REQUEST_ID_LENGTH + 1);
+
+        for (String unsafe : new String[] {"req 42", "req\nforged=1", "req-{\"x\"}", "запрос", tooLong}) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.addHeader(RequestIdFilter.REQUEST_ID_HEADER, unsafe);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            AtomicReference<String> requestIdInChain = new AtomicReference<>();
+
+            // When
+            filter.doFilter(request, response, (req, res) -> requestIdInChain.set(MDC.get(RequestIdFilter.REQUEST_ID_MDC_KEY)));
+
+            // Then
+            assertThat(requestIdInChain.get()).isNotEqualTo(unsafe).matches("[0-9a-f-]{36}");
+            assertThat(response.getHeader(RequestIdFilter.REQUEST_ID_HEADER)).isEqualTo(requestIdInChain.get());
+        }
+    }
+
+    @Test
+    void isValidRequestId_ShouldAcceptUpTo64SafeCharacters() {
+        assertThat(RequestIdFilter.isValidRequestId("Req_1.2-3")).isTrue();
+        assertThat(RequestIdFilter.isValidRequestId("a".repeat(RequestIdFilter.MAX_REQUEST_ID_LENGTH))).isTrue();
+        assertThat(RequestIdFilter.isValidRequestId("")).isFalse();
+        assertThat(RequestIdFilter.isValidRequestId(null)).isFalse();
+    }
+
+    @Test
+    void turboFilter_ShouldAcceptDebugOnlyForSampledRequestsOfApplicationLoggers() {
+        // Given
+        SampledDebugTurboFilter turboFilter = new SampledDebugTurboFilter();
+        LoggerContext context = new LoggerContext();
+        Logger appLogger = context.getLogger("com.hotelbooking.booking.service.BookingService");
+        Logger frameworkLogger = context.getLogger("org.hibernate.SQL");
+
+        // When
+        FilterReply unsampled = turboFilter.decide(null, appLogger, Level.DEBUG, "msg", null, null);
+        MDC.put(RequestIdFilter.SAMPLED_MDC_KEY, "true");
+        FilterReply sampled;
+        FilterReply framework;
+        FilterReply info;
+        try {
+            sampled = turboFilter.decide(null, appLogger, Level.DEBUG, "msg", null, null);
+            framework = turboFilter.decide(null, frameworkLogger, Level.DEBUG, "msg", null, null);
+            info = turboFilter.decide(null, appLogger, Level.INFO, "msg", null, null);
+        } finally {
+            MDC.remove(RequestIdFilter.SAMPLED_MDC_KEY);
+        }
+
+        // Then
+        assertThat(unsampled).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(sampled).isEqualTo(FilterReply.ACCEPT);
+        assertThat(framework).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(info).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    void isSampled_ShouldBeDeterministicAndRoughlyMatchRate() {
+        // Given
+        RequestIdFilter filter = new RequestIdFilter(0.1);
+
+        // When
+        int sampled = 0;
+        for (int i = 0; i < 100_000; i++) {
+            String requestId = "request-" + i;
+            boolean first = filter.isSampled(requestId);
+            assertThat(filter.isSampled(requestId)).isEqualTo(first);
+            if (first) {
+                sampled++;
+            }
+        }
+
+        // Then
+        assertThat(sampled).isBetween(8_000, 12_000);
+    }
+
+    @Test
+    void constructor_WithInvalidRate_ShouldFail() {
+        assertThatThrownBy(() -> new RequestIdFilter(1.5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
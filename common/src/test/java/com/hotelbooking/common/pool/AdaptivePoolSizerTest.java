@@ -0,0 +1,115 @@
+package com.hotelbooking.common.pool;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для AdaptivePoolSizer
+ */
+class AdaptivePoolSizerTest {
+
+    private final ConnectionPoolProperties properties = new ConnectionPoolProperties();
+    private final HikariPoolInstrumentation instrumentation =
+        new HikariPoolInstrumentation(SimpleMeterRegistry::new, properties);
+    private final HikariDataSource dataSource = new HikariDataSource();
+    private PoolUsageStats stats;
+    private AdaptivePoolSizer sizer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties.getAdaptive().setMinSize(4);
+        properties.getAdaptive().setMaxSize(9);
+        properties.getAdaptive().setStep(2);
+        properties.getAdaptive().setShrinkAfter(3);
+        properties.getAdaptive().setTargetWait(Duration.ofMillis(5));
+        dataSource.setJdbcUrl("jdbc:h2:mem:pool-sizer;DB_CLOSE_DELAY=-1");
+        dataSource.setPoolName("sizer");
+        dataSource.setMaximumPoolSize(6);
+        instrumentation.instrument(dataSource);
+        // Пул Hikari стартует на первом соединении
+        dataSource.getConnection().close();
+        stats = instrumentation.getPools().get(0).getStats();
+        stats.drain();
+        sizer = new AdaptivePoolSizer(instrumentation, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void resize_ShouldGrowUpToMaxSizeWhileWaitExceedsTarget() {
+        // Given
+        int[] sizes = new int[3];
+
+        // When
+        for (int i = 0; i < sizes.length; i++) {
+            stats.acquired(Duration.ofMillis(20).toNanos());
+            stats.released();
+            sizer.resize();
+            sizes[i] = dataSource.getMaximumPoolSize();
+        }
+
+        // Then
+        assertThat(sizes).containsExactly(8, 9, 9);
+    }
+
+    @Test
+    void resize_ShouldGrowOnTimeout() {
+        // Given
+        stats.timedOut();
+
+        // When
+        sizer.resize();
+
+        // Then
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(8);
+    }
+
+    @Test
+    void resize_ShouldShrinkAfterCalmWindowsDownToMinSize() {
+        // Given
+        stats.acquired(Duration.ofMillis(1).toNanos());
+        stats.released();
+
+        // When
+        sizer.resize();
+        sizer.resize();
+        int beforeShrink = dataSource.getMaximumPoolSize();
+        sizer.resize();
+        int afterShrink = dataSource.getMaximumPoolSize();
+        for (int i = 0; i < 3; i++) {
+            sizer.resize();
+        }
+
+        // Then
+        assertThat(beforeShrink).isEqualTo(6);
+        assertThat(afterShrink).isEqualTo(4);
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(4);
+        assertThat(dataSource.getMinimumIdle()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void resize_ShouldNotShrinkWhenPeakUsageLeavesNoSpare() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            stats.acquired(0);
+        }
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            sizer.resize();
+        }
+
+        // Then
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(6);
+    }
+}
@@ -0,0 +1,105 @@
+package com.hotelbooking.common.pool;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для HikariPoolInstrumentation
+ */
+class HikariPoolInstrumentationTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final HikariPoolInstrumentation instrumentation =
+        new HikariPoolInstrumentation(() -> registry, new ConnectionPoolProperties());
+    private final HikariDataSource dataSource = dataSource();
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        dataSource.close();
+    }
+
+    @Test
+    void hold_ShouldBeTaggedWithEndpointOfRequest() throws Exception {
+        // Given
+        instrumentation.instrument(dataSource);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/booking");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/booking");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        // When
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("SELECT 1");
+        }
+
+        // Then
+        Timer hold = registry.find("datasource.connection.hold")
+            .tags("pool", "test", "method", "POST", "uri", "/booking").timer();
+        assertThat(hold).isNotNull();
+        assertThat(hold.count()).isEqualTo(1);
+        assertThat(registry.find("hikaricp.connections.acquire").tag("pool", "test").timer()).isNotNull();
+    }
+
+    @Test
+    void hold_ShouldBeTaggedNoneOutsideRequest() throws Exception {
+        // Given
+        instrumentation.instrument(dataSource);
+
+        // When
+        dataSource.getConnection().close();
+
+        // Then
+        assertThat(registry.find("datasource.connection.hold")
+            .tags(HikariPoolInstrumentation.NO_REQUEST.and("pool", "test")).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void leaks_ShouldCountConnectionsHeldLongerThanThreshold() throws Exception {
+        // Given
+        dataSource.setLeakDetectionThreshold(2000);
+        instrumentation.instrument(dataSource);
+
+        // When
+        dataSource.getConnection().close();
+        try (Connection ignored = dataSource.getConnection()) {
+            Thread.sleep(2100);
+        }
+
+        // Then
+        assertThat(registry.find("datasource.connection.leaks").tags(Tags.of("pool", "test")).counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void instrument_ShouldSkipPoolWithOwnMetrics() {
+        // Given
+        dataSource.setMetricRegistry(new SimpleMeterRegistry());
+
+        // When
+        instrumentation.instrument(dataSource);
+
+        // Then
+        assertThat(instrumentation.getPools()).isEmpty();
+    }
+
+    private static HikariDataSource dataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:pool-instrumentation;DB_CLOSE_DELAY=-1");
+        dataSource.setPoolName("test");
+        dataSource.setMaximumPoolSize(2);
+        return dataSource;
+    }
+}
@@ -0,0 +1,117 @@
+package com.hotelbooking.common.security;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Тесты для TrustedPrincipalVerifier
+ */
+class TrustedPrincipalVerifierTest {
+
+    private static final String SECRET = "testSecretKeyForTrustedGatewayHeaderSigning2024";
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    private final TrustedPrincipalVerifier verifier = new TrustedPrincipalVerifier(SECRET, Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void verify_ValidHeader_ShouldReturnPrincipal() {
+        // Given
+        String header = sign(SECRET, "2\nUSER\n" + (NOW.getEpochSecond() + 60) + "\nuser");
+
+        // When
+        TrustedPrincipal principal = verifier.verify(header);
+
+        // Then
+        assertThat(principal).isEqualTo(new TrustedPrincipal(2L, "USER", "user"));
+    }
+
+    @Test
+    void verify_WithoutUserId_ShouldReturnPrincipalWithoutId() {
+        // Given
+        String header = sign(SECRET, "\nADMIN\n" + (NOW.getEpochSecond() + 60) + "\nlegacy");
+
+        // When
+        TrustedPrincipal principal = verifier.verify(header);
+
+        // Then
+        assertThat(principal).isEqualTo(new TrustedPrincipal(null, "ADMIN", "legacy"));
+    }
+
+    @Test
+    void verify_UsernameWithNewline_ShouldKeepItWhole() {
+        // Given: имя пользователя последнее поле, переводы строк в нем не ломают разбор
+        String header = sign(SECRET, "3\nUSER\n" + (NOW.getEpochSecond() + 60) + "\nodd\nname");
+
+        // When & Then
+        assertThat(verifier.verify(header).username()).isEqualTo("odd\nname");
+    }
+
+    @Test
+    void verify_WrongSignature_ShouldReturnNull() {
+        // Given
+        String header = sign("anotherSecretKeyForTrustedGatewayHeaderSigning2024", "2\nADMIN\n" + (NOW.getEpochSecond() + 60) + "\nuser");
+
+        // When & Then
+        assertThat(verifier.verify(header)).isNull();
+        assertThat(verifier.verify("garbage")).isNull();
+        assertThat(verifier.verify(".signature")).isNull();
+        assertThat(verifier.verify("not-base64!.also-not")).isNull();
+    }
+
+    @Test
+    void verify_Expired_ShouldReturnNull() {
+        // Given
+        String header = sign(SECRET, "2\nUSER\n" + NOW.getEpochSecond() + "\nuser");
+
+        // When & Then
+        assertThat(verifier.verify(header)).isNull();
+    }
+
+    @Test
+    void verify_MalformedPayload_ShouldReturnNull() {
+        // Given: подпись верна, но полей не хватает или числа не разбираются
+        String missingFields = sign(SECRET, "2\nUSER\n" + (NOW.getEpochSecond() + 60));
+        String badUserId = sign(SECRET, "x\nUSER\n" + (NOW.getEpochSecond() + 60) + "\nuser");
+        String badExpiry = sign(SECRET, "2\nUSER\nsoon\nuser");
+
+        // When & Then
+        assertThat(verifier.verify(missingFields)).isNull();
+        assertThat(verifier.verify(badUserId)).isNull();
+        assertThat(verifier.verify(badExpiry)).isNull();
+    }
+
+    @Test
+    void constructor_ShortSecret_ShouldFail() {
+        // When & Then
+        assertThatThrownBy(() -> new TrustedPrincipalVerifier("short"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("security.trusted-gateway.secret");
+        assertThatThrownBy(() -> new TrustedPrincipalVerifier(null))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    /**
+     * Подпись в формате шлюза (TrustedPrincipalSigner)
+     */
+    private static String sign(String secret, String payload) {
+        try {
+            Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+            String encodedPayload = encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return encodedPayload + "." + encoder.encodeToString(mac.doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
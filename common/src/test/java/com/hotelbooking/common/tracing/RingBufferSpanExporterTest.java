@@ -0,0 +1,91 @@
+package com.hotelbooking.common.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для RingBufferSpanExporter и TracesEndpoint
+ */
+class RingBufferSpanExporterTest {
+
+    private RingBufferSpanExporter exporter;
+    private SdkTracerProvider tracerProvider;
+    private Tracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new RingBufferSpanExporter(3);
+        tracerProvider = SdkTracerProvider.builder()
+            .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+            .build();
+        tracer = tracerProvider.get("test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Test
+    void export_ShouldKeepOnlyLastSpans() {
+        // When
+        for (int i = 1; i <= 5; i++) {
+            tracer.spanBuilder("span-" + i).startSpan().end();
+        }
+
+        // Then
+        assertThat(exporter.snapshot()).extracting(RecordedSpan::name)
+            .containsExactly("span-3", "span-4", "span-5");
+    }
+
+    @Test
+    void traces_ShouldGroupSpansAndFindRoot() {
+        // Given
+        Instant start = Instant.parse("2026-01-01T10:00:00Z");
+        Span root = tracer.spanBuilder("http post /booking").setStartTimestamp(start).startSpan();
+        Span child = tracer.spanBuilder("HTTP POST").setParent(Context.root().with(root))
+            .setStartTimestamp(start.plusMillis(10)).startSpan();
+        child.end(start.plusMillis(250));
+        root.end(start.plusMillis(300));
+        TracesEndpoint endpoint = new TracesEndpoint(exporter);
+
+        // When
+        List<TracesEndpoint.TraceSummary> traces = endpoint.traces(null, null);
+        List<RecordedSpan> spans = endpoint.trace(root.getSpanContext().getTraceId());
+
+        // Then
+        assertThat(traces).hasSize(1);
+        assertThat(traces.get(0).rootName()).isEqualTo("http post /booking");
+        assertThat(traces.get(0).durationMillis()).isEqualTo(300.0);
+        assertThat(traces.get(0).spanCount()).isEqualTo(2);
+        assertThat(spans).extracting(RecordedSpan::name).containsExactly("http post /booking", "HTTP POST");
+        assertThat(spans.get(1).parentSpanId()).isEqualTo(root.getSpanContext().getSpanId());
+        assertThat(endpoint.traces(301.0, null)).isEmpty();
+    }
+
+    @Test
+    void from_ShouldConvertDurationToMillis() {
+        // Given
+        Span span = tracer.spanBuilder("query").setStartTimestamp(1_000_000, TimeUnit.NANOSECONDS).startSpan();
+
+        // When
+        span.end(2_500_000, TimeUnit.NANOSECONDS);
+
+        // Then
+        RecordedSpan recorded = exporter.snapshot().get(0);
+        assertThat(recorded.durationMillis()).isEqualTo(1.5);
+        assertThat(recorded.parentSpanId()).isNull();
+    }
+}
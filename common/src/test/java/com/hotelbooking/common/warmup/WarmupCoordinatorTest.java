@@ -0,0 +1,131 @@
+package com.hotelbooking.common.warmup;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Тесты для WarmupCoordinator
+ */
+class WarmupCoordinatorTest {
+
+    private final RestClient local = RestClient.create();
+    private final ApplicationEventPublisher publisher = mock(ApplicationEventPublisher.class);
+    private final List<String> calls = new ArrayList<>();
+
+    @Test
+    void warmup_ShouldRunOneShotTasksFirstAndRepeatedTasksInRounds() {
+        // Given
+        WarmupProperties properties = properties(2, Duration.ofSeconds(30));
+        WarmupCoordinator coordinator = new WarmupCoordinator(properties,
+            List.of(recording("hotels"), oneShot("pool"), recording("rooms")), publisher);
+
+        // When
+        WarmupCompletedEvent event = coordinator.warmup(local);
+
+        // Then
+        assertThat(calls).containsExactly("pool", "hotels", "rooms", "hotels", "rooms");
+        assertThat(event.getResults())
+            .extracting(WarmupCompletedEvent.TaskResult::name, WarmupCompletedEvent.TaskResult::iterations)
+            .containsExactly(
+                tuple("hotels", 2),
+                tuple("pool", 1),
+                tuple("rooms", 2));
+    }
+
+    @Test
+    void warmup_ShouldSkipTaskAfterConsecutiveFailures() {
+        // Given
+        WarmupTask failing = WarmupTask.of("hotel-client", client -> {
+            calls.add("hotel-client");
+            throw new IllegalStateException("hotel-service unavailable");
+        });
+        WarmupCoordinator coordinator = new WarmupCoordinator(properties(10, Duration.ofSeconds(30)),
+            List.of(failing, recording("bookings")), publisher);
+
+        // When
+        WarmupCompletedEvent event = coordinator.warmup(local);
+
+        // Then
+        assertThat(calls).filteredOn("hotel-client"::equals).hasSize(WarmupCoordinator.MAX_CONSECUTIVE_FAILURES);
+        assertThat(calls).filteredOn("bookings"::equals).hasSize(10);
+        assertThat(event.getResults().get(0).failures()).isEqualTo(WarmupCoordinator.MAX_CONSECUTIVE_FAILURES);
+        assertThat(event.getResults().get(1).failures()).isZero();
+    }
+
+    @Test
+    void warmup_ShouldStopRepeatingWhenMaxDurationExceeded() {
+        // Given
+        WarmupCoordinator coordinator = new WarmupCoordinator(properties(100, Duration.ZERO),
+            List.of(oneShot("pool"), recording("hotels")), publisher);
+
+        // When
+        coordinator.warmup(local);
+
+        // Then
+        assertThat(calls).containsExactly("pool");
+    }
+
+    @Test
+    void onApplicationEvent_ShouldPublishCompletionWhenDisabled() {
+        // Given
+        WarmupProperties properties = properties(100, Duration.ofSeconds(30));
+        properties.setEnabled(false);
+        WarmupCoordinator coordinator = new WarmupCoordinator(properties, List.of(recording("hotels")), publisher);
+
+        // When
+        coordinator.onApplicationEvent(new ApplicationReadyEvent(new SpringApplication(), new String[0],
+            mock(ConfigurableApplicationContext.class), Duration.ZERO));
+
+        // Then
+        assertThat(calls).isEmpty();
+        ArgumentCaptor<ApplicationEvent> captor = ArgumentCaptor.forClass(ApplicationEvent.class);
+        verify(publisher).publishEvent(captor.capture());
+        assertThat(captor.getValue()).isInstanceOfSatisfying(WarmupCompletedEvent.class,
+            completed -> assertThat(completed.getDuration()).isZero());
+    }
+
+    private WarmupProperties properties(int iterations, Duration maxDuration) {
+        WarmupProperties properties = new WarmupProperties();
+        properties.setIterations(iterations);
+        properties.setMaxDuration(maxDuration);
+        return properties;
+    }
+
+    private WarmupTask recording(String name) {
+        return WarmupTask.of(name, client -> calls.add(name));
+    }
+
+    private WarmupTask oneShot(String name) {
+        return new WarmupTask() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public void run(RestClient client) {
+                calls.add(name);
+            }
+
+            @Override
+            public boolean isRepeated() {
+                return false;
+            }
+        };
+    }
+}
@@ -3,13 +3,16 @@ package com.hotelbooking.eureka;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.netflix.eureka.server.EnableEurekaServer;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Eureka Server для динамического обнаружения сервисов
  * в микросервисной архитектуре системы бронирования отелей
+ * Изменения реестра дополнительно рассылаются подписчикам /registry/events
  */
 @SpringBootApplication
 @EnableEurekaServer
+@EnableScheduling
 public class EurekaServerApplication {
 
     public static void main(String[] args) {
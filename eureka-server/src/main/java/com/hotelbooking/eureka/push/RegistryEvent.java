@@ -0,0 +1,29 @@
+package com.hotelbooking.eureka.push;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.netflix.appinfo.InstanceInfo;
+
+/**
+ * Изменение реестра для подписчиков /registry/events
+ * У CANCELLED известны только приложение и ID экземпляра
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RegistryEvent(Action action, String app, String instanceId, String host, Integer port,
+                            Boolean secure, String status) {
+
+    public enum Action {
+        REGISTERED,
+        CANCELLED
+    }
+
+    static RegistryEvent registered(InstanceInfo instance) {
+        boolean secure = instance.isPortEnabled(InstanceInfo.PortType.SECURE);
+        // Те же ID и хост, что у EurekaServiceInstance на стороне клиента
+        return new RegistryEvent(Action.REGISTERED, instance.getAppName(), instance.getId(), instance.getHostName(),
+            secure ? instance.getSecurePort() : instance.getPort(), secure, instance.getStatus().name());
+    }
+
+    static RegistryEvent cancelled(String app, String instanceId) {
+        return new RegistryEvent(Action.CANCELLED, app, instanceId, null, null, null, null);
+    }
+}
@@ -0,0 +1,88 @@
+package com.hotelbooking.eureka.push;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceCanceledEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRegisteredEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Рассылает изменения реестра подписчикам SSE сразу, не дожидаясь, пока клиенты
+ * заберут дельту опросом (eureka.client.registry-fetch-interval-seconds)
+ * Регистрация и смена статуса приходят как register, штатная остановка - как cancel;
+ * экземпляры, исключенные по истечении аренды, не рассылаются
+ */
+@Component
+@Slf4j
+public class RegistryEventBroadcaster {
+
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+    private final Duration subscriptionTimeout;
+
+    public RegistryEventBroadcaster(@Value("${registry.events.subscription-timeout:30m}") Duration subscriptionTimeout) {
+        this.subscriptionTimeout = subscriptionTimeout;
+    }
+
+    /**
+     * Новый подписчик; по истечении subscriptionTimeout соединение закрывается и клиент переподключается
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(subscriptionTimeout.toMillis());
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(emitter));
+        subscribers.add(emitter);
+        log.debug("Registry events subscriber connected, total: {}", subscribers.size());
+        return emitter;
+    }
+
+    @EventListener
+    public void onRegistered(EurekaInstanceRegisteredEvent event) {
+        broadcast(RegistryEvent.registered(event.getInstanceInfo()));
+    }
+
+    @EventListener
+    public void onCanceled(EurekaInstanceCanceledEvent event) {
+        broadcast(RegistryEvent.cancelled(event.getAppName(), event.getServerId()));
+    }
+
+    /**
+     * Комментарий SSE не дает прокси и клиентам закрыть простаивающее соединение
+     */
+    @Scheduled(fixedDelayString = "${registry.events.heartbeat-interval-ms:20000}")
+    public void heartbeat() {
+        for (SseEmitter emitter : subscribers) {
+            send(emitter, SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private void broadcast(RegistryEvent event) {
+        log.debug("Registry event {} {} {} -> {} subscribers",
+            event.action(), event.app(), event.instanceId(), subscribers.size());
+        for (SseEmitter emitter : subscribers) {
+            send(emitter, SseEmitter.event().name("registry").data(event));
+        }
+    }
+
+    private void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // Клиент отключился; onError/onCompletion могут не сработать до следующей записи
+            subscribers.remove(emitter);
+            emitter.completeWithError(e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.hotelbooking.eureka.push;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Поток изменений реестра (Server-Sent Events, событие registry с JSON RegistryEvent)
+ */
+@RestController
+@RequiredArgsConstructor
+public class RegistryEventsController {
+
+    private final RegistryEventBroadcaster broadcaster;
+
+    @GetMapping(path = "/registry/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events() {
+        return broadcaster.subscribe();
+    }
+}
@@ -1,5 +1,8 @@
 package com.hotelbooking.hotel.config;
 
+import com.hotelbooking.common.security.TrustedPrincipalVerifier;
+import com.hotelbooking.hotel.security.TrustedGatewayBearerTokenResolver;
+import com.hotelbooking.hotel.security.TrustedGatewayFilter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,6 +15,7 @@ import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 
 import javax.crypto.spec.SecretKeySpec;
@@ -27,6 +31,12 @@ public class SecurityConfig {
     @Value("${jwt.secret:mySuperSecretKeyForJWTTokenSigningInHotelBookingSystem2024}")
     private String jwtSecret;
 
+    @Value("${security.trusted-gateway.enabled:false}")
+    private boolean trustedGatewayEnabled;
+
+    @Value("${security.trusted-gateway.secret:}")
+    private String trustedGatewaySecret;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -37,13 +47,21 @@ public class SecurityConfig {
                 .requestMatchers("/api/hotels", "/api/rooms", "/api/rooms/recommend", "/api/rooms/hotel/**").permitAll()
                 // Эндпоинты для подтверждения доступности и компенсации (внутренние для саги)
                 .requestMatchers("/api/rooms/*/confirm-availability", "/api/rooms/*/release").permitAll()
+                // Сбор метрик Prometheus и проверка живости без токена
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                 // Остальные требуют аутентификации
                 .anyRequest().authenticated()
             )
             .oauth2ResourceServer(oauth2 -> oauth2
+                .bearerTokenResolver(new TrustedGatewayBearerTokenResolver())
                 .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter()))
             );
 
+        // Режим доверенного шлюза: принципал из подписанного заголовка, JWT проверяется только при прямых вызовах
+        if (trustedGatewayEnabled) {
+            http.addFilterBefore(new TrustedGatewayFilter(new TrustedPrincipalVerifier(trustedGatewaySecret)), BearerTokenAuthenticationFilter.class);
+        }
+
         return http.build();
     }
 
@@ -0,0 +1,28 @@
+package com.hotelbooking.hotel.config;
+
+import com.hotelbooking.common.warmup.WarmupTask;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Задачи прогрева Hotel Service: основные публичные пути каталога через собственный HTTP порт
+ * (фильтры безопасности, контроллеры, JPA-запросы и сериализация JSON)
+ */
+@Configuration
+public class WarmupConfig {
+
+    @Bean
+    public WarmupTask hotelListWarmupTask() {
+        return WarmupTask.get("hotels", "/api/hotels");
+    }
+
+    @Bean
+    public WarmupTask recommendedRoomsWarmupTask() {
+        return WarmupTask.get("rooms-recommend", "/api/rooms/recommend");
+    }
+
+    @Bean
+    public WarmupTask availableRoomsWarmupTask() {
+        return WarmupTask.get("rooms", "/api/rooms");
+    }
+}
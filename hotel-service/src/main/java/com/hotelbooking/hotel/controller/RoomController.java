@@ -36,11 +36,14 @@ public class RoomController {
 
     /**
      * Получить рекомендованные номера (сортировка по times_booked для равномерной загрузки)
+     * С hotelId - только номера этого отеля
      */
     @GetMapping("/recommend")
     @Operation(summary = "Получить рекомендованные номера с равномерной загрузкой")
-    public ResponseEntity<List<RoomDto>> getRecommendedRooms() {
-        List<RoomDto> rooms = roomService.getRecommendedRooms();
+    public ResponseEntity<List<RoomDto>> getRecommendedRooms(@RequestParam(required = false) Long hotelId) {
+        List<RoomDto> rooms = hotelId != null
+                ? roomService.getRecommendedRoomsByHotel(hotelId)
+                : roomService.getRecommendedRooms();
         return ResponseEntity.ok(rooms);
     }
 
@@ -4,14 +4,18 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
 /**
  * Сущность отеля
+ * Отели меняются редко: в кэше второго уровня запись сбрасывается после коммита без блокировки
  */
 @Entity
 @Table(name = "hotels")
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "hotels")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
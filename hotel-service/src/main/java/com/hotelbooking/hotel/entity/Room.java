@@ -4,12 +4,16 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Сущность номера в отеле
+ * available и timesBooked меняются при бронировании: READ_WRITE блокирует запись кэша на время транзакции
  */
 @Entity
 @Table(name = "rooms")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "rooms")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
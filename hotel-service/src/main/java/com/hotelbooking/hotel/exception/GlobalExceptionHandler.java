@@ -1,21 +1,34 @@
 package com.hotelbooking.hotel.exception;
 
+import jakarta.servlet.ServletException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.ErrorResponseException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Глобальный обработчик исключений
+ * Глобальный обработчик исключений для Hotel Service
  */
 @RestControllerAdvice
+@Slf4j
 public class GlobalExceptionHandler {
 
+    private static final String ACCESS_DENIED_MESSAGE = "У вас нет прав для выполнения этой операции";
+    private static final String INTERNAL_ERROR_MESSAGE = "Произошла внутренняя ошибка сервера";
+
     /**
      * Обработка валидационных ошибок
      */
@@ -36,32 +49,58 @@ public class GlobalExceptionHandler {
     }
 
     /**
-     * Обработка бизнес-исключений
+     * Обработка ошибок доступа
      */
-    @ExceptionHandler(RuntimeException.class)
-    public ResponseEntity<Map<String, Object>> handleRuntimeException(RuntimeException ex) {
-        Map<String, Object> error = new HashMap<>();
-        error.put("timestamp", LocalDateTime.now());
-        error.put("status", HttpStatus.BAD_REQUEST.value());
-        error.put("error", "Business Logic Error");
-        error.put("message", ex.getMessage());
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ApiError> handleAccessDeniedException(AccessDeniedException ex) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(ApiError.of(HttpStatus.FORBIDDEN, ACCESS_DENIED_MESSAGE));
+    }
 
-        return ResponseEntity.badRequest().body(error);
+    /**
+     * Обработка бизнес-исключений: статус определяется типом исключения
+     */
+    @ExceptionHandler(BusinessException.class)
+    public ResponseEntity<ApiError> handleBusinessException(BusinessException ex) {
+        return ResponseEntity.status(ex.getStatus()).body(ApiError.of(ex.getStatus(), ex.getMessage()));
     }
 
     /**
-     * Обработка всех остальных исключений
+     * Обработка некорректных запросов (тело, параметры, значения перечислений)
      */
-    @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, Object>> handleGeneralException(Exception ex) {
-        Map<String, Object> error = new HashMap<>();
-        error.put("timestamp", LocalDateTime.now());
-        error.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
-        error.put("error", "Internal Server Error");
-        error.put("message", "Произошла внутренняя ошибка сервера");
+    @ExceptionHandler({HttpMessageNotReadableException.class, MethodArgumentTypeMismatchException.class,
+            MissingServletRequestParameterException.class, IllegalArgumentException.class})
+    public ResponseEntity<ApiError> handleBadRequest(Exception ex) {
+        return ResponseEntity.badRequest().body(ApiError.of(HttpStatus.BAD_REQUEST, ex.getMessage()));
+    }
 
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+    /**
+     * Нарушение ограничений БД (например, гонка при создании номера с тем же номером)
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiError> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiError.of(HttpStatus.CONFLICT, "Операция нарушает ограничения данных"));
     }
-}
 
+    /**
+     * Исключения Spring MVC, которые сами знают свой статус (404 ресурса, 405 метода и т.п.)
+     */
+    @ExceptionHandler({ErrorResponseException.class, ServletException.class})
+    public ResponseEntity<ApiError> handleFrameworkException(Exception ex) {
+        if (!(ex instanceof ErrorResponse errorResponse)) {
+            return handleGeneralException(ex);
+        }
+        HttpStatus status = HttpStatus.valueOf(errorResponse.getStatusCode().value());
+        return ResponseEntity.status(status).body(ApiError.of(status, ex.getMessage()));
+    }
 
+    /**
+     * Обработка всех остальных исключений - это ошибки, а не бизнес-исходы
+     */
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ApiError> handleGeneralException(Exception ex) {
+        log.error("Unhandled exception", ex);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiError.of(HttpStatus.INTERNAL_SERVER_ERROR, INTERNAL_ERROR_MESSAGE));
+    }
+}
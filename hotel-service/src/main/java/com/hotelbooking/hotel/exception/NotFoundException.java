@@ -0,0 +1,18 @@
+package com.hotelbooking.hotel.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Запрошенный ресурс не найден (HTTP 404)
+ */
+public class NotFoundException extends BusinessException {
+
+    public NotFoundException(String message) {
+        super(message);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.NOT_FOUND;
+    }
+}
@@ -3,6 +3,7 @@ package com.hotelbooking.hotel.mapper;
 import com.hotelbooking.hotel.dto.RoomDto;
 import com.hotelbooking.hotel.entity.Room;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 /**
  * Маппер для преобразования Room сущностей в DTO и обратно
@@ -10,6 +11,8 @@ import org.mapstruct.Mapper;
 @Mapper(componentModel = "spring")
 public interface RoomMapper {
 
+    // getId у lazy-прокси Hotel не загружает сущность
+    @Mapping(target = "hotelId", source = "hotel.id")
     RoomDto toDto(Room room);
 
     Room toEntity(RoomDto roomDto);
@@ -1,14 +1,26 @@
 package com.hotelbooking.hotel.repository;
 
 import com.hotelbooking.hotel.entity.Hotel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * Репозиторий для работы с отелями
  */
 @Repository
 public interface HotelRepository extends JpaRepository<Hotel, Long> {
+
+    /**
+     * Все отели; список id в кэше запросов, сами отели - в регионе hotels
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Hotel> findAll();
 }
 
 
@@ -1,8 +1,11 @@
 package com.hotelbooking.hotel.repository;
 
 import com.hotelbooking.hotel.entity.Room;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -11,6 +14,7 @@ import java.util.List;
 
 /**
  * Репозиторий для работы с номерами
+ * Списки номеров кэшируются в кэше запросов и сбрасываются Hibernate при любой записи в rooms
  */
 @Repository
 public interface RoomRepository extends JpaRepository<Room, Long> {
@@ -18,19 +22,34 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
     /**
      * Найти все доступные номера (available = true)
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Room> findByAvailableTrue();
 
     /**
      * Найти все доступные номера, отсортированные по times_booked (возрастание), затем по id
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT r FROM Room r WHERE r.available = true ORDER BY r.timesBooked ASC, r.id ASC")
     List<Room> findAvailableRoomsSortedByTimesBooked();
 
+    /**
+     * Доступные номера отеля в порядке рекомендаций (индекс idx_rooms_hotel_available_times_booked)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT r FROM Room r WHERE r.hotel.id = :hotelId AND r.available = true ORDER BY r.timesBooked ASC, r.id ASC")
+    List<Room> findAvailableRoomsOfHotelSortedByTimesBooked(@Param("hotelId") Long hotelId);
+
     /**
      * Найти номера по отелю
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Room> findByHotelId(Long hotelId);
 
+    /**
+     * Есть ли в отеле номер с таким номером (индекс uq_rooms_hotel_number)
+     */
+    boolean existsByHotelIdAndNumber(Long hotelId, String number);
+
     /**
      * Проверить доступность номера на указанные даты
      * (упрощенная проверка - в реальности нужна таблица бронирований)
@@ -0,0 +1,56 @@
+package com.hotelbooking.hotel.security;
+
+import com.hotelbooking.common.security.TrustedPrincipal;
+import com.hotelbooking.common.security.TrustedPrincipalVerifier;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Аутентификация по подписанному шлюзом заголовку X-Auth-Principal (режим доверенного шлюза)
+ * Подпись и срок действия проверяет TrustedPrincipalVerifier из common, принципалом становится имя пользователя.
+ * Если заголовка нет или подпись не сошлась, запрос идет обычным путем через проверку JWT.
+ * Не регистрируется как бин, а добавляется в цепочку Spring Security перед BearerTokenAuthenticationFilter
+ */
+@Slf4j
+public class TrustedGatewayFilter extends OncePerRequestFilter {
+
+    public static final String PRINCIPAL_HEADER = TrustedPrincipalVerifier.PRINCIPAL_HEADER;
+
+    /** Атрибут запроса: принципал установлен из заголовка шлюза, bearer-токен не нужен */
+    static final String TRUSTED_ATTRIBUTE = TrustedGatewayFilter.class.getName() + ".TRUSTED";
+
+    private final TrustedPrincipalVerifier verifier;
+
+    public TrustedGatewayFilter(TrustedPrincipalVerifier verifier) {
+        this.verifier = verifier;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String header = request.getHeader(PRINCIPAL_HEADER);
+        if (header != null) {
+            TrustedPrincipal principal = verifier.verify(header);
+            if (principal != null) {
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(principal.username(), null,
+                        AuthorityUtils.createAuthorityList("ROLE_" + principal.role())));
+                SecurityContextHolder.setContext(context);
+                request.setAttribute(TRUSTED_ATTRIBUTE, Boolean.TRUE);
+            } else {
+                log.warn("Rejected {} header, falling back to JWT validation", PRINCIPAL_HEADER);
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -2,6 +2,7 @@ package com.hotelbooking.hotel.service;
 
 import com.hotelbooking.hotel.dto.HotelDto;
 import com.hotelbooking.hotel.entity.Hotel;
+import com.hotelbooking.hotel.exception.NotFoundException;
 import com.hotelbooking.hotel.mapper.HotelMapper;
 import com.hotelbooking.hotel.repository.HotelRepository;
 import lombok.RequiredArgsConstructor;
@@ -36,7 +37,7 @@ public class HotelService {
      */
     public HotelDto getHotelById(Long id) {
         Hotel hotel = hotelRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Отель не найден: " + id));
+                .orElseThrow(() -> new NotFoundException("Отель не найден: " + id));
         return hotelMapper.toDto(hotel);
     }
 
@@ -56,7 +57,7 @@ public class HotelService {
     @Transactional
     public HotelDto updateHotel(Long id, HotelDto hotelDto) {
         Hotel existingHotel = hotelRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Отель не найден: " + id));
+                .orElseThrow(() -> new NotFoundException("Отель не найден: " + id));
 
         existingHotel.setName(hotelDto.getName());
         existingHotel.setAddress(hotelDto.getAddress());
@@ -71,7 +72,7 @@ public class HotelService {
     @Transactional
     public void deleteHotel(Long id) {
         if (!hotelRepository.existsById(id)) {
-            throw new RuntimeException("Отель не найден: " + id);
+            throw new NotFoundException("Отель не найден: " + id);
         }
         hotelRepository.deleteById(id);
     }
@@ -4,6 +4,8 @@ import com.hotelbooking.hotel.dto.CreateRoomRequest;
 import com.hotelbooking.hotel.dto.RoomDto;
 import com.hotelbooking.hotel.entity.Hotel;
 import com.hotelbooking.hotel.entity.Room;
+import com.hotelbooking.hotel.exception.ConflictException;
+import com.hotelbooking.hotel.exception.NotFoundException;
 import com.hotelbooking.hotel.mapper.RoomMapper;
 import com.hotelbooking.hotel.repository.HotelRepository;
 import com.hotelbooking.hotel.repository.RoomRepository;
@@ -45,6 +47,15 @@ public class RoomService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Получить рекомендованные номера одного отеля в том же порядке
+     */
+    public List<RoomDto> getRecommendedRoomsByHotel(Long hotelId) {
+        return roomRepository.findAvailableRoomsOfHotelSortedByTimesBooked(hotelId).stream()
+                .map(roomMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Получить все номера по отелю
      */
@@ -60,14 +71,11 @@ public class RoomService {
     @Transactional
     public RoomDto createRoom(CreateRoomRequest request) {
         Hotel hotel = hotelRepository.findById(request.getHotelId())
-                .orElseThrow(() -> new RuntimeException("Отель не найден: " + request.getHotelId()));
-
-        // Проверить, что номер с таким номером не существует в этом отеле
-        boolean roomExists = hotel.getRooms().stream()
-                .anyMatch(room -> room.getNumber().equals(request.getNumber()));
+                .orElseThrow(() -> new NotFoundException("Отель не найден: " + request.getHotelId()));
 
-        if (roomExists) {
-            throw new RuntimeException("Номер " + request.getNumber() + " уже существует в отеле " + hotel.getName());
+        // Проверить, что номер с таким номером не существует в этом отеле (без загрузки всех номеров)
+        if (roomRepository.existsByHotelIdAndNumber(hotel.getId(), request.getNumber())) {
+            throw new ConflictException("Номер " + request.getNumber() + " уже существует в отеле " + hotel.getName());
         }
 
         Room room = roomMapper.toEntity(new RoomDto(null, request.getNumber(), request.getHotelId(), true, 0));
@@ -83,7 +91,7 @@ public class RoomService {
     @Transactional
     public boolean confirmRoomAvailability(Long roomId) {
         Room room = roomRepository.findById(roomId)
-                .orElseThrow(() -> new RuntimeException("Номер не найден: " + roomId));
+                .orElseThrow(() -> new NotFoundException("Номер не найден: " + roomId));
 
         if (!room.getAvailable()) {
             return false; // Номер недоступен
@@ -100,7 +108,7 @@ public class RoomService {
     @Transactional
     public void releaseRoomBlock(Long roomId) {
         Room room = roomRepository.findById(roomId)
-                .orElseThrow(() -> new RuntimeException("Номер не найден: " + roomId));
+                .orElseThrow(() -> new NotFoundException("Номер не найден: " + roomId));
 
         // В реальности здесь снимаем временную блокировку
         // Для простоты ничего не делаем, так как блокировка не реализована
@@ -112,7 +120,7 @@ public class RoomService {
     @Transactional
     public void incrementTimesBooked(Long roomId) {
         Room room = roomRepository.findById(roomId)
-                .orElseThrow(() -> new RuntimeException("Номер не найден: " + roomId));
+                .orElseThrow(() -> new NotFoundException("Номер не найден: " + roomId));
 
         room.setTimesBooked(room.getTimesBooked() + 1);
         roomRepository.save(room);
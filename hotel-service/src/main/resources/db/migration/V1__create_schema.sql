@@ -0,0 +1,16 @@
+-- Исходная схема Hotel Service (ранее создавалась Hibernate через ddl-auto)
+
+CREATE TABLE hotels (
+    id      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name    VARCHAR(255) NOT NULL,
+    address VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE rooms (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    number       VARCHAR(255) NOT NULL,
+    hotel_id     BIGINT       NOT NULL,
+    available    BOOLEAN      NOT NULL,
+    times_booked INTEGER      NOT NULL,
+    CONSTRAINT fk_rooms_hotel FOREIGN KEY (hotel_id) REFERENCES hotels (id)
+);
@@ -0,0 +1,7 @@
+-- Индексы под запросы RoomRepository
+
+-- findByAvailableTrue, findAvailableRoomsSortedByTimesBooked: available = true ORDER BY times_booked, id
+CREATE INDEX idx_rooms_available_times_booked ON rooms (available, times_booked, id);
+
+-- findByHotelId, existsByHotelIdAndNumber; номер уникален в пределах отеля
+CREATE UNIQUE INDEX uq_rooms_hotel_number ON rooms (hotel_id, number);
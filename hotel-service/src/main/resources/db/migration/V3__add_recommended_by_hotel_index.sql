@@ -0,0 +1,3 @@
+-- Рекомендации одного отеля (findAvailableRoomsOfHotelSortedByTimesBooked):
+-- hotel_id = ? AND available = true ORDER BY times_booked, id - поиск и сортировка по одному индексу
+CREATE INDEX idx_rooms_hotel_available_times_booked ON rooms (hotel_id, available, times_booked, id);
@@ -0,0 +1,90 @@
+package com.hotelbooking.hotel.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Тесты для индексов из db/migration: планы запросов RoomRepository идут по индексам, а не tableScan
+ */
+class RoomRepositoryIndexTest {
+
+    private static final String URL = "jdbc:h2:mem:room-index-test;DB_CLOSE_DELAY=-1";
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        Flyway.configure().dataSource(URL, "sa", "").load().migrate();
+        connection = DriverManager.getConnection(URL, "sa", "");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    void findAvailableRoomsSortedByTimesBooked_ShouldUseAvailableTimesBookedIndex() throws SQLException {
+        // When
+        String plan = explain("SELECT * FROM rooms WHERE available = TRUE ORDER BY times_booked, id");
+
+        // Then
+        assertThat(plan).contains("IDX_ROOMS_AVAILABLE_TIMES_BOOKED").doesNotContain("tableScan");
+    }
+
+    @Test
+    void findAvailableRoomsOfHotelSortedByTimesBooked_ShouldUseHotelAvailableTimesBookedIndex() throws SQLException {
+        // Given: на пустой таблице H2 не отличает этот индекс от индекса внешнего ключа
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO hotels (name, address) SELECT 'Отель ' || X, 'Адрес' FROM SYSTEM_RANGE(1, 50)");
+            statement.execute("INSERT INTO rooms (number, hotel_id, available, times_booked) "
+                + "SELECT CAST(X AS VARCHAR), MOD(X, 50) + 1, MOD(X, 4) > 0, MOD(X, 7) FROM SYSTEM_RANGE(1, 2000)");
+            statement.execute("ANALYZE");
+        }
+
+        // When
+        String plan = explain("SELECT * FROM rooms WHERE hotel_id = 1 AND available = TRUE ORDER BY times_booked, id");
+
+        // Then
+        assertThat(plan).contains("IDX_ROOMS_HOTEL_AVAILABLE_TIMES_BOOKED").doesNotContain("tableScan");
+    }
+
+    @Test
+    void findByHotelId_ShouldUseHotelIdIndex() throws SQLException {
+        // When
+        String plan = explain("SELECT * FROM rooms WHERE hotel_id = 1");
+
+        // Then: H2 может выбрать и индекс внешнего ключа, важно что поиск по hotel_id идет по индексу
+        assertThat(plan).containsPattern("/\\* PUBLIC\\.\\w+: HOTEL_ID = ").doesNotContain("tableScan");
+    }
+
+    @Test
+    void existsByHotelIdAndNumber_ShouldUseHotelNumberIndex() throws SQLException {
+        // When
+        String plan = explain("SELECT id FROM rooms WHERE hotel_id = 1 AND number = '101' FETCH FIRST 1 ROWS ONLY");
+
+        // Then
+        assertThat(plan).contains("UQ_ROOMS_HOTEL_NUMBER").doesNotContain("tableScan");
+    }
+
+    private String explain(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+}
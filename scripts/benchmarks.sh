@@ -0,0 +1,35 @@
+#!/usr/bin/env bash
+#
+# Микробенчмарки JMH (модуль benchmarks) с результатами в JSON для сравнения между версиями
+#
+# Использование:
+#   scripts/benchmarks.sh [аргументы JMH...]          - прогон, например: scripts/benchmarks.sh Jwt -f 1
+#   scripts/benchmarks.sh compare base.json new.json  - изменение score по каждому бенчмарку
+# Результаты: target/benchmarks/<версия>-<commit>.json (формат JMH -rf json)
+# Сборка: mvn -pl benchmarks -am -DskipTests package
+#
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+OUT="$ROOT/target/benchmarks"
+VERSION="1.0.0"
+JAR="$ROOT/benchmarks/target/benchmarks-$VERSION.jar"
+
+if [ ! -f "$JAR" ]; then
+    echo "$JAR not found, build with: mvn -pl benchmarks -am -DskipTests package" >&2
+    exit 1
+fi
+
+if [ "${1:-}" = "compare" ]; then
+    [ $# -eq 3 ] || { echo "usage: $0 compare <baseline.json> <current.json>" >&2; exit 2; }
+    exec java -cp "$JAR" com.hotelbooking.benchmarks.ResultsComparison "$2" "$3"
+fi
+
+mkdir -p "$OUT"
+COMMIT="$(git -C "$ROOT" rev-parse --short HEAD 2>/dev/null || echo unknown)"
+RESULT="$OUT/$VERSION-$COMMIT.json"
+
+java -jar "$JAR" -rf json -rff "$RESULT" "$@"
+
+echo
+echo "results: $RESULT"
@@ -0,0 +1,174 @@
+#!/usr/bin/env bash
+#
+# Замер времени старта сервисов: до готовности (/actuator/health = 200) и до первого успешного запроса
+#
+# Режимы:
+#   jar - обычный fat jar (target/<module>-<version>.jar)
+#   aot - распакованный jar с -Dspring.aot.enabled=true
+#   cds - то же + AppCDS архив target/cds/application.jsa
+# Режимы aot и cds требуют сборки с профилем: mvn -Pstartup -DskipTests package
+#
+# Использование: scripts/startup-benchmark.sh [-n повторов] [режим...]
+# Результаты: target/startup-benchmark/results.csv, логи сервисов рядом
+#
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+OUT="$ROOT/target/startup-benchmark"
+VERSION="1.0.0"
+RUNS=1
+TIMEOUT_SEC=180
+
+# Порядок старта важен: клиенты регистрируются в Eureka, шлюз ходит в сервисы
+MODULES=(eureka-server hotel-service booking-service api-gateway)
+
+declare -A PORT=([eureka-server]=8761 [hotel-service]=8081 [booking-service]=8082 [api-gateway]=8080)
+
+while getopts "n:" opt; do
+    case "$opt" in
+        n) RUNS="$OPTARG" ;;
+        *) echo "usage: $0 [-n runs] [jar|aot|cds...]" >&2; exit 2 ;;
+    esac
+done
+shift $((OPTIND - 1))
+MODES=("$@")
+[ ${#MODES[@]} -eq 0 ] && MODES=(jar aot cds)
+
+PIDS=()
+
+stop_all() {
+    for pid in "${PIDS[@]}"; do
+        kill "$pid" 2>/dev/null || true
+    done
+    for pid in "${PIDS[@]}"; do
+        wait "$pid" 2>/dev/null || true
+    done
+    PIDS=()
+}
+trap stop_all EXIT
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Первый запрос, который имеет смысл для сервиса: не health, а реальный путь с БД/маршрутизацией
+first_request() {
+    local module="$1" port="${PORT[$1]}"
+    case "$module" in
+        eureka-server)
+            curl -sf -o /dev/null -H 'Accept: application/json' "http://localhost:$port/eureka/apps" ;;
+        hotel-service)
+            curl -sf -o /dev/null "http://localhost:$port/api/hotels" ;;
+        booking-service)
+            curl -sf -o /dev/null -H 'Content-Type: application/json' \
+                -d '{"username":"user","password":"user123"}' "http://localhost:$port/user/auth" ;;
+        api-gateway)
+            curl -sf -o /dev/null "http://localhost:$port/api/hotels" ;;
+    esac
+}
+
+# Ожидание условия с отсчетом от запуска JVM, печатает миллисекунды
+wait_for() {
+    local start="$1" pid="$2"; shift 2
+    local deadline=$(( start + TIMEOUT_SEC * 1000 ))
+    while ! "$@"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "process exited" >&2
+            return 1
+        fi
+        if [ "$(now_ms)" -gt "$deadline" ]; then
+            echo "timeout" >&2
+            return 1
+        fi
+        sleep 0.05
+    done
+    echo $(( $(now_ms) - start ))
+}
+
+health_up() {
+    curl -sf -o /dev/null "http://localhost:$1/actuator/health"
+}
+
+java_args() {
+    local module="$1" mode="$2"
+    local cds_dir="$ROOT/$module/target/cds"
+    local jar="$module-$VERSION.jar"
+    # Eureka Server собирается без AOT (см. eureka-server/pom.xml)
+    local aot="-Dspring.aot.enabled=true"
+    [ "$module" = "eureka-server" ] && aot=""
+    case "$mode" in
+        jar) echo "-jar $ROOT/$module/target/$jar" ;;
+        aot) echo "$aot -jar $cds_dir/$jar" ;;
+        cds) echo "-XX:SharedArchiveFile=$cds_dir/application.jsa -Xshare:auto $aot -jar $cds_dir/$jar" ;;
+    esac
+}
+
+check_artifacts() {
+    local mode="$1" module
+    for module in "${MODULES[@]}"; do
+        case "$mode" in
+            jar) [ -f "$ROOT/$module/target/$module-$VERSION.jar" ] || return 1 ;;
+            aot) [ -f "$ROOT/$module/target/cds/$module-$VERSION.jar" ] || return 1 ;;
+            cds) [ -f "$ROOT/$module/target/cds/application.jsa" ] || return 1 ;;
+        esac
+    done
+}
+
+port_busy() {
+    curl -s -o /dev/null "http://localhost:$1/" 2>/dev/null
+}
+
+mkdir -p "$OUT"
+CSV="$OUT/results.csv"
+echo "mode,run,module,ready_ms,first_request_ms" > "$CSV"
+
+for module in "${MODULES[@]}"; do
+    if port_busy "${PORT[$module]}"; then
+        echo "port ${PORT[$module]} ($module) is busy, stop running services first" >&2
+        exit 1
+    fi
+done
+
+for mode in "${MODES[@]}"; do
+    if ! check_artifacts "$mode"; then
+        echo "skip $mode: artifacts not found, build with: mvn -Pstartup -DskipTests package" >&2
+        continue
+    fi
+    for run in $(seq 1 "$RUNS"); do
+        for module in "${MODULES[@]}"; do
+            log="$OUT/$module-$mode-$run.log"
+            start=$(now_ms)
+            # exec: PID в $! принадлежит самой JVM, а не подоболочке
+            # shellcheck disable=SC2046
+            (cd "$ROOT/$module" && exec java $(java_args "$module" "$mode")) > "$log" 2>&1 &
+            pid=$!
+            PIDS+=("$pid")
+
+            if ! ready=$(wait_for "$start" "$pid" health_up "${PORT[$module]}"); then
+                echo "$module ($mode) did not become ready, see $log" >&2
+                exit 1
+            fi
+            if ! first=$(wait_for "$start" "$pid" first_request "$module"); then
+                echo "$module ($mode) first request failed, see $log" >&2
+                exit 1
+            fi
+            echo "$mode,$run,$module,$ready,$first" >> "$CSV"
+        done
+        stop_all
+    done
+done
+
+# Медиана по повторам
+echo
+printf "%-6s %-16s %10s %18s\n" "mode" "module" "ready_ms" "first_request_ms"
+for mode in "${MODES[@]}"; do
+    for module in "${MODULES[@]}"; do
+        rows=$(grep "^$mode,[0-9]*,$module," "$CSV" || true)
+        [ -z "$rows" ] && continue
+        ready=$(echo "$rows" | cut -d, -f4 | sort -n | awk '{a[NR]=$1} END {print a[int((NR+1)/2)]}')
+        first=$(echo "$rows" | cut -d, -f5 | sort -n | awk '{a[NR]=$1} END {print a[int((NR+1)/2)]}')
+        printf "%-6s %-16s %10s %18s\n" "$mode" "$module" "$ready" "$first"
+    done
+done
+echo
+echo "results: $CSV"